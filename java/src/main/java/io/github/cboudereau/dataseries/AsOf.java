@@ -0,0 +1,81 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+final class AsOf<P extends Comparable<P>, E, T, R> implements Iterator<DataPoint<P, R>> {
+
+    static sealed interface Lookup<P extends Comparable<P>, T> permits Lookup.Scan, Lookup.Seek {
+        Optional<T> at(P point);
+
+        static <P extends Comparable<P>, T> Lookup<P, T> of(final Iterable<DataPoint<P, T>> series) {
+            return switch (series) {
+                case final IndexedSeries<P, T> indexed -> new Seek<>(indexed);
+                default -> new Scan<>(series.iterator());
+            };
+        }
+
+        static final class Scan<P extends Comparable<P>, T> implements Lookup<P, T> {
+            private final Iterator<DataPoint<P, T>> series;
+            private Optional<DataPoint<P, T>> current = Optional.empty();
+            private Optional<DataPoint<P, T>> next = Optional.empty();
+
+            Scan(final Iterator<DataPoint<P, T>> series) {
+                this.series = series;
+            }
+
+            private final Optional<DataPoint<P, T>> peek() {
+                if (this.next.isEmpty() && this.series.hasNext())
+                    this.next = Optional.of(this.series.next());
+                return this.next;
+            }
+
+            @Override
+            public final Optional<T> at(final P point) {
+                while (peek().map(x -> x.point().compareTo(point) <= 0).orElse(false)) {
+                    this.current = this.next;
+                    this.next = Optional.empty();
+                }
+                return this.current.map(x -> x.data());
+            }
+        }
+
+        static final class Seek<P extends Comparable<P>, T> implements Lookup<P, T> {
+            private final IndexedSeries<P, T> series;
+            private int index = -1;
+
+            Seek(final IndexedSeries<P, T> series) {
+                this.series = series;
+            }
+
+            @Override
+            public final Optional<T> at(final P point) {
+                this.index = this.index < 0 ? this.series.floorIndex(point) : this.series.floorIndex(point, this.index);
+                return this.index < 0 ? Optional.empty() : Optional.of(this.series.data(this.index));
+            }
+        }
+    }
+
+    private final Iterator<DataPoint<P, E>> events;
+    private final Lookup<P, T> series;
+    private final BiFunction<E, Optional<T>, R> f;
+
+    public AsOf(final Iterator<DataPoint<P, E>> events, final Lookup<P, T> series,
+            final BiFunction<E, Optional<T>, R> f) {
+        this.events = events;
+        this.series = series;
+        this.f = f;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        return this.events.hasNext();
+    }
+
+    @Override
+    public final DataPoint<P, R> next() {
+        final var event = this.events.next();
+        return new DataPoint<>(event.point(), this.f.apply(event.data(), this.series.at(event.point())));
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Optional;
+
+/**
+ * The position of a checkpointed union after its last emitted datapoint: the
+ * last point of the sources entirely united, the data in effect on each side at
+ * this point, the number of datapoints already emitted after this point when
+ * the sources repeat the next point and the emitted data, which is the pending
+ * run of a merged union.
+ *
+ * A union resumed from a checkpoint against the same sources emits exactly the
+ * datapoints after the checkpoint.
+ *
+ * @param <P>   the point type
+ * @param <L>   the left type
+ * @param <R>   the right type
+ * @param <T>   the data type
+ * @param point the last point entirely united or empty before the first point
+ * @param left  the left data in effect at the point
+ * @param right the right data in effect at the point
+ * @param skip  the number of datapoints emitted after the point
+ * @param data  the data of the last emitted datapoint
+ */
+public record Checkpoint<P, L, R, T>(Optional<P> point, Optional<L> left, Optional<R> right, Integer skip, T data) {
+
+    /**
+     * The codec of a checkpoint
+     *
+     * @param <P>   the point type
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @param <T>   the data type
+     * @param point the point codec
+     * @param left  the left codec
+     * @param right the right codec
+     * @param data  the data codec
+     * @return the checkpoint codec
+     */
+    public static <P, L, R, T> Codec<Checkpoint<P, L, R, T>> codec(final Codec<P> point, final Codec<L> left,
+            final Codec<R> right, final Codec<T> data) {
+        final var points = Codec.ofOptional(point);
+        final var lefts = Codec.ofOptional(left);
+        final var rights = Codec.ofOptional(right);
+        final var skips = Codec.ofInteger();
+        return Codec.of((output, checkpoint) -> {
+            points.write(output, checkpoint.point());
+            lefts.write(output, checkpoint.left());
+            rights.write(output, checkpoint.right());
+            skips.write(output, checkpoint.skip());
+            data.write(output, checkpoint.data());
+        }, input -> new Checkpoint<>(points.read(input), lefts.read(input), rights.read(input), skips.read(input),
+                data.read(input)));
+    }
+}
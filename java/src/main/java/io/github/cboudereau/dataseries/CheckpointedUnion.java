@@ -0,0 +1,253 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import io.github.cboudereau.dataseries.Union.Value;
+
+/**
+ * A union, optionally merged, which can export its position after each emitted
+ * datapoint and resume from it.
+ *
+ * The state of the union is the data in effect on each side, so a checkpoint
+ * only holds the last point entirely united, these data and the last emitted
+ * data for the pending merge run. Resuming seeks both sources after the point
+ * (indexed and windowable sources seek, other sources are read up to the point)
+ * and restores the data in effect, nothing before the point is computed again
+ * but the datapoints already emitted at a repeated point, which are skipped.
+ *
+ * Repeated points are united like {@link Union}.
+ *
+ * @param <P> the point type
+ * @param <L> the left type
+ * @param <R> the right type
+ * @param <T> the data type
+ */
+public final class CheckpointedUnion<P extends Comparable<P>, L, R, T> implements Iterator<DataPoint<P, T>> {
+    private final Iterator<DataPoint<P, L>> leftSeries;
+    private final Iterator<DataPoint<P, R>> rightSeries;
+    private final UnionResolver<L, R, T> resolver;
+    private final Boolean isMerged;
+
+    private Boolean isStarted = false;
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    private DataPoint<P, L> leftPending;
+    private DataPoint<P, R> rightPending;
+
+    private Optional<L> left = Optional.empty();
+    private Optional<R> right = Optional.empty();
+    private Optional<P> leftPoint = Optional.empty();
+    private Optional<P> rightPoint = Optional.empty();
+
+    private Optional<P> point = Optional.empty();
+    private Optional<L> pointLeft = Optional.empty();
+    private Optional<R> pointRight = Optional.empty();
+    private Integer skip = 0;
+    private Integer replay = 0;
+
+    private Optional<Checkpoint<P, L, R, T>> pending;
+    private Optional<Checkpoint<P, L, R, T>> checkpoint;
+
+    private CheckpointedUnion(final Iterator<DataPoint<P, L>> left, final Iterator<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver, final Boolean isMerged,
+            final Optional<Checkpoint<P, L, R, T>> checkpoint) {
+        this.leftSeries = left;
+        this.rightSeries = right;
+        this.resolver = resolver.fork();
+        this.isMerged = isMerged;
+        this.pending = checkpoint;
+        this.checkpoint = checkpoint;
+        checkpoint.ifPresent(x -> {
+            this.left = x.left();
+            this.right = x.right();
+            this.leftPoint = x.point();
+            this.rightPoint = x.point();
+            this.point = x.point();
+            this.pointLeft = x.left();
+            this.pointRight = x.right();
+            this.replay = x.skip();
+        });
+    }
+
+    static <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> of(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver, final Boolean isMerged) {
+        return new CheckpointedUnion<>(left.iterator(), right.iterator(), resolver, isMerged, Optional.empty());
+    }
+
+    static <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> resume(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver, final Boolean isMerged,
+            final Checkpoint<P, L, R, T> checkpoint) {
+        return new CheckpointedUnion<>(after(left, checkpoint.point()), after(right, checkpoint.point()), resolver,
+                isMerged, Optional.of(checkpoint));
+    }
+
+    private static <P extends Comparable<P>, T> Iterator<DataPoint<P, T>> after(
+            final Iterable<DataPoint<P, T>> series, final Optional<P> point) {
+        return point.map(x -> after(series, x)).orElseGet(series::iterator);
+    }
+
+    /**
+     * The datapoints strictly after the given point
+     */
+    private static <P extends Comparable<P>, T> Iterator<DataPoint<P, T>> after(
+            final Iterable<DataPoint<P, T>> series, final P point) {
+        final var iterator = Window.Range.of(point, Value.<P>infinite()).apply(series).iterator();
+        return new Iterator<DataPoint<P, T>>() {
+            private DataPoint<P, T> pending = seek();
+
+            private final DataPoint<P, T> seek() {
+                while (iterator.hasNext()) {
+                    final var next = iterator.next();
+                    if (next.point().compareTo(point) > 0)
+                        return next;
+                }
+                return null;
+            }
+
+            @Override
+            public final boolean hasNext() {
+                return this.pending != null;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (this.pending == null)
+                    throw new NoSuchElementException();
+                final var next = this.pending;
+                this.pending = iterator.hasNext() ? iterator.next() : null;
+                return next;
+            }
+        };
+    }
+
+    /**
+     * The position after the last emitted datapoint
+     *
+     * @return the checkpoint or empty when no datapoint was emitted
+     */
+    public final Optional<Checkpoint<P, L, R, T>> checkpoint() {
+        return this.checkpoint;
+    }
+
+    private static <P extends Comparable<P>, T> Boolean isAt(final DataPoint<P, T> pending, final P point) {
+        return pending != null && pending.point().compareTo(point) == 0;
+    }
+
+    private final DataPoint<P, L> advanceLeft() {
+        final var left = this.leftPending;
+        this.leftPending = this.leftSeries.hasNext() ? this.leftSeries.next() : null;
+        return left;
+    }
+
+    private final DataPoint<P, R> advanceRight() {
+        final var right = this.rightPending;
+        this.rightPending = this.rightSeries.hasNext() ? this.rightSeries.next() : null;
+        return right;
+    }
+
+    /**
+     * The datapoint in effect on the other side repeated for each datapoint but
+     * the last of a side starting at a repeated point, like {@link Union}
+     */
+    private final Optional<DataPoint<P, T>> start(final P point) {
+        if (this.left.isEmpty() && this.right.isPresent() && isAt(this.leftPending, point)
+                && !isAt(this.rightPending, point)) {
+            final var left = advanceLeft();
+            if (isAt(this.leftPending, point))
+                return Optional.of(new DataPoint<>(this.rightPoint.get(), this.resolver.rightOnly(this.right.get())));
+            this.left = Optional.of(left.data());
+            this.leftPoint = Optional.of(point);
+        } else if (this.right.isEmpty() && this.left.isPresent() && isAt(this.rightPending, point)) {
+            final var right = advanceRight();
+            if (isAt(this.rightPending, point))
+                return Optional.of(new DataPoint<>(this.leftPoint.get(), this.resolver.leftOnly(this.left.get())));
+            this.right = Optional.of(right.data());
+            this.rightPoint = Optional.of(point);
+        }
+        return Optional.empty();
+    }
+
+    private final DataPoint<P, T> zip(final P point) {
+        if (isAt(this.leftPending, point)) {
+            this.left = Optional.of(advanceLeft().data());
+            this.leftPoint = Optional.of(point);
+        }
+
+        if (isAt(this.rightPending, point)) {
+            this.right = Optional.of(advanceRight().data());
+            this.rightPoint = Optional.of(point);
+        }
+
+        final var data = this.left.isEmpty() ? this.resolver.rightOnly(this.right.get())
+                : this.right.isEmpty() ? this.resolver.leftOnly(this.left.get())
+                        : this.resolver.both(this.left.get(), this.right.get());
+        return new DataPoint<>(point, data);
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+        if (!this.isStarted) {
+            this.isStarted = true;
+            advanceLeft();
+            advanceRight();
+        }
+
+        while (this.leftPending != null || this.rightPending != null) {
+            final var point = this.rightPending == null || (this.leftPending != null
+                    && this.leftPending.point().compareTo(this.rightPending.point()) <= 0) ? this.leftPending.point()
+                            : this.rightPending.point();
+
+            final var datapoint = start(point).orElseGet(() -> zip(point));
+
+            this.skip++;
+            if (!isAt(this.leftPending, point) && !isAt(this.rightPending, point)) {
+                this.point = Optional.of(point);
+                this.pointLeft = this.left;
+                this.pointRight = this.right;
+                this.skip = 0;
+            }
+
+            if (this.replay > 0) {
+                this.replay--;
+                continue;
+            }
+
+            final var data = datapoint.data();
+            if (this.isMerged && this.pending.map(x -> x.data().equals(data)).orElse(false))
+                continue;
+
+            this.pending = Optional.of(new Checkpoint<>(this.point, this.pointLeft, this.pointRight, this.skip, data));
+            this.entry = Optional.of(datapoint);
+            return;
+        }
+
+        this.hasNext = false;
+        this.entry = Optional.empty();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (!this.hasNext)
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        this.checkpoint = this.pending;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+
+/**
+ * An iterator holding resources such as files, threads or sockets. The
+ * resources are released once the iterator is exhausted or fails, an iteration
+ * abandoned before its end should close the iterator.
+ *
+ * @param <T> the element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+    /**
+     * Release the resources of the iteration, closing twice has no effect
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,29 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A series whose iterations hold resources, each iterator should be closed
+ * when it is abandoned before its end
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public interface CloseableSeries<P, T> extends IterableSeries<P, T> {
+    @Override
+    CloseableIterator<DataPoint<P, T>> iterator();
+
+    /**
+     * Convert to a conventional stream closing its iterator when the stream is
+     * closed
+     *
+     * @return a datapoint stream to close once done
+     */
+    @Override
+    public default Stream<DataPoint<P, T>> stream() {
+        final var iterator = this.iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false).onClose(iterator::close);
+    }
+}
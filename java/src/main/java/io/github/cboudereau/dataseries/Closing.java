@@ -0,0 +1,53 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An iterator reading from closeable iterators, such as a union of prefetched
+ * series, and closing all of them when it is closed.
+ */
+final class Closing<T> implements CloseableIterator<T> {
+    private final Iterator<T> iterator;
+    private final List<? extends CloseableIterator<?>> resources;
+
+    private Closing(final Iterator<T> iterator, final List<? extends CloseableIterator<?>> resources) {
+        this.iterator = iterator;
+        this.resources = resources;
+    }
+
+    static <T> Closing<T> of(final Iterator<T> iterator, final List<? extends CloseableIterator<?>> resources) {
+        return new Closing<>(iterator, resources);
+    }
+
+    @Override
+    public final boolean hasNext() {
+        return this.iterator.hasNext();
+    }
+
+    @Override
+    public final T next() {
+        return this.iterator.next();
+    }
+
+    /**
+     * Close every resource, the first failure is thrown once all of them are
+     * closed
+     */
+    @Override
+    public final void close() {
+        RuntimeException failure = null;
+        for (final var resource : this.resources) {
+            try {
+                resource.close();
+            } catch (final RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+}
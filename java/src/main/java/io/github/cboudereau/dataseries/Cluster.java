@@ -0,0 +1,513 @@
+package io.github.cboudereau.dataseries;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * The coordinator of a distributed union over {@link Worker} processes.
+ *
+ * The point domain is split into ranges at the split points and each range is
+ * streamed to a worker over its own connection, round robin over the workers,
+ * by its own sender thread interleaving the left and right datapoints of the
+ * range in point order. Indexed series seek to the start of each range, other
+ * series are read from their first datapoint by every sender. The datapoint in
+ * effect at the start of a range on each side is sent before the range so that
+ * the worker starts from the same state as a local union. The workers union
+ * their range while it arrives, in parallel, and the results are read ahead
+ * and concatenated in range order. With merge, the first datapoint of a range
+ * is dropped when it repeats the last datapoint of the previous range so that
+ * the result is the same as a local merge.
+ *
+ * @param <P> the point type
+ * @param <L> the left type
+ * @param <R> the right type
+ * @param <T> the resolved type
+ */
+public final class Cluster<P extends Comparable<P>, L, R, T> {
+    static final int CAPACITY = 256;
+
+    /**
+     * The codecs and the resolver of a distributed union. The implementation
+     * should have a public no argument constructor and be on the classpath of
+     * the coordinator and of the workers.
+     *
+     * @param <P> the point type
+     * @param <L> the left type
+     * @param <R> the right type
+     * @param <T> the resolved type
+     */
+    public static interface Job<P extends Comparable<P>, L, R, T> {
+        /**
+         * The point codec
+         *
+         * @return the point codec
+         */
+        Codec<P> point();
+
+        /**
+         * The left data codec
+         *
+         * @return the left data codec
+         */
+        Codec<L> left();
+
+        /**
+         * The right data codec
+         *
+         * @return the right data codec
+         */
+        Codec<R> right();
+
+        /**
+         * The resolved data codec
+         *
+         * @return the resolved data codec
+         */
+        Codec<T> data();
+
+        /**
+         * The pure resolver run by the workers
+         *
+         * @return the resolver
+         */
+        UnionResolver<L, R, T> resolver();
+    }
+
+    private final List<InetSocketAddress> workers;
+    private final String name;
+    private final Job<P, L, R, T> job;
+
+    private Cluster(final List<InetSocketAddress> workers, final String name, final Job<P, L, R, T> job) {
+        this.workers = workers;
+        this.name = name;
+        this.job = job;
+    }
+
+    static <P extends Comparable<P>, L, R, T> Cluster<P, L, R, T> of(final List<InetSocketAddress> workers,
+            final Class<? extends Job<P, L, R, T>> job) {
+        if (workers.isEmpty())
+            throw new IllegalArgumentException("a cluster needs at least one worker");
+
+        try {
+            return new Cluster<>(List.copyOf(workers), job.getName(), job.getDeclaredConstructor().newInstance());
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalArgumentException("job " + job.getName() + " should have a public no argument constructor",
+                    e);
+        }
+    }
+
+    /**
+     * Split points cutting the indexed serie into ranges having the same number
+     * of datapoints
+     *
+     * @param <P>    the point type
+     * @param series the indexed serie, usually a sample of the inputs
+     * @param ranges the number of ranges
+     * @return the sorted distinct split points, at most ranges - 1
+     */
+    public static <P extends Comparable<P>> List<P> splits(final IndexedSeries<P, ?> series, final Integer ranges) {
+        if (ranges < 1)
+            throw new IllegalArgumentException("ranges should be positive but was " + ranges);
+
+        final var splits = new ArrayList<P>();
+        for (var i = 1; i < ranges; i++) {
+            final var index = (int) ((long) series.size() * i / ranges);
+            if (index == 0 || index >= series.size())
+                continue;
+
+            final var point = series.point(index);
+            if (splits.isEmpty() || splits.get(splits.size() - 1).compareTo(point) < 0)
+                splits.add(point);
+        }
+        return splits;
+    }
+
+    /**
+     * union 2 series on the workers
+     *
+     * @param left   the left serie
+     * @param right  the right serie
+     * @param splits the sorted split points of the ranges
+     * @return the same series as the local union, its iterator should be closed
+     *         when the iteration is abandoned before the end
+     */
+    public final CloseableSeries<P, T> union(final Iterable<DataPoint<P, L>> left,
+            final Iterable<DataPoint<P, R>> right, final List<P> splits) {
+        return distribute(left, right, splits, false);
+    }
+
+    /**
+     * union 2 series and merge the result on the workers
+     *
+     * @param left   the left serie
+     * @param right  the right serie
+     * @param splits the sorted split points of the ranges
+     * @return the same series as the local merge of the union, its iterator
+     *         should be closed when the iteration is abandoned before the end
+     */
+    public final CloseableSeries<P, T> mergedUnion(final Iterable<DataPoint<P, L>> left,
+            final Iterable<DataPoint<P, R>> right, final List<P> splits) {
+        return distribute(left, right, splits, true);
+    }
+
+    private final CloseableSeries<P, T> distribute(final Iterable<DataPoint<P, L>> left,
+            final Iterable<DataPoint<P, R>> right, final List<P> splits, final Boolean merge) {
+        for (var i = 1; i < splits.size(); i++) {
+            if (splits.get(i - 1).compareTo(splits.get(i)) >= 0)
+                throw new IllegalArgumentException(
+                        "splits should be strictly increasing but " + splits.get(i) + " comes after "
+                                + splits.get(i - 1));
+        }
+        final var ranges = List.copyOf(splits);
+        return () -> new Distributed(left, right, ranges, merge);
+    }
+
+    private final class Channel implements AutoCloseable {
+        private final Socket socket;
+        private final DataOutputStream output;
+        private final DataInputStream input;
+
+        Channel(final InetSocketAddress worker) throws IOException {
+            this.socket = new Socket();
+            this.socket.connect(worker);
+            this.output = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+            this.input = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+        }
+
+        final <X> void write(final byte frame, final DataPoint<P, X> datapoint, final Codec<X> codec)
+                throws IOException {
+            this.output.writeByte(frame);
+            Cluster.this.job.point().write(this.output, datapoint.point());
+            codec.write(this.output, datapoint.data());
+        }
+
+        @Override
+        public final void close() {
+            try {
+                this.socket.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final class Results implements Iterator<DataPoint<P, T>> {
+        private final DataInputStream input;
+        private final Sender sender;
+
+        private Boolean isPulled = false;
+        private Boolean hasNext = true;
+        private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+        Results(final DataInputStream input, final Sender sender) {
+            this.input = input;
+            this.sender = sender;
+        }
+
+        private final void pull() {
+            if (!this.hasNext || this.isPulled)
+                return;
+
+            this.isPulled = true;
+            try {
+                final var frame = this.input.readByte();
+                if (frame == Worker.ERROR)
+                    throw new IllegalStateException("worker failed: " + this.input.readUTF());
+
+                this.hasNext = frame == Worker.DATAPOINT;
+                this.entry = this.hasNext
+                        ? Optional.of(new DataPoint<>(Cluster.this.job.point().read(this.input),
+                                Cluster.this.job.data().read(this.input)))
+                        : Optional.empty();
+            } catch (final IOException e) {
+                this.sender.failure.ifPresent(x -> {
+                    throw x;
+                });
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public final boolean hasNext() {
+            pull();
+            return this.hasNext;
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            pull();
+            if (!this.hasNext)
+                throw new NoSuchElementException();
+
+            this.isPulled = false;
+            return this.entry.get();
+        }
+    }
+
+    /**
+     * The datapoints of a side in a range, starting with the datapoint in effect
+     * at the start of the range
+     */
+    private final class Ranged<X> implements Iterator<DataPoint<P, X>> {
+        private final Iterator<DataPoint<P, X>> series;
+        private final Optional<P> to;
+        private final ArrayDeque<DataPoint<P, X>> pending = new ArrayDeque<>();
+        private Optional<P> last = Optional.empty();
+
+        Ranged(final Iterable<DataPoint<P, X>> series, final Optional<P> from, final Optional<P> to) {
+            this.to = to;
+            this.series = switch (series) {
+                case final IndexedSeries<P, X> indexed -> indexed.iterator(from.map(x -> start(indexed, x)).orElse(0));
+                default -> series.iterator();
+            };
+
+            DataPoint<P, X> previous = null;
+            while (this.series.hasNext()) {
+                final var next = read();
+                if (from.map(x -> x.compareTo(next.point()) <= 0).orElse(true)) {
+                    this.pending.add(next);
+                    break;
+                }
+                previous = next;
+            }
+            if (previous != null)
+                this.pending.addFirst(previous);
+        }
+
+        /**
+         * The index of the datapoint in effect before the point
+         */
+        private static <P extends Comparable<P>, X> int start(final IndexedSeries<P, X> series, final P point) {
+            var index = series.floorIndex(point);
+            while (index >= 0 && series.point(index).compareTo(point) == 0) {
+                index--;
+            }
+            return index;
+        }
+
+        private final DataPoint<P, X> read() {
+            final var next = this.series.next();
+            if (this.last.isPresent() && this.last.get().compareTo(next.point()) > 0)
+                throw new IllegalArgumentException(
+                        "series should be sorted but " + next.point() + " comes after " + this.last.get());
+            this.last = Optional.of(next.point());
+            return next;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            final var next = this.pending.peek();
+            return next != null && this.to.map(x -> next.point().compareTo(x) < 0).orElse(true);
+        }
+
+        @Override
+        public final DataPoint<P, X> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            final var next = this.pending.poll();
+            if (this.pending.isEmpty() && this.series.hasNext())
+                this.pending.add(read());
+            return next;
+        }
+    }
+
+    /**
+     * Streams a range to its worker, the left and right datapoints interleaved
+     * in point order
+     */
+    private final class Sender implements Runnable {
+        private final Channel channel;
+        private final Iterable<DataPoint<P, L>> left;
+        private final Iterable<DataPoint<P, R>> right;
+        private final Optional<P> from;
+        private final Optional<P> to;
+
+        private volatile Optional<RuntimeException> failure = Optional.empty();
+
+        Sender(final Channel channel, final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+                final Optional<P> from, final Optional<P> to) {
+            this.channel = channel;
+            this.left = left;
+            this.right = right;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public final void run() {
+            try {
+                final var left = new Ranged<>(this.left, this.from, this.to);
+                final var right = new Ranged<>(this.right, this.from, this.to);
+                final var output = this.channel.output;
+                var leftPending = left.hasNext() ? left.next() : null;
+                var rightPending = right.hasNext() ? right.next() : null;
+                while (leftPending != null || rightPending != null) {
+                    if (rightPending == null
+                            || (leftPending != null && leftPending.point().compareTo(rightPending.point()) <= 0)) {
+                        this.channel.write(Worker.LEFT, leftPending, Cluster.this.job.left());
+                        leftPending = left.hasNext() ? left.next() : null;
+                    } else {
+                        this.channel.write(Worker.RIGHT, rightPending, Cluster.this.job.right());
+                        rightPending = right.hasNext() ? right.next() : null;
+                    }
+                }
+                output.writeByte(Worker.END);
+                output.flush();
+            } catch (final IOException e) {
+                fail(new UncheckedIOException(e));
+            } catch (final RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private final void fail(final RuntimeException e) {
+            this.failure = Optional.of(e);
+            this.channel.close();
+        }
+    }
+
+    /**
+     * The concatenation of the range results, the connections and the read ahead
+     * threads of every range are released when the iteration is closed or when
+     * any range fails
+     */
+    private final class Distributed implements CloseableIterator<DataPoint<P, T>> {
+        private final Boolean merge;
+        private final List<Channel> channels = new ArrayList<>();
+        private final List<Prefetch<P, T>> results = new ArrayList<>();
+
+        private Boolean isPulled = false;
+        private Boolean hasNext = true;
+        private Optional<DataPoint<P, T>> entry = Optional.empty();
+        private Optional<T> last = Optional.empty();
+        private int range = 0;
+        private Boolean isFirst = true;
+
+        Distributed(final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+                final List<P> splits, final Boolean merge) {
+            this.merge = merge;
+            try {
+                for (var i = 0; i <= splits.size(); i++) {
+                    final var channel = new Channel(Cluster.this.workers.get(i % Cluster.this.workers.size()));
+                    this.channels.add(channel);
+                    channel.output.writeUTF(Cluster.this.name);
+                    channel.output.writeBoolean(merge);
+                    channel.output.writeBoolean(i > 0);
+                    if (i > 0)
+                        Cluster.this.job.point().write(channel.output, splits.get(i - 1));
+                }
+
+                for (var i = 0; i < this.channels.size(); i++) {
+                    final var channel = this.channels.get(i);
+                    final var from = i > 0 ? Optional.of(splits.get(i - 1)) : Optional.<P>empty();
+                    final var to = i < splits.size() ? Optional.of(splits.get(i)) : Optional.<P>empty();
+                    final var sender = new Sender(channel, left, right, from, to);
+                    Threads.start("dataseries-cluster-sender", sender);
+                    this.results.add(new Prefetch<>(new Results(channel.input, sender), CAPACITY));
+                }
+            } catch (final IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private final void pull() {
+            if (!this.hasNext || this.isPulled)
+                return;
+
+            this.isPulled = true;
+            try {
+                read();
+            } catch (final RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private final void read() {
+            while (this.range < this.results.size()) {
+                final var results = this.results.get(this.range);
+                if (!results.hasNext()) {
+                    results.close();
+                    this.channels.get(this.range).close();
+                    this.range++;
+                    this.isFirst = true;
+                    continue;
+                }
+
+                final var next = results.next();
+                final var isRepeated = this.merge && this.isFirst
+                        && this.last.map(x -> x.equals(next.data())).orElse(false);
+                this.isFirst = false;
+                if (isRepeated)
+                    continue;
+
+                this.entry = Optional.of(next);
+                this.last = Optional.of(next.data());
+                return;
+            }
+
+            this.hasNext = false;
+            this.entry = Optional.empty();
+        }
+
+        @Override
+        public final boolean hasNext() {
+            pull();
+            return this.hasNext;
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            pull();
+            if (!this.hasNext)
+                throw new NoSuchElementException();
+
+            this.isPulled = false;
+            return this.entry.get();
+        }
+
+        /**
+         * Stop the read ahead and close the connection of every range, the first
+         * failure is thrown once all of them are closed
+         */
+        @Override
+        public final void close() {
+            this.hasNext = false;
+            this.isPulled = true;
+            this.entry = Optional.empty();
+
+            RuntimeException failure = null;
+            final var closes = new ArrayList<Runnable>();
+            this.results.forEach(x -> closes.add(x::close));
+            this.channels.forEach(x -> closes.add(x::close));
+            for (final var close : closes) {
+                try {
+                    close.run();
+                } catch (final RuntimeException e) {
+                    if (failure == null)
+                        failure = e;
+                    else
+                        failure.addSuppressed(e);
+                }
+            }
+            if (failure != null)
+                throw failure;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.cboudereau.dataseries;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Binary codec used to store points and data outside of the heap (temporary
+ * files, logs, sockets)
+ *
+ * @param <T> the encoded type
+ */
+public interface Codec<T> {
+    /**
+     * Write the value to the output
+     *
+     * @param output the binary output
+     * @param value  the value to write
+     * @throws IOException when the output cannot be written
+     */
+    void write(DataOutput output, T value) throws IOException;
+
+    /**
+     * Read a value from the input
+     *
+     * @param input the binary input
+     * @return the read value
+     * @throws IOException when the input cannot be read
+     */
+    T read(DataInput input) throws IOException;
+
+    /**
+     * The writer part of a codec
+     *
+     * @param <T> the encoded type
+     */
+    @FunctionalInterface
+    public static interface Writer<T> {
+        /**
+         * Write the value to the output
+         *
+         * @param output the binary output
+         * @param value  the value to write
+         * @throws IOException when the output cannot be written
+         */
+        void write(DataOutput output, T value) throws IOException;
+    }
+
+    /**
+     * The reader part of a codec
+     *
+     * @param <T> the encoded type
+     */
+    @FunctionalInterface
+    public static interface Reader<T> {
+        /**
+         * Read a value from the input
+         *
+         * @param input the binary input
+         * @return the read value
+         * @throws IOException when the input cannot be read
+         */
+        T read(DataInput input) throws IOException;
+    }
+
+    /**
+     * Create a codec from a writer and a reader
+     *
+     * @param <T>    the encoded type
+     * @param writer the writer
+     * @param reader the reader
+     * @return a codec
+     */
+    public static <T> Codec<T> of(final Writer<T> writer, final Reader<T> reader) {
+        return new Codec<T>() {
+            @Override
+            public void write(final DataOutput output, final T value) throws IOException {
+                writer.write(output, value);
+            }
+
+            @Override
+            public T read(final DataInput input) throws IOException {
+                return reader.read(input);
+            }
+        };
+    }
+
+    /**
+     * A 4 bytes integer codec
+     *
+     * @return an integer codec
+     */
+    public static Codec<Integer> ofInteger() {
+        return of((output, value) -> output.writeInt(value), input -> input.readInt());
+    }
+
+    /**
+     * A 8 bytes long codec
+     *
+     * @return a long codec
+     */
+    public static Codec<Long> ofLong() {
+        return of((output, value) -> output.writeLong(value), input -> input.readLong());
+    }
+
+    /**
+     * A 8 bytes double codec
+     *
+     * @return a double codec
+     */
+    public static Codec<Double> ofDouble() {
+        return of((output, value) -> output.writeDouble(value), input -> input.readDouble());
+    }
+
+    /**
+     * A modified UTF-8 string codec
+     *
+     * @return a string codec
+     */
+    public static Codec<String> ofString() {
+        return of((output, value) -> output.writeUTF(value), input -> input.readUTF());
+    }
+
+    /**
+     * An optional codec prefixing the value with a presence flag, useful for end
+     * of interval markers
+     *
+     * @param <T>   the optional value type
+     * @param value the value codec
+     * @return an optional codec
+     */
+    public static <T> Codec<Optional<T>> ofOptional(final Codec<T> value) {
+        return of((output, x) -> {
+            output.writeBoolean(x.isPresent());
+            if (x.isPresent())
+                value.write(output, x.get());
+        }, input -> input.readBoolean() ? Optional.of(value.read(input)) : Optional.empty());
+    }
+}
@@ -0,0 +1,414 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+final class Cursors {
+    private Cursors() {
+
+    }
+
+    static <P extends Comparable<P>, T> SeriesCursor<P, T> of(final Iterable<DataPoint<P, T>> series) {
+        return switch (series) {
+            case final IndexedSeries<P, T> indexed -> new Indexed<>(indexed);
+            default -> new Source<>(series.iterator());
+        };
+    }
+
+    static final class Source<P, T> implements SeriesCursor<P, T> {
+        private final Iterator<DataPoint<P, T>> iterator;
+        private DataPoint<P, T> current;
+
+        Source(final Iterator<DataPoint<P, T>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.iterator.hasNext())
+                return false;
+            this.current = this.iterator.next();
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.current.point();
+        }
+
+        @Override
+        public final T data() {
+            return this.current.data();
+        }
+    }
+
+    static final class Indexed<P extends Comparable<P>, T> implements SeriesCursor<P, T> {
+        private final IndexedSeries<P, T> series;
+        private int index;
+
+        Indexed(final IndexedSeries<P, T> series) {
+            this(series, -1);
+        }
+
+        Indexed(final IndexedSeries<P, T> series, final int index) {
+            this.series = series;
+            this.index = index;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (this.index + 1 >= this.series.size())
+                return false;
+            this.index++;
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.series.point(this.index);
+        }
+
+        @Override
+        public final T data() {
+            return this.series.data(this.index);
+        }
+    }
+
+    static final class Union<P extends Comparable<P>, L, R> implements UnionCursor<P, L, R> {
+        private final SeriesCursor<P, L> leftCursor;
+        private final SeriesCursor<P, R> rightCursor;
+
+        private boolean isStarted = false;
+        private boolean hasLeftPending;
+        private boolean hasRightPending;
+
+        private P point;
+        private boolean hasLeft = false;
+        private boolean hasRight = false;
+        private L left;
+        private R right;
+        private P leftPoint;
+        private P rightPoint;
+
+        Union(final SeriesCursor<P, L> left, final SeriesCursor<P, R> right) {
+            this.leftCursor = left;
+            this.rightCursor = right;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.isStarted) {
+                this.isStarted = true;
+                this.hasLeftPending = this.leftCursor.advance();
+                this.hasRightPending = this.rightCursor.advance();
+            }
+
+            if (!this.hasLeftPending && !this.hasRightPending)
+                return false;
+
+            final var point = !this.hasRightPending
+                    || (this.hasLeftPending && this.leftCursor.point().compareTo(this.rightCursor.point()) <= 0)
+                            ? this.leftCursor.point()
+                            : this.rightCursor.point();
+
+            final var isLeftAtPoint = this.hasLeftPending && this.leftCursor.point().compareTo(point) == 0;
+            final var isRightAtPoint = this.hasRightPending && this.rightCursor.point().compareTo(point) == 0;
+            if (!this.hasLeft && this.hasRight && isLeftAtPoint && !isRightAtPoint) {
+                final var left = this.leftCursor.data();
+                this.hasLeftPending = this.leftCursor.advance();
+                if (this.hasLeftPending && this.leftCursor.point().compareTo(point) == 0) {
+                    this.point = this.rightPoint;
+                    return true;
+                }
+                this.hasLeft = true;
+                this.left = left;
+                this.leftPoint = point;
+            } else if (!this.hasRight && this.hasLeft && isRightAtPoint) {
+                final var right = this.rightCursor.data();
+                this.hasRightPending = this.rightCursor.advance();
+                if (this.hasRightPending && this.rightCursor.point().compareTo(point) == 0) {
+                    this.point = this.leftPoint;
+                    return true;
+                }
+                this.hasRight = true;
+                this.right = right;
+                this.rightPoint = point;
+            }
+
+            if (this.hasLeftPending && this.leftCursor.point().compareTo(point) == 0) {
+                this.hasLeft = true;
+                this.left = this.leftCursor.data();
+                this.leftPoint = point;
+                this.hasLeftPending = this.leftCursor.advance();
+            }
+
+            if (this.hasRightPending && this.rightCursor.point().compareTo(point) == 0) {
+                this.hasRight = true;
+                this.right = this.rightCursor.data();
+                this.rightPoint = point;
+                this.hasRightPending = this.rightCursor.advance();
+            }
+
+            this.point = point;
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.point;
+        }
+
+        @Override
+        public final boolean hasLeft() {
+            return this.hasLeft;
+        }
+
+        @Override
+        public final boolean hasRight() {
+            return this.hasRight;
+        }
+
+        @Override
+        public final L left() {
+            return this.left;
+        }
+
+        @Override
+        public final R right() {
+            return this.right;
+        }
+    }
+
+    static final class Merge<P, T> implements SeriesCursor<P, T> {
+        private final SeriesCursor<P, T> series;
+
+        private boolean isStarted = false;
+        private boolean hasPending;
+
+        private P point;
+        private T data;
+
+        Merge(final SeriesCursor<P, T> series) {
+            this.series = series;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.isStarted) {
+                this.isStarted = true;
+                this.hasPending = this.series.advance();
+            }
+
+            if (!this.hasPending)
+                return false;
+
+            this.point = this.series.point();
+            this.data = this.series.data();
+            do {
+                this.hasPending = this.series.advance();
+            } while (this.hasPending && this.data.equals(this.series.data()));
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.point;
+        }
+
+        @Override
+        public final T data() {
+            return this.data;
+        }
+    }
+
+    static final class Resolved<P, L, R, T> implements SeriesCursor<P, T> {
+        private final UnionCursor<P, L, R> union;
+        private final UnionResolver<L, R, T> resolver;
+        private T data;
+
+        Resolved(final UnionCursor<P, L, R> union, final UnionResolver<L, R, T> resolver) {
+            this.union = union;
+            this.resolver = resolver.fork();
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.union.advance())
+                return false;
+
+            this.data = !this.union.hasLeft() ? this.resolver.rightOnly(this.union.right())
+                    : !this.union.hasRight() ? this.resolver.leftOnly(this.union.left())
+                            : this.resolver.both(this.union.left(), this.union.right());
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.union.point();
+        }
+
+        @Override
+        public final T data() {
+            return this.data;
+        }
+    }
+
+    static final class ResolvedDouble<P, L, R> implements SeriesCursor.OfDouble<P> {
+        private final UnionCursor<P, L, R> union;
+        private final UnionResolver.ToDouble<L, R> resolver;
+        private double data;
+
+        ResolvedDouble(final UnionCursor<P, L, R> union, final UnionResolver.ToDouble<L, R> resolver) {
+            this.union = union;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.union.advance())
+                return false;
+
+            this.data = !this.union.hasLeft() ? this.resolver.rightOnly(this.union.right())
+                    : !this.union.hasRight() ? this.resolver.leftOnly(this.union.left())
+                            : this.resolver.both(this.union.left(), this.union.right());
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.union.point();
+        }
+
+        @Override
+        public final double data() {
+            return this.data;
+        }
+    }
+
+    static final class ResolvedLong<P, L, R> implements SeriesCursor.OfLong<P> {
+        private final UnionCursor<P, L, R> union;
+        private final UnionResolver.ToLong<L, R> resolver;
+        private long data;
+
+        ResolvedLong(final UnionCursor<P, L, R> union, final UnionResolver.ToLong<L, R> resolver) {
+            this.union = union;
+            this.resolver = resolver;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.union.advance())
+                return false;
+
+            this.data = !this.union.hasLeft() ? this.resolver.rightOnly(this.union.right())
+                    : !this.union.hasRight() ? this.resolver.leftOnly(this.union.left())
+                            : this.resolver.both(this.union.left(), this.union.right());
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.union.point();
+        }
+
+        @Override
+        public final long data() {
+            return this.data;
+        }
+    }
+
+    static final class Mapped<P, T, R> implements SeriesCursor<P, R> {
+        private final SeriesCursor<P, T> series;
+        private final Function<T, R> f;
+        private R data;
+
+        Mapped(final SeriesCursor<P, T> series, final Function<T, R> f) {
+            this.series = series;
+            this.f = f;
+        }
+
+        @Override
+        public final boolean advance() {
+            if (!this.series.advance())
+                return false;
+            this.data = this.f.apply(this.series.data());
+            return true;
+        }
+
+        @Override
+        public final P point() {
+            return this.series.point();
+        }
+
+        @Override
+        public final R data() {
+            return this.data;
+        }
+    }
+
+    static final class Filtered<P, T> implements SeriesCursor<P, T> {
+        private final SeriesCursor<P, T> series;
+        private final Predicate<T> predicate;
+
+        Filtered(final SeriesCursor<P, T> series, final Predicate<T> predicate) {
+            this.series = series;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public final boolean advance() {
+            while (this.series.advance()) {
+                if (this.predicate.test(this.series.data()))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public final P point() {
+            return this.series.point();
+        }
+
+        @Override
+        public final T data() {
+            return this.series.data();
+        }
+    }
+
+    static final class Datapoints<P, T> implements Iterator<DataPoint<P, T>> {
+        private final SeriesCursor<P, T> series;
+
+        private Boolean isPulled = false;
+        private Boolean hasNext = true;
+
+        Datapoints(final SeriesCursor<P, T> series) {
+            this.series = series;
+        }
+
+        private final void pull() {
+            if (!this.hasNext || this.isPulled)
+                return;
+
+            this.isPulled = true;
+            this.hasNext = this.series.advance();
+        }
+
+        @Override
+        public final boolean hasNext() {
+            pull();
+            return this.hasNext;
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            pull();
+            if (!this.hasNext)
+                throw new NoSuchElementException();
+
+            this.isPulled = false;
+            return new DataPoint<>(this.series.point(), this.series.data());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A lossy merge keeping a datapoint only when its data leaves the band around
+ * the last kept data. Every dropped datapoint is within the tolerance of the
+ * data in effect, so the compressed step series never deviates by more than the
+ * tolerance.
+ */
+final class Deadband<P> implements Iterator<DataPoint<P, Double>> {
+
+    static sealed interface Band permits Band.Absolute, Band.Relative {
+        static final record Absolute(double tolerance) implements Band {
+        }
+
+        static final record Relative(double ratio) implements Band {
+        }
+
+        static Band absolute(final Double tolerance) {
+            if (!(tolerance >= 0))
+                throw new IllegalArgumentException("tolerance should be positive but was " + tolerance);
+            return new Absolute(tolerance);
+        }
+
+        static Band relative(final Double ratio) {
+            if (!(ratio >= 0))
+                throw new IllegalArgumentException("ratio should be positive but was " + ratio);
+            return new Relative(ratio);
+        }
+
+        default boolean contains(final double reference, final double value) {
+            return switch (this) {
+                case final Absolute absolute -> Math.abs(value - reference) <= absolute.tolerance();
+                case final Relative relative -> Math.abs(value - reference) <= relative.ratio() * Math.abs(reference);
+            };
+        }
+    }
+
+    private final Iterator<DataPoint<P, Double>> series;
+    private final Band band;
+
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+    private Optional<DataPoint<P, Double>> entry = Optional.empty();
+    private double reference;
+
+    Deadband(final Iterator<DataPoint<P, Double>> series, final Band band) {
+        this.series = series;
+        this.band = band;
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+        while (this.series.hasNext()) {
+            final var next = this.series.next();
+            if (this.entry.isPresent() && this.band.contains(this.reference, next.data()))
+                continue;
+
+            this.entry = Optional.of(next);
+            this.reference = next.data();
+            return;
+        }
+
+        this.hasNext = false;
+        this.entry = Optional.empty();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, Double> next() {
+        pull();
+        if (!this.hasNext)
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Merge a series read from its last datapoint, emitting the datapoints of the
+ * forward merge in reverse order: the earliest datapoint of each run of equal
+ * data is kept, which is the last one read backwards.
+ */
+final class DescendingMerge<P, T> implements Iterator<DataPoint<P, T>> {
+    private final Iterator<DataPoint<P, T>> series;
+
+    private Boolean hasNext = true;
+    private Boolean isPulled = false;
+
+    private Optional<DataPoint<P, T>> current = Optional.empty();
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    DescendingMerge(final Iterator<DataPoint<P, T>> series) {
+        this.series = series;
+    }
+
+    private final void pull() {
+        if (this.isPulled)
+            return;
+
+        this.isPulled = true;
+        pullEntry();
+    }
+
+    private final void pullEntry() {
+        while (this.series.hasNext()) {
+            final var next = this.series.next();
+
+            if (this.current.map(x -> !x.data().equals(next.data())).orElse(false)) {
+                this.entry = this.current;
+                this.current = Optional.of(next);
+                return;
+            }
+
+            this.current = Optional.of(next);
+        }
+
+        if (this.current.isPresent()) {
+            this.entry = this.current;
+            this.current = Optional.empty();
+            return;
+        }
+
+        this.hasNext = false;
+        this.entry = Optional.empty();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (this.entry.isEmpty())
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
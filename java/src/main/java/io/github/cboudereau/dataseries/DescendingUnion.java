@@ -0,0 +1,102 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * The union of 2 series read from their last datapoint, emitting the
+ * datapoints of the forward union in reverse order.
+ *
+ * Going backwards, the greatest pending point of both sides is the next
+ * datapoint and the data in effect on each side at this point is simply its
+ * pending datapoint, since every datapoint after it is already consumed.
+ *
+ * The datapoints of a point are read first and united forward like
+ * {@link Union} from the data in effect before the point, which are the next
+ * pending datapoints, then emitted in reverse order.
+ */
+final class DescendingUnion<P extends Comparable<P>, L, R, T> implements Iterator<DataPoint<P, T>> {
+    private final Iterator<DataPoint<P, L>> leftSeries;
+    private final Iterator<DataPoint<P, R>> rightSeries;
+    private final UnionResolver<L, R, T> resolver;
+
+    private Boolean isStarted = false;
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    private DataPoint<P, L> left;
+    private DataPoint<P, R> right;
+    private final List<DataPoint<P, T>> group = new ArrayList<>();
+
+    DescendingUnion(final Iterator<DataPoint<P, L>> left, final Iterator<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver) {
+        this.leftSeries = left;
+        this.rightSeries = right;
+        this.resolver = resolver.fork();
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+        if (!this.isStarted) {
+            this.isStarted = true;
+            this.left = this.leftSeries.hasNext() ? this.leftSeries.next() : null;
+            this.right = this.rightSeries.hasNext() ? this.rightSeries.next() : null;
+        }
+
+        if (!this.group.isEmpty()) {
+            this.entry = Optional.of(this.group.remove(this.group.size() - 1));
+            return;
+        }
+
+        if (this.left == null && this.right == null) {
+            this.hasNext = false;
+            this.entry = Optional.empty();
+            return;
+        }
+
+        final var point = this.right == null
+                || (this.left != null && this.left.point().compareTo(this.right.point()) >= 0) ? this.left.point()
+                        : this.right.point();
+
+        final var lefts = new ArrayList<L>();
+        while (this.left != null && this.left.point().compareTo(point) == 0) {
+            lefts.add(this.left.data());
+            this.left = this.leftSeries.hasNext() ? this.leftSeries.next() : null;
+        }
+        final var rights = new ArrayList<R>();
+        while (this.right != null && this.right.point().compareTo(point) == 0) {
+            rights.add(this.right.data());
+            this.right = this.rightSeries.hasNext() ? this.rightSeries.next() : null;
+        }
+
+        Collections.reverse(lefts);
+        Collections.reverse(rights);
+        PointUnion.unite(point, Optional.ofNullable(this.left), Optional.ofNullable(this.right), lefts, rights,
+                this.resolver, this.group::add);
+        this.entry = Optional.of(this.group.remove(this.group.size() - 1));
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (!this.hasNext)
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A dictionary assigning a dense int code to each distinct data value. Equal
+ * values (according to equals) share the same code so that comparing codes is
+ * the same as comparing values.
+ *
+ * A dictionary can be shared between series, codes are never reassigned.
+ *
+ * @param <T> the data type
+ */
+public final class Dictionary<T> {
+    private final Map<T, Integer> codes = new HashMap<>();
+    private Object[] values = new Object[16];
+    private volatile int size = 0;
+
+    /**
+     * The code of the given value, a new code is assigned when the value is not
+     * known yet
+     *
+     * @param value the value to encode
+     * @return the value code
+     */
+    public final synchronized int encode(final T value) {
+        final var code = this.codes.get(value);
+        if (code != null)
+            return code;
+
+        final var next = this.size;
+        if (next == this.values.length) {
+            final var values = new Object[next * 2];
+            System.arraycopy(this.values, 0, values, 0, next);
+            this.values = values;
+        }
+        this.values[next] = value;
+        this.codes.put(value, next);
+        this.size = next + 1;
+        return next;
+    }
+
+    /**
+     * The value of the given code
+     *
+     * @param code the code to decode
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public final T decode(final int code) {
+        if (code < 0 || code >= this.size)
+            throw new IllegalArgumentException("unknown code " + code);
+        return (T) this.values[code];
+    }
+
+    /**
+     * The number of distinct values
+     *
+     * @return the number of distinct values
+     */
+    public final int size() {
+        return this.size;
+    }
+}
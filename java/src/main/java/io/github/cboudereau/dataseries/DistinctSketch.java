@@ -0,0 +1,167 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A mergeable streaming distinct count sketch (HyperLogLog). Each value is
+ * hashed, the first bits select a register and the register keeps the
+ * longest run of leading zeros of the remaining bits. The memory is 2^precision
+ * bytes and the standard error is about 1.04 / sqrt(2^precision) whatever the
+ * number of values.
+ *
+ * Values are hashed to 64 bits so equal values are counted once. Strings,
+ * numbers, characters and booleans are hashed from their content, any other
+ * type from its hashCode: such types are only supported with a hashCode
+ * spreading its values, their count cannot grow beyond about 2^32 and a 64 bit
+ * hash function should be given instead. Sketches of different segments can be
+ * stored with the codec and merged to answer a query over several segments,
+ * provided their values were hashed with the same function.
+ */
+public final class DistinctSketch {
+    private final int precision;
+    private final byte[] registers;
+
+    DistinctSketch(final Integer precision) {
+        if (precision < 4 || precision > 18)
+            throw new IllegalArgumentException("precision should be between 4 and 18 but was " + precision);
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * The codec storing the registers of a sketch
+     *
+     * @return the sketch codec
+     */
+    public static Codec<DistinctSketch> codec() {
+        return Codec.of((output, sketch) -> {
+            output.writeByte(sketch.precision);
+            output.write(sketch.registers);
+        }, input -> {
+            final var sketch = new DistinctSketch((int) input.readByte());
+            input.readFully(sketch.registers);
+            return sketch;
+        });
+    }
+
+    private static long mix(final long value) {
+        var h = value * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long hash(final CharSequence value) {
+        var h = 0xCBF29CE484222325L;
+        for (var i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    /**
+     * The 64 bit hash of a value used by the sketch: strings, numbers, characters
+     * and booleans are hashed from their content and their type, other values
+     * from their hashCode
+     *
+     * @param value the value
+     * @return the 64 bit hash
+     */
+    public static long hash(final Object value) {
+        return switch (value) {
+            case final CharSequence x -> mix(hash(x) ^ 1);
+            case final Long x -> mix(x ^ 2);
+            case final Integer x -> mix(x ^ 3L);
+            case final Double x -> mix(Double.doubleToLongBits(x) ^ 4);
+            case final Float x -> mix(Float.floatToIntBits(x) ^ 5L);
+            case final Short x -> mix(x ^ 6L);
+            case final Byte x -> mix(x ^ 7L);
+            case final Character x -> mix(x ^ 8L);
+            case final Boolean x -> mix(x ? 9 : 10);
+            default -> mix(Objects.hashCode(value));
+        };
+    }
+
+    /**
+     * Add a value hashed with the default hash
+     *
+     * @param value the value
+     */
+    public final void add(final Object value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Add a value hashed with the given 64 bit hash function
+     *
+     * @param <T>   the value type
+     * @param value the value
+     * @param hash  the 64 bit hash function
+     */
+    public final <T> void add(final T value, final ToLongFunction<T> hash) {
+        addHash(hash.applyAsLong(value));
+    }
+
+    /**
+     * Add the 64 bit hash of a value, every bit should be uniformly distributed
+     *
+     * @param hash the hash of the value
+     */
+    public final void addHash(final long hash) {
+        final var index = (int) (hash >>> (64 - this.precision));
+        final var rank = (byte) (Long.numberOfLeadingZeros((hash << this.precision) | (1L << (this.precision - 1)))
+                + 1);
+        if (rank > this.registers[index])
+            this.registers[index] = rank;
+    }
+
+    /**
+     * A new sketch of the values of both sketches
+     *
+     * @param other the other sketch with the same precision
+     * @return the merged sketch
+     */
+    public final DistinctSketch merge(final DistinctSketch other) {
+        if (this.precision != other.precision)
+            throw new IllegalArgumentException(
+                    "sketches should have the same precision but were " + this.precision + " and " + other.precision);
+
+        final var merged = new DistinctSketch(this.precision);
+        for (var i = 0; i < this.registers.length; i++) {
+            merged.registers[i] = (byte) Math.max(this.registers[i], other.registers[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * The estimated number of distinct values
+     *
+     * @return the estimated number of distinct values
+     */
+    public final long count() {
+        final var m = this.registers.length;
+        var sum = 0.0;
+        var zeros = 0;
+        for (final var register : this.registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0)
+                zeros++;
+        }
+
+        final var alpha = switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+        final var estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0)
+            return Math.round(m * Math.log((double) m / zeros));
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,246 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Single pass downsampling operators for charts. The window is split into
+ * buckets of equal width according to the point position and only a bounded
+ * number of datapoints per bucket is kept, the memory does not depend on the
+ * size of the series.
+ */
+final class Downsample {
+    static final int RATIO = 4;
+
+    private Downsample() {
+
+    }
+
+    static final record Buckets<P>(ToDoubleFunction<P> position, double from, double to, int count) {
+
+        static <P extends Comparable<P>> Buckets<P> of(final ToDoubleFunction<P> position, final P from, final P to,
+                final Integer count) {
+            if (count < 1)
+                throw new IllegalArgumentException("bucket count should be positive but was " + count);
+            if (from.compareTo(to) >= 0)
+                throw new IllegalArgumentException("window from " + from + " should be before " + to);
+            return new Buckets<>(position, position.applyAsDouble(from), position.applyAsDouble(to), count);
+        }
+
+        final double x(final DataPoint<P, Double> datapoint) {
+            return this.position.applyAsDouble(datapoint.point());
+        }
+
+        final int index(final DataPoint<P, Double> datapoint) {
+            final var index = (int) Math.floor((x(datapoint) - this.from) / (this.to - this.from) * this.count);
+            return Math.max(0, Math.min(this.count - 1, index));
+        }
+    }
+
+    /**
+     * Keeps the minimum and the maximum of each bucket in point order.
+     */
+    static final class MinMax<P> implements Iterator<DataPoint<P, Double>> {
+        private final Iterator<DataPoint<P, Double>> series;
+        private final Buckets<P> buckets;
+
+        private final ArrayDeque<DataPoint<P, Double>> pending = new ArrayDeque<>(2);
+        private int bucket = -1;
+        private DataPoint<P, Double> min;
+        private DataPoint<P, Double> max;
+
+        MinMax(final Iterator<DataPoint<P, Double>> series, final Buckets<P> buckets) {
+            this.series = series;
+            this.buckets = buckets;
+        }
+
+        private final void flush() {
+            if (this.bucket < 0)
+                return;
+
+            final var minFirst = this.buckets.x(this.min) <= this.buckets.x(this.max);
+            this.pending.add(minFirst ? this.min : this.max);
+            if (this.min != this.max)
+                this.pending.add(minFirst ? this.max : this.min);
+            this.bucket = -1;
+        }
+
+        private final void pull() {
+            while (this.pending.isEmpty() && this.series.hasNext()) {
+                final var next = this.series.next();
+                final var bucket = this.buckets.index(next);
+                if (bucket != this.bucket) {
+                    flush();
+                    this.bucket = bucket;
+                    this.min = next;
+                    this.max = next;
+                    continue;
+                }
+                if (next.data() < this.min.data())
+                    this.min = next;
+                if (next.data() > this.max.data())
+                    this.max = next;
+            }
+
+            if (this.pending.isEmpty())
+                flush();
+        }
+
+        @Override
+        public final boolean hasNext() {
+            pull();
+            return !this.pending.isEmpty();
+        }
+
+        @Override
+        public final DataPoint<P, Double> next() {
+            pull();
+            if (this.pending.isEmpty())
+                throw new NoSuchElementException();
+            return this.pending.poll();
+        }
+    }
+
+    private static final class Tracking<P> implements Iterator<DataPoint<P, Double>> {
+        private final Iterator<DataPoint<P, Double>> series;
+        private Optional<DataPoint<P, Double>> last = Optional.empty();
+
+        Tracking(final Iterator<DataPoint<P, Double>> series) {
+            this.series = series;
+        }
+
+        @Override
+        public final boolean hasNext() {
+            return this.series.hasNext();
+        }
+
+        @Override
+        public final DataPoint<P, Double> next() {
+            final var next = this.series.next();
+            this.last = Optional.of(next);
+            return next;
+        }
+    }
+
+    /**
+     * Largest triangle three buckets over the min/max candidates of finer buckets
+     * (MinMaxLTTB). The first and the last datapoints are kept, each bucket in
+     * between keeps the candidate forming the largest triangle with the last kept
+     * datapoint and the average of the next bucket. Only two buckets of
+     * candidates are held at once.
+     */
+    static final class Lttb<P> implements Iterator<DataPoint<P, Double>> {
+        private final Tracking<P> series;
+        private final Iterator<DataPoint<P, Double>> candidates;
+        private final Buckets<P> buckets;
+
+        private final ArrayDeque<DataPoint<P, Double>> pending = new ArrayDeque<>(3);
+        private Optional<DataPoint<P, Double>> selected = Optional.empty();
+        private Optional<DataPoint<P, Double>> last = Optional.empty();
+        private List<DataPoint<P, Double>> current = new ArrayList<>();
+        private List<DataPoint<P, Double>> following = new ArrayList<>();
+        private Boolean isDone = false;
+
+        Lttb(final Iterator<DataPoint<P, Double>> series, final Buckets<P> buckets) {
+            this.series = new Tracking<>(series);
+            this.candidates = new MinMax<>(this.series,
+                    new Buckets<>(buckets.position(), buckets.from(), buckets.to(), buckets.count() * RATIO));
+            this.buckets = buckets;
+        }
+
+        private final void select(final double nextX, final double nextY) {
+            final var a = this.selected.get();
+            final var ax = this.buckets.x(a);
+            final var ay = a.data();
+
+            DataPoint<P, Double> best = this.current.get(0);
+            var area = -1.0;
+            for (final var candidate : this.current) {
+                final var x = this.buckets.x(candidate);
+                final var candidateArea = Math.abs((ax - nextX) * (candidate.data() - ay) - (ax - x) * (nextY - ay));
+                if (candidateArea > area) {
+                    area = candidateArea;
+                    best = candidate;
+                }
+            }
+            this.pending.add(best);
+            this.selected = Optional.of(best);
+            this.current = this.following;
+            this.following = new ArrayList<>();
+        }
+
+        private final void selectWithFollowing() {
+            var x = 0.0;
+            var y = 0.0;
+            for (final var candidate : this.following) {
+                x += this.buckets.x(candidate);
+                y += candidate.data();
+            }
+            select(x / this.following.size(), y / this.following.size());
+        }
+
+        private final void add(final DataPoint<P, Double> candidate) {
+            if (this.current.isEmpty()) {
+                this.current.add(candidate);
+                return;
+            }
+
+            final var bucket = this.buckets.index(candidate);
+            if (bucket == this.buckets.index(this.current.get(0))) {
+                this.current.add(candidate);
+                return;
+            }
+
+            if (!this.following.isEmpty() && bucket != this.buckets.index(this.following.get(0)))
+                selectWithFollowing();
+            this.following.add(candidate);
+        }
+
+        private final void pull() {
+            if (this.selected.isEmpty() && this.series.hasNext()) {
+                this.selected = Optional.of(this.series.next());
+                this.pending.add(this.selected.get());
+                return;
+            }
+
+            while (this.pending.isEmpty() && this.candidates.hasNext()) {
+                this.last.ifPresent(this::add);
+                this.last = Optional.of(this.candidates.next());
+            }
+
+            if (!this.pending.isEmpty() || this.isDone)
+                return;
+
+            this.isDone = true;
+            if (this.series.last.isEmpty() || this.series.last.equals(this.selected))
+                return;
+
+            final var last = this.series.last.get();
+            this.last.filter(x -> x != last).ifPresent(this::add);
+            if (!this.following.isEmpty())
+                selectWithFollowing();
+            if (!this.current.isEmpty())
+                select(this.buckets.x(last), last.data());
+            this.pending.add(last);
+        }
+
+        @Override
+        public final boolean hasNext() {
+            pull();
+            return !this.pending.isEmpty();
+        }
+
+        @Override
+        public final DataPoint<P, Double> next() {
+            pull();
+            if (this.pending.isEmpty())
+                throw new NoSuchElementException();
+            return this.pending.poll();
+        }
+    }
+}
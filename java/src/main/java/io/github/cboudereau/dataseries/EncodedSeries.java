@@ -0,0 +1,206 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * An immutable materialized series storing its data as dictionary codes.
+ *
+ * Repeated data values are stored once in the dictionary, merge compares int
+ * codes instead of calling equals and union resolves each distinct pair of
+ * codes only once.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class EncodedSeries<P extends Comparable<P>, T> implements IterableSeries<P, T>, Reversible<P, T> {
+    private static final int NONE = -1;
+
+    private final Object[] points;
+    private final int[] codes;
+    private final Dictionary<T> dictionary;
+
+    private EncodedSeries(final Object[] points, final int[] codes, final Dictionary<T> dictionary) {
+        this.points = points;
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    static <P extends Comparable<P>, T> EncodedSeries<P, T> of(final Iterable<DataPoint<P, T>> series,
+            final Dictionary<T> dictionary) {
+        final var points = new ArrayList<P>();
+        final var codes = new IntBuffer();
+        for (final var x : series) {
+            final var last = points.size() - 1;
+            if (last >= 0 && points.get(last).compareTo(x.point()) > 0)
+                throw new IllegalArgumentException(
+                        "series should be sorted but " + x.point() + " comes after " + points.get(last));
+
+            points.add(x.point());
+            codes.add(dictionary.encode(x.data()));
+        }
+        return new EncodedSeries<>(points.toArray(), codes.toArray(), dictionary);
+    }
+
+    private static final class IntBuffer {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        final void add(final int value) {
+            if (this.size == this.values.length) {
+                final var values = new int[this.size * 2];
+                System.arraycopy(this.values, 0, values, 0, this.size);
+                this.values = values;
+            }
+            this.values[this.size++] = value;
+        }
+
+        final int[] toArray() {
+            final var values = new int[this.size];
+            System.arraycopy(this.values, 0, values, 0, this.size);
+            return values;
+        }
+    }
+
+    /**
+     * The dictionary of the data values
+     *
+     * @return the dictionary
+     */
+    public final Dictionary<T> dictionary() {
+        return this.dictionary;
+    }
+
+    /**
+     * The number of datapoints
+     *
+     * @return the number of datapoints
+     */
+    public final int size() {
+        return this.points.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private final P point(final int index) {
+        return (P) this.points[index];
+    }
+
+    /**
+     * merge contiguous datapoints having the same code
+     *
+     * @return a merged encoded series sharing the same dictionary
+     */
+    public final EncodedSeries<P, T> merge() {
+        final var points = new ArrayList<Object>();
+        final var codes = new IntBuffer();
+        for (var i = 0; i < this.codes.length; i++) {
+            if (i > 0 && this.codes[i - 1] == this.codes[i])
+                continue;
+            points.add(this.points[i]);
+            codes.add(this.codes[i]);
+        }
+        return new EncodedSeries<>(points.toArray(), codes.toArray(), this.dictionary);
+    }
+
+    private static long key(final int left, final int right) {
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    static <P extends Comparable<P>, L, R, T> EncodedSeries<P, T> union(final EncodedSeries<P, L> left,
+            final EncodedSeries<P, R> right, final Function<UnionResult<L, R>, T> f, final Dictionary<T> dictionary) {
+        final var resolved = new HashMap<Long, Integer>();
+        final var points = new ArrayList<Object>();
+        final var codes = new IntBuffer();
+
+        var i = 0;
+        var j = 0;
+        var leftCode = NONE;
+        var rightCode = NONE;
+        P leftPoint = null;
+        P rightPoint = null;
+        while (i < left.size() || j < right.size()) {
+            final var point = j >= right.size()
+                    || (i < left.size() && left.point(i).compareTo(right.point(j)) <= 0) ? left.point(i)
+                            : right.point(j);
+
+            final var isLeftAtPoint = i < left.size() && left.point(i).compareTo(point) == 0;
+            final var isRightAtPoint = j < right.size() && right.point(j).compareTo(point) == 0;
+            final P emitted;
+            if (leftCode == NONE && rightCode != NONE && isLeftAtPoint && !isRightAtPoint
+                    && i + 1 < left.size() && left.point(i + 1).compareTo(point) == 0) {
+                i++;
+                emitted = rightPoint;
+            } else if (rightCode == NONE && leftCode != NONE && isRightAtPoint
+                    && j + 1 < right.size() && right.point(j + 1).compareTo(point) == 0) {
+                j++;
+                emitted = leftPoint;
+            } else {
+                if (isLeftAtPoint) {
+                    leftCode = left.codes[i++];
+                    leftPoint = point;
+                }
+                if (isRightAtPoint) {
+                    rightCode = right.codes[j++];
+                    rightPoint = point;
+                }
+                emitted = point;
+            }
+
+            final var l = leftCode;
+            final var r = rightCode;
+            final int code = resolved.computeIfAbsent(key(l, r), k -> {
+                final UnionResult<L, R> result = l == NONE ? UnionResult.rightOnly(right.dictionary.decode(r))
+                        : r == NONE ? UnionResult.leftOnly(left.dictionary.decode(l))
+                                : UnionResult.both(left.dictionary.decode(l), right.dictionary.decode(r));
+                return dictionary.encode(f.apply(result));
+            });
+
+            points.add(emitted);
+            codes.add(code);
+        }
+        return new EncodedSeries<>(points.toArray(), codes.toArray(), dictionary);
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return new Iterator<DataPoint<P, T>>() {
+            private int index = 0;
+
+            @Override
+            public final boolean hasNext() {
+                return this.index < EncodedSeries.this.points.length;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                final var index = this.index++;
+                return new DataPoint<>(point(index), EncodedSeries.this.dictionary.decode(EncodedSeries.this.codes[index]));
+            }
+        };
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> descendingIterator() {
+        return new Iterator<DataPoint<P, T>>() {
+            private int index = EncodedSeries.this.points.length;
+
+            @Override
+            public final boolean hasNext() {
+                return this.index > 0;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                final var index = --this.index;
+                return new DataPoint<>(point(index), EncodedSeries.this.dictionary.decode(EncodedSeries.this.codes[index]));
+            }
+        };
+    }
+}
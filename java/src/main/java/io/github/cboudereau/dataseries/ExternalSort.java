@@ -0,0 +1,373 @@
+package io.github.cboudereau.dataseries;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BinaryOperator;
+
+/**
+ * Sort by spilling sorted runs to files then merging them back.
+ *
+ * The spilled runs are only paths until they are merged so that at most fan in
+ * files are open at once: while there are more runs than the fan in, groups of
+ * consecutive runs are merged into a single run file. The run files are deleted
+ * once read, when the sort fails and when the iterator is closed.
+ */
+final class ExternalSort<P extends Comparable<P>, T> implements CloseableIterator<DataPoint<P, T>> {
+    static final int FAN_IN = 64;
+
+    static final class Run<P, T> implements Iterator<DataPoint<P, T>> {
+        private final Path path;
+        private final DataInputStream input;
+        private final Codec<P> point;
+        private final Codec<T> data;
+        private Boolean hasNext;
+
+        private Run(final Path path, final Codec<P> point, final Codec<T> data) throws IOException {
+            this.path = path;
+            this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+            this.point = point;
+            this.data = data;
+            this.hasNext = this.input.readBoolean();
+            if (!this.hasNext)
+                close();
+        }
+
+        static <P, T> Run<P, T> open(final Path path, final Codec<P> point, final Codec<T> data) {
+            try {
+                return new Run<>(path, point, data);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static <P, T> Path write(final Path directory, final Iterator<DataPoint<P, T>> run, final Codec<P> point,
+                final Codec<T> data) {
+            Path path = null;
+            try {
+                path = Files.createTempFile(directory, "dataseries-", ".run");
+                try (final var output = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(path)))) {
+                    while (run.hasNext()) {
+                        final var x = run.next();
+                        output.writeBoolean(true);
+                        point.write(output, x.point());
+                        data.write(output, x.data());
+                    }
+                    output.writeBoolean(false);
+                }
+                return path;
+            } catch (final IOException e) {
+                delete(path);
+                throw new UncheckedIOException(e);
+            } catch (final RuntimeException e) {
+                delete(path);
+                throw e;
+            }
+        }
+
+        private final void close() throws IOException {
+            this.hasNext = false;
+            try {
+                this.input.close();
+            } finally {
+                Files.deleteIfExists(this.path);
+            }
+        }
+
+        @Override
+        public final boolean hasNext() {
+            return this.hasNext;
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            if (!this.hasNext)
+                throw new NoSuchElementException();
+
+            try {
+                final var next = new DataPoint<>(this.point.read(this.input), this.data.read(this.input));
+                this.hasNext = this.input.readBoolean();
+                if (!this.hasNext)
+                    close();
+                return next;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void delete(final Path path) {
+        if (path == null)
+            return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            // the original failure is more relevant
+        }
+    }
+
+    private static record Head<P, T>(int run, DataPoint<P, T> datapoint) {
+    }
+
+    /**
+     * The merge of sorted runs resolving the datapoints of the same point in
+     * run order
+     */
+    private static final class Merge<P extends Comparable<P>, T> implements Iterator<DataPoint<P, T>> {
+        private final List<? extends Iterator<DataPoint<P, T>>> runs;
+        private final BinaryOperator<T> resolve;
+        private final PriorityQueue<Head<P, T>> heads = new PriorityQueue<>(
+                Comparator.<Head<P, T>, P>comparing(x -> x.datapoint().point()).thenComparingInt(x -> x.run()));
+
+        private Merge(final List<? extends Iterator<DataPoint<P, T>>> runs, final BinaryOperator<T> resolve) {
+            this.runs = runs;
+            this.resolve = resolve;
+            for (var i = 0; i < runs.size(); i++) {
+                pullHead(i);
+            }
+        }
+
+        private final void pullHead(final int run) {
+            final var iterator = this.runs.get(run);
+            if (iterator.hasNext())
+                this.heads.add(new Head<>(run, iterator.next()));
+        }
+
+        @Override
+        public final boolean hasNext() {
+            return !this.heads.isEmpty();
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            if (this.heads.isEmpty())
+                throw new NoSuchElementException();
+
+            final var head = this.heads.poll();
+            pullHead(head.run());
+
+            var current = head.datapoint();
+            while (!this.heads.isEmpty() && this.heads.peek().datapoint().point().compareTo(current.point()) == 0) {
+                final var duplicate = this.heads.poll();
+                pullHead(duplicate.run());
+                current = new DataPoint<>(current.point(),
+                        this.resolve.apply(current.data(), duplicate.datapoint().data()));
+            }
+            return current;
+        }
+    }
+
+    private final Iterator<DataPoint<P, T>> series;
+    private final Codec<P> point;
+    private final Codec<T> data;
+    private final Integer budget;
+    private final Integer fanIn;
+    private final BinaryOperator<T> resolve;
+    private final Path directory;
+
+    private final List<Path> paths = new ArrayList<>();
+    private final List<Run<P, T>> runs = new ArrayList<>();
+    private Iterator<DataPoint<P, T>> merge;
+
+    private Boolean isSpilled = false;
+    private Boolean hasNext = true;
+    private Boolean isPulled = false;
+
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    public ExternalSort(final Iterator<DataPoint<P, T>> series, final Codec<P> point, final Codec<T> data,
+            final Integer budget, final BinaryOperator<T> resolve, final Path directory) {
+        this(series, point, data, budget, FAN_IN, resolve, directory);
+    }
+
+    ExternalSort(final Iterator<DataPoint<P, T>> series, final Codec<P> point, final Codec<T> data,
+            final Integer budget, final Integer fanIn, final BinaryOperator<T> resolve, final Path directory) {
+        if (budget < 1)
+            throw new IllegalArgumentException("budget should be greater than 0 but was " + budget);
+        if (fanIn < 2)
+            throw new IllegalArgumentException("fan in should be greater than 1 but was " + fanIn);
+
+        this.series = series;
+        this.point = point;
+        this.data = data;
+        this.budget = budget;
+        this.fanIn = fanIn;
+        this.resolve = resolve;
+        this.directory = directory;
+    }
+
+    /**
+     * Sort comparing the keys of the points, the runs store each point as its 8
+     * bytes key
+     */
+    static <P, T> CloseableIterator<DataPoint<P, T>> keyed(final Iterator<DataPoint<P, T>> series,
+            final KeyCodec<P> key, final Codec<T> data, final Integer budget, final BinaryOperator<T> resolve,
+            final Path directory) {
+        final var sorted = new ExternalSort<Long, T>(new Iterator<>() {
+            @Override
+            public final boolean hasNext() {
+                return series.hasNext();
+            }
+
+            @Override
+            public final DataPoint<Long, T> next() {
+                final var next = series.next();
+                return new DataPoint<>(key.encode(next.point()), next.data());
+            }
+        }, Codec.ofLong(), data, budget, resolve, directory);
+
+        return new CloseableIterator<>() {
+            @Override
+            public final boolean hasNext() {
+                return sorted.hasNext();
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                final var next = sorted.next();
+                return new DataPoint<>(key.decode(next.point()), next.data());
+            }
+
+            @Override
+            public final void close() {
+                sorted.close();
+            }
+        };
+    }
+
+    private final List<DataPoint<P, T>> sortRun(final List<DataPoint<P, T>> run) {
+        run.sort(Comparator.comparing(x -> x.point()));
+        final var sorted = new ArrayList<DataPoint<P, T>>(run.size());
+        for (final var x : run) {
+            final var last = sorted.size() - 1;
+            if (last >= 0 && sorted.get(last).point().compareTo(x.point()) == 0) {
+                sorted.set(last, new DataPoint<>(x.point(), this.resolve.apply(sorted.get(last).data(), x.data())));
+                continue;
+            }
+            sorted.add(x);
+        }
+        return sorted;
+    }
+
+    private final Run<P, T> open(final Path path) {
+        final var run = Run.open(path, this.point, this.data);
+        this.runs.add(run);
+        return run;
+    }
+
+    private final void spill() {
+        var run = new ArrayList<DataPoint<P, T>>();
+        while (this.series.hasNext()) {
+            run.add(this.series.next());
+            if (run.size() < this.budget)
+                continue;
+
+            this.paths.add(Run.write(this.directory, sortRun(run).iterator(), this.point, this.data));
+            run = new ArrayList<>();
+        }
+
+        var level = List.copyOf(this.paths);
+        while (level.size() > this.fanIn) {
+            final var merged = new ArrayList<Path>();
+            for (var i = 0; i < level.size(); i += this.fanIn) {
+                final var group = new ArrayList<Run<P, T>>();
+                for (final var path : level.subList(i, Math.min(i + this.fanIn, level.size()))) {
+                    group.add(open(path));
+                }
+                final var path = Run.write(this.directory, new Merge<>(group, this.resolve), this.point, this.data);
+                this.paths.add(path);
+                merged.add(path);
+                this.runs.removeAll(group);
+            }
+            level = merged;
+        }
+
+        final var last = new ArrayList<Iterator<DataPoint<P, T>>>();
+        for (final var path : level) {
+            last.add(open(path));
+        }
+        if (!run.isEmpty())
+            last.add(sortRun(run).iterator());
+        this.merge = new Merge<>(last, this.resolve);
+    }
+
+    private final void pull() {
+        if (this.isPulled)
+            return;
+
+        this.isPulled = true;
+        try {
+            if (!this.isSpilled) {
+                this.isSpilled = true;
+                spill();
+            }
+
+            this.hasNext = this.merge.hasNext();
+            this.entry = this.hasNext ? Optional.of(this.merge.next()) : Optional.empty();
+        } catch (final RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (this.entry.isEmpty())
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+
+    /**
+     * Delete the remaining run files
+     */
+    @Override
+    public final void close() {
+        this.isSpilled = true;
+        this.isPulled = true;
+        this.hasNext = false;
+        this.entry = Optional.empty();
+        this.merge = null;
+
+        IOException failure = null;
+        for (final var run : this.runs) {
+            try {
+                run.close();
+            } catch (final IOException e) {
+                failure = e;
+            }
+        }
+        for (final var path : this.paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                failure = e;
+            }
+        }
+        this.runs.clear();
+        this.paths.clear();
+        if (failure != null)
+            throw new UncheckedIOException(failure);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * An immutable materialized series optimized for point lookups.
+ *
+ * Points and data are stored in columns and the point column is also laid out
+ * in Eytzinger (breadth first) order so that the top of the implicit search
+ * tree stays in cache and the lookup does not jump around the whole array.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class IndexedSeries<P extends Comparable<P>, T> implements IterableSeries<P, T>, Reversible<P, T> {
+    private final Object[] points;
+    private final Object[] data;
+    private final Object[] eytzinger;
+    private final int[] ranks;
+
+    IndexedSeries(final Object[] points, final Object[] data) {
+        this.points = points;
+        this.data = data;
+        this.eytzinger = new Object[points.length + 1];
+        this.ranks = new int[points.length + 1];
+        layout(0, 1);
+    }
+
+    private final int layout(final int rank, final int k) {
+        if (k > this.points.length)
+            return rank;
+
+        final var next = layout(rank, 2 * k);
+        this.eytzinger[k] = this.points[next];
+        this.ranks[k] = next;
+        return layout(next + 1, 2 * k + 1);
+    }
+
+    static <P extends Comparable<P>, T> IndexedSeries<P, T> of(final Iterable<DataPoint<P, T>> series) {
+        final var points = new ArrayList<P>();
+        final var data = new ArrayList<T>();
+        for (final var x : series) {
+            final var last = points.size() - 1;
+            if (last >= 0 && points.get(last).compareTo(x.point()) > 0)
+                throw new IllegalArgumentException(
+                        "series should be sorted but " + x.point() + " comes after " + points.get(last));
+
+            points.add(x.point());
+            data.add(x.data());
+        }
+        return new IndexedSeries<>(points.toArray(), data.toArray());
+    }
+
+    /**
+     * The number of datapoints
+     *
+     * @return the number of datapoints
+     */
+    public final int size() {
+        return this.points.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    final P point(final int index) {
+        return (P) this.points[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    final T data(final int index) {
+        return (T) this.data[index];
+    }
+
+    final DataPoint<P, T> datapoint(final int index) {
+        return new DataPoint<>(point(index), data(index));
+    }
+
+    /**
+     * The index of the datapoint in effect at the given point, or -1 when the
+     * point is before the first datapoint
+     */
+    @SuppressWarnings("unchecked")
+    final int floorIndex(final P point) {
+        final var n = this.points.length;
+        var k = 1;
+        while (k <= n) {
+            k = 2 * k + (((P) this.eytzinger[k]).compareTo(point) <= 0 ? 1 : 0);
+        }
+        k >>= Integer.numberOfTrailingZeros(~k) + 1;
+        final var upper = k == 0 ? n : this.ranks[k];
+        return upper - 1;
+    }
+
+    /**
+     * The index of the datapoint in effect at the given point searching forward
+     * from a known floor index with a galloping search
+     */
+    final int floorIndex(final P point, final int from) {
+        final var n = this.points.length;
+        var lo = Math.max(from, 0);
+        if (lo >= n || point(lo).compareTo(point) > 0)
+            return from;
+
+        var step = 1;
+        var hi = lo + step;
+        while (hi < n && point(hi).compareTo(point) <= 0) {
+            lo = hi;
+            step <<= 1;
+            hi = lo + step;
+        }
+        hi = Math.min(hi, n);
+
+        while (hi - lo > 1) {
+            final var mid = (lo + hi) >>> 1;
+            if (point(mid).compareTo(point) <= 0) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The data in effect at the given point
+     *
+     * @param point the point
+     * @return the data in effect or empty when the point is before the first
+     *         datapoint
+     */
+    public final Optional<T> valueAt(final P point) {
+        final var index = floorIndex(point);
+        return index < 0 ? Optional.empty() : Optional.of(data(index));
+    }
+
+    /**
+     * The data in effect at each of the given sorted points. Each lookup starts
+     * from the previous result so that close probes share the search work.
+     *
+     * @param points the sorted points to look up
+     * @return the data in effect at each point, in the same order
+     */
+    public final List<Optional<T>> valuesAt(final List<P> points) {
+        final var values = new ArrayList<Optional<T>>(points.size());
+        var index = -1;
+        Optional<P> previous = Optional.empty();
+        for (final var point : points) {
+            if (previous.map(x -> x.compareTo(point) > 0).orElse(false))
+                throw new IllegalArgumentException(
+                        "points should be sorted but " + point + " comes after " + previous.get());
+
+            index = index < 0 ? floorIndex(point) : floorIndex(point, index);
+            values.add(index < 0 ? Optional.empty() : Optional.of(data(index)));
+            previous = Optional.of(point);
+        }
+        return values;
+    }
+
+    final Iterator<DataPoint<P, T>> iterator(final int from) {
+        return new Iterator<DataPoint<P, T>>() {
+            private int index = Math.max(from, 0);
+
+            @Override
+            public final boolean hasNext() {
+                return this.index < IndexedSeries.this.points.length;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return datapoint(this.index++);
+            }
+        };
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return iterator(0);
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> descendingIterator() {
+        return new Iterator<DataPoint<P, T>>() {
+            private int index = IndexedSeries.this.points.length;
+
+            @Override
+            public final boolean hasNext() {
+                return this.index > 0;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return datapoint(--this.index);
+            }
+        };
+    }
+}
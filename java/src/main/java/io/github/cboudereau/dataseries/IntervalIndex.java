@@ -0,0 +1,389 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import io.github.cboudereau.dataseries.Union.Value;
+
+/**
+ * An index of the intervals of many series answering which series have a
+ * value at a point or over a range without reading the series.
+ *
+ * Each datapoint of a series which is not a gap starts an interval ending at
+ * the next datapoint, the last one has no end. The intervals of all the series
+ * are stored in a priority search tree: the leaves of a treap hold the
+ * intervals ordered by their start and every node of the treap holds at most
+ * one interval of its subtree, the one ending last among the intervals not held
+ * above it. An interval matches a stabbing query when it starts at or before
+ * the point and ends after it, an overlap query when it starts before the end
+ * of the range and ends after its start: both are 3-sided queries where a
+ * subtree is skipped as soon as its held interval ends too early or its starts
+ * are too late, so a query visits O(log n + k) nodes in expectation for k
+ * matching intervals among n.
+ *
+ * Putting a series replaces its intervals while appending a datapoint only
+ * closes the last interval of the series and opens a new one, in O(log n) in
+ * expectation.
+ *
+ * @param <K> the series key type
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class IntervalIndex<K, P extends Comparable<P>, T> {
+
+    private static final class Interval<K, P extends Comparable<P>, T> {
+        private final K key;
+        private final P from;
+        private final Value<P> to;
+        private final T data;
+        private final long id;
+
+        private Interval(final K key, final P from, final Value<P> to, final T data, final long id) {
+            this.key = key;
+            this.from = from;
+            this.to = to;
+            this.data = data;
+            this.id = id;
+        }
+    }
+
+    /**
+     * A leaf holds its interval, an internal node routes with the start of the
+     * first interval of its right subtree
+     */
+    private static final class Node<K, P extends Comparable<P>, T> {
+        private final P from;
+        private final long id;
+        private final int priority;
+
+        private Node<K, P, T> left;
+        private Node<K, P, T> right;
+        private Interval<K, P, T> held;
+
+        private Node(final P from, final long id, final int priority) {
+            this.from = from;
+            this.id = id;
+            this.priority = priority;
+        }
+
+        private final Boolean isLeaf() {
+            return this.left == null;
+        }
+
+        private final Boolean isLeft(final Interval<K, P, T> interval) {
+            final var compare = interval.from.compareTo(this.from);
+            return compare != 0 ? compare < 0 : interval.id < this.id;
+        }
+
+        private final Node<K, P, T> child(final Interval<K, P, T> interval) {
+            return isLeft(interval) ? this.left : this.right;
+        }
+    }
+
+    private static final class Indexed<K, P extends Comparable<P>, T> {
+        private final Iterable<DataPoint<P, T>> series;
+        private final List<Interval<K, P, T>> intervals = new ArrayList<>();
+        private DataPoint<P, T> last;
+        private Boolean isOpen = false;
+
+        private Indexed(final Iterable<DataPoint<P, T>> series) {
+            this.series = series;
+        }
+    }
+
+    private final Predicate<T> isGap;
+    private final Map<K, Indexed<K, P, T>> series = new HashMap<>();
+    private final Random random = new Random(42);
+    private Node<K, P, T> root;
+    private long ids = 0;
+    private int size = 0;
+
+    private IntervalIndex(final Predicate<T> isGap) {
+        this.isGap = isGap;
+    }
+
+    static <K, P extends Comparable<P>, T> IntervalIndex<K, P, T> of(final Predicate<T> isGap) {
+        return new IntervalIndex<>(isGap);
+    }
+
+    /**
+     * Push an interval of the subtree down from the node, swapping it with the
+     * held intervals ending before it
+     */
+    private static <K, P extends Comparable<P>, T> void push(final Node<K, P, T> node,
+            final Interval<K, P, T> interval) {
+        var current = node;
+        var pushed = interval;
+        while (current.held != null) {
+            if (pushed.to.isGreaterThan(current.held.to)) {
+                final var held = current.held;
+                current.held = pushed;
+                pushed = held;
+            }
+            current = current.child(pushed);
+        }
+        current.held = pushed;
+    }
+
+    /**
+     * Fill the empty node with the held interval of its children ending last,
+     * down to a leaf
+     */
+    private static <K, P extends Comparable<P>, T> void fill(final Node<K, P, T> node) {
+        var current = node;
+        while (!current.isLeaf()) {
+            final var left = current.left.held;
+            final var right = current.right.held;
+            if (left == null && right == null)
+                return;
+
+            final var child = right == null || (left != null && !right.to.isGreaterThan(left.to)) ? current.left
+                    : current.right;
+            current.held = child.held;
+            child.held = null;
+            current = child;
+        }
+    }
+
+    /**
+     * Raise the child over its parent, the child takes the held interval of the
+     * parent and the interval it held is pushed down again
+     */
+    private static <K, P extends Comparable<P>, T> Node<K, P, T> rotate(final Node<K, P, T> parent,
+            final Node<K, P, T> child) {
+        if (parent.left == child) {
+            parent.left = child.right;
+            child.right = parent;
+        } else {
+            parent.right = child.left;
+            child.left = parent;
+        }
+
+        final var held = child.held;
+        child.held = parent.held;
+        parent.held = null;
+        fill(parent);
+        if (held != null)
+            push(child, held);
+        return child;
+    }
+
+    private final Node<K, P, T> insert(final Node<K, P, T> node, final Interval<K, P, T> interval) {
+        if (node.isLeaf()) {
+            final var leaf = new Node<K, P, T>(interval.from, interval.id, Integer.MIN_VALUE);
+            final var isLeft = node.isLeft(interval);
+            final var split = isLeft ? node : leaf;
+            final var parent = new Node<K, P, T>(split.from, split.id, this.random.nextInt());
+            parent.left = isLeft ? leaf : node;
+            parent.right = split;
+            parent.held = node.held;
+            node.held = null;
+            return parent;
+        }
+
+        if (node.isLeft(interval)) {
+            node.left = insert(node.left, interval);
+            if (node.left.priority > node.priority)
+                return rotate(node, node.left);
+        } else {
+            node.right = insert(node.right, interval);
+            if (node.right.priority > node.priority)
+                return rotate(node, node.right);
+        }
+        return node;
+    }
+
+    private final void insert(final Interval<K, P, T> interval) {
+        if (this.root == null) {
+            this.root = new Node<>(interval.from, interval.id, Integer.MIN_VALUE);
+        } else {
+            this.root = insert(this.root, interval);
+        }
+        push(this.root, interval);
+        this.size++;
+    }
+
+    private static <K, P extends Comparable<P>, T> Node<K, P, T> delete(final Node<K, P, T> node,
+            final Interval<K, P, T> interval) {
+        if (node.isLeaf())
+            return null;
+
+        final var child = node.child(interval);
+        if (child.isLeaf()) {
+            final var sibling = child == node.left ? node.right : node.left;
+            if (node.held != null)
+                push(sibling, node.held);
+            return sibling;
+        }
+
+        if (child == node.left) {
+            node.left = delete(child, interval);
+        } else {
+            node.right = delete(child, interval);
+        }
+        return node;
+    }
+
+    private final void delete(final Interval<K, P, T> interval) {
+        var node = this.root;
+        while (node.held != interval) {
+            node = node.child(interval);
+        }
+        node.held = null;
+        fill(node);
+
+        this.root = delete(this.root, interval);
+        this.size--;
+    }
+
+    private final Interval<K, P, T> interval(final K key, final DataPoint<P, T> datapoint, final Value<P> to) {
+        return new Interval<>(key, datapoint.point(), to, datapoint.data(), this.ids++);
+    }
+
+    /**
+     * Index the series of the key, replacing its previous intervals
+     *
+     * @param key    the series key
+     * @param series the sorted series
+     */
+    public final synchronized void put(final K key, final Iterable<DataPoint<P, T>> series) {
+        final var indexed = new Indexed<K, P, T>(series);
+        final var intervals = new ArrayList<Interval<K, P, T>>();
+        for (final var x : series) {
+            final var previous = indexed.last;
+            if (previous != null && previous.point().compareTo(x.point()) > 0)
+                throw new IllegalArgumentException(
+                        "series should be sorted but " + x.point() + " comes after " + previous.point());
+
+            if (previous != null && !this.isGap.test(previous.data()) && previous.point().compareTo(x.point()) < 0)
+                intervals.add(interval(key, previous, Value.fixed(x.point())));
+            indexed.last = x;
+        }
+        if (indexed.last != null && !this.isGap.test(indexed.last.data())) {
+            intervals.add(interval(key, indexed.last, Value.infinite()));
+            indexed.isOpen = true;
+        }
+
+        remove(key);
+        for (final var interval : intervals) {
+            insert(interval);
+        }
+        indexed.intervals.addAll(intervals);
+        this.series.put(key, indexed);
+    }
+
+    /**
+     * Index a datapoint appended to the series of the key, the indexed series
+     * should already end with it, like a live series. Only the last interval of
+     * the series is closed and a new one is opened.
+     *
+     * @param key   the series key
+     * @param point the point, not before the last point of the series
+     * @param data  the data
+     */
+    public final synchronized void append(final K key, final P point, final T data) {
+        final var indexed = this.series.get(key);
+        if (indexed == null)
+            throw new IllegalArgumentException("no series is indexed for " + key);
+        final var last = indexed.last;
+        if (last != null && last.point().compareTo(point) > 0)
+            throw new IllegalArgumentException("series should be sorted but " + point + " comes after " + last.point());
+
+        if (indexed.isOpen) {
+            final var open = indexed.intervals.remove(indexed.intervals.size() - 1);
+            delete(open);
+            if (last.point().compareTo(point) < 0) {
+                final var closed = interval(key, last, Value.fixed(point));
+                insert(closed);
+                indexed.intervals.add(closed);
+            }
+        }
+
+        final var datapoint = new DataPoint<>(point, data);
+        indexed.isOpen = !this.isGap.test(data);
+        if (indexed.isOpen) {
+            final var open = interval(key, datapoint, Value.infinite());
+            insert(open);
+            indexed.intervals.add(open);
+        }
+        indexed.last = datapoint;
+    }
+
+    /**
+     * Remove the series of the key from the index
+     *
+     * @param key the series key
+     */
+    public final synchronized void remove(final K key) {
+        final var indexed = this.series.remove(key);
+        if (indexed == null)
+            return;
+
+        for (final var interval : indexed.intervals) {
+            delete(interval);
+        }
+    }
+
+    /**
+     * The number of indexed intervals
+     *
+     * @return the number of intervals
+     */
+    public final synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * The intervals starting when the predicate holds, which holds for the
+     * starts up to a bound, and ending after the point
+     */
+    private static <K, P extends Comparable<P>, T> void query(final Node<K, P, T> node, final Predicate<P> isStarted,
+            final Value<P> point, final Consumer<Interval<K, P, T>> matched) {
+        if (node == null || node.held == null || !node.held.to.isGreaterThan(point))
+            return;
+
+        if (isStarted.test(node.held.from))
+            matched.accept(node.held);
+        if (node.isLeaf())
+            return;
+
+        query(node.left, isStarted, point, matched);
+        if (isStarted.test(node.from))
+            query(node.right, isStarted, point, matched);
+    }
+
+    /**
+     * The data in effect at the given point of the series having a value
+     *
+     * @param point the point
+     * @return the data in effect by series key
+     */
+    public final synchronized Map<K, T> stab(final P point) {
+        final var values = new LinkedHashMap<K, T>();
+        query(this.root, x -> x.compareTo(point) <= 0, Value.fixed(point), x -> values.put(x.key, x.data));
+        return values;
+    }
+
+    /**
+     * The series having a value over [from, to), windowed to the range and ready
+     * to be united
+     *
+     * @param from the start of the range
+     * @param to   the end of the range, excluded
+     * @return the windowed series by series key
+     */
+    public final synchronized Map<K, IterableSeries<P, T>> overlap(final P from, final P to) {
+        final var range = Window.Range.of(from, Value.fixed(to));
+        final var series = new LinkedHashMap<K, IterableSeries<P, T>>();
+        if (!range.isEmpty())
+            query(this.root, range::isBefore, Value.fixed(from),
+                    x -> series.computeIfAbsent(x.key, key -> range.apply(this.series.get(key).series)));
+        return series;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.cboudereau.dataseries;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An order preserving encoding of a point type to a long key: comparing the
+ * keys gives the same order as comparing the points and decoding a key gives
+ * back an equal point. Union and sort can then compare keys with a single
+ * primitive comparison and storage can write the point as a fixed width long.
+ *
+ * @param <P> the point type
+ */
+public interface KeyCodec<P> {
+    /**
+     * The key of a point
+     *
+     * @param point the point
+     * @return the key, ordered as the point
+     */
+    long encode(P point);
+
+    /**
+     * The point of a key
+     *
+     * @param key the key
+     * @return the point
+     */
+    P decode(long key);
+
+    /**
+     * A codec writing the point as its 8 bytes key, to store points in a
+     * serie log or in the runs of an external sort
+     *
+     * @return the point codec
+     */
+    default Codec<P> codec() {
+        return Codec.of((output, point) -> output.writeLong(encode(point)), input -> decode(input.readLong()));
+    }
+
+    /**
+     * A key codec from the given functions
+     *
+     * @param <P>    the point type
+     * @param encode the order preserving encoding
+     * @param decode the decoding
+     * @return the key codec
+     */
+    public static <P> KeyCodec<P> of(final ToLongFunction<P> encode, final LongFunction<P> decode) {
+        return new KeyCodec<P>() {
+            @Override
+            public long encode(final P point) {
+                return encode.applyAsLong(point);
+            }
+
+            @Override
+            public P decode(final long key) {
+                return decode.apply(key);
+            }
+        };
+    }
+
+    /**
+     * The integer key codec
+     *
+     * @return the integer key codec
+     */
+    public static KeyCodec<Integer> ofInteger() {
+        return of(point -> point, key -> Math.toIntExact(key));
+    }
+
+    /**
+     * The long key codec
+     *
+     * @return the long key codec
+     */
+    public static KeyCodec<Long> ofLong() {
+        return of(point -> point, key -> key);
+    }
+
+    /**
+     * The instant key codec with a nanosecond precision, from year 1677 to 2262
+     *
+     * @return the instant key codec
+     */
+    public static KeyCodec<Instant> ofInstant() {
+        return of(point -> {
+            try {
+                return Math.addExact(Math.multiplyExact(point.getEpochSecond(), 1_000_000_000L), point.getNano());
+            } catch (final ArithmeticException e) {
+                throw new IllegalArgumentException(point + " cannot be encoded in nanoseconds", e);
+            }
+        }, key -> Instant.ofEpochSecond(Math.floorDiv(key, 1_000_000_000L), Math.floorMod(key, 1_000_000_000L)));
+    }
+
+    /**
+     * The local date key codec
+     *
+     * @return the local date key codec
+     */
+    public static KeyCodec<LocalDate> ofLocalDate() {
+        return of(point -> point.toEpochDay(), key -> LocalDate.ofEpochDay(key));
+    }
+
+    /**
+     * A key codec of a composite point ordered by a high then a low component
+     * (e.g. a timestamp then a sequence), the low key takes the given number of
+     * low bits and the high key the remaining bits
+     *
+     * @param <P>     the point type
+     * @param <H>     the high component type
+     * @param <L>     the low component type
+     * @param high    the high component key codec
+     * @param low     the low component key codec, its keys should be between 0
+     *                and 2^bits - 1
+     * @param bits    the number of bits of the low key
+     * @param getHigh the high component of a point
+     * @param getLow  the low component of a point
+     * @param point   the point of the components
+     * @return the composite key codec
+     */
+    public static <P, H, L> KeyCodec<P> of(final KeyCodec<H> high, final KeyCodec<L> low, final Integer bits,
+            final Function<P, H> getHigh, final Function<P, L> getLow, final BiFunction<H, L, P> point) {
+        if (bits < 1 || bits > 62)
+            throw new IllegalArgumentException("bits should be between 1 and 62 but was " + bits);
+
+        final var mask = (1L << bits) - 1;
+        final var limit = 1L << (63 - bits);
+        return of(x -> {
+            final var h = high.encode(getHigh.apply(x));
+            final var l = low.encode(getLow.apply(x));
+            if (h < -limit || h >= limit)
+                throw new IllegalArgumentException("high key " + h + " of " + x + " does not fit in " + (64 - bits)
+                        + " bits");
+            if (l < 0 || l > mask)
+                throw new IllegalArgumentException("low key " + l + " of " + x + " does not fit in " + bits + " bits");
+            return (h << bits) | l;
+        }, key -> point.apply(high.decode(key >> bits), low.decode(key & mask)));
+    }
+}
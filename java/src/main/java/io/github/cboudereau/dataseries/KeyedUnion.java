@@ -0,0 +1,140 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A union comparing the long keys of the points instead of the points. Each
+ * point is encoded once when it is read so that every step of the union is a
+ * single primitive comparison, the original points are emitted.
+ *
+ * Repeated points are united like {@link Union}: a serie starting after the
+ * other one repeats the datapoint in effect of the other serie for each of its
+ * datapoints at its first point but the last, unless it is the left serie and
+ * the other one also has a datapoint at this point.
+ */
+final class KeyedUnion<P, L, R, T> implements Iterator<DataPoint<P, T>> {
+    private final Iterator<DataPoint<P, L>> leftSeries;
+    private final Iterator<DataPoint<P, R>> rightSeries;
+    private final KeyCodec<P> key;
+    private final UnionResolver<L, R, T> resolver;
+
+    private Boolean isStarted = false;
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    private DataPoint<P, L> leftPending;
+    private long leftKey;
+    private DataPoint<P, R> rightPending;
+    private long rightKey;
+
+    private Boolean hasLeft = false;
+    private Boolean hasRight = false;
+    private L left;
+    private R right;
+    private P leftPoint;
+    private P rightPoint;
+
+    KeyedUnion(final Iterator<DataPoint<P, L>> left, final Iterator<DataPoint<P, R>> right, final KeyCodec<P> key,
+            final UnionResolver<L, R, T> resolver) {
+        this.leftSeries = left;
+        this.rightSeries = right;
+        this.key = key;
+        this.resolver = resolver.fork();
+    }
+
+    private final void advanceLeft() {
+        this.leftPending = this.leftSeries.hasNext() ? this.leftSeries.next() : null;
+        if (this.leftPending != null)
+            this.leftKey = this.key.encode(this.leftPending.point());
+    }
+
+    private final void advanceRight() {
+        this.rightPending = this.rightSeries.hasNext() ? this.rightSeries.next() : null;
+        if (this.rightPending != null)
+            this.rightKey = this.key.encode(this.rightPending.point());
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+        if (!this.isStarted) {
+            this.isStarted = true;
+            advanceLeft();
+            advanceRight();
+        }
+
+        if (this.leftPending == null && this.rightPending == null) {
+            this.hasNext = false;
+            this.entry = Optional.empty();
+            return;
+        }
+
+        final var isLeft = this.rightPending == null
+                || (this.leftPending != null && this.leftKey <= this.rightKey);
+        final var key = isLeft ? this.leftKey : this.rightKey;
+        final var point = isLeft ? this.leftPending.point() : this.rightPending.point();
+
+        final var isLeftAtKey = this.leftPending != null && this.leftKey == key;
+        final var isRightAtKey = this.rightPending != null && this.rightKey == key;
+        if (!this.hasLeft && this.hasRight && isLeftAtKey && !isRightAtKey) {
+            final var left = this.leftPending.data();
+            advanceLeft();
+            if (this.leftPending != null && this.leftKey == key) {
+                this.entry = Optional.of(new DataPoint<>(this.rightPoint, this.resolver.rightOnly(this.right)));
+                return;
+            }
+            this.hasLeft = true;
+            this.left = left;
+            this.leftPoint = point;
+        } else if (!this.hasRight && this.hasLeft && isRightAtKey) {
+            final var right = this.rightPending.data();
+            advanceRight();
+            if (this.rightPending != null && this.rightKey == key) {
+                this.entry = Optional.of(new DataPoint<>(this.leftPoint, this.resolver.leftOnly(this.left)));
+                return;
+            }
+            this.hasRight = true;
+            this.right = right;
+            this.rightPoint = point;
+        }
+
+        if (this.leftPending != null && this.leftKey == key) {
+            this.hasLeft = true;
+            this.left = this.leftPending.data();
+            this.leftPoint = point;
+            advanceLeft();
+        }
+
+        if (this.rightPending != null && this.rightKey == key) {
+            this.hasRight = true;
+            this.right = this.rightPending.data();
+            this.rightPoint = point;
+            advanceRight();
+        }
+
+        final var data = !this.hasLeft ? this.resolver.rightOnly(this.right)
+                : !this.hasRight ? this.resolver.leftOnly(this.left) : this.resolver.both(this.left, this.right);
+        this.entry = Optional.of(new DataPoint<>(point, data));
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (!this.hasNext)
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,197 @@
+package io.github.cboudereau.dataseries;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * An append only series with a single writer and many readers.
+ *
+ * Datapoints are stored in fixed size chunks which are never copied: growing
+ * the series only adds a chunk and, from time to time, copies the references of
+ * the chunk directory, which is published through a volatile write. The writer
+ * stores the datapoint then publishes the new size with a release write. A
+ * reader takes the size with an acquire read as the bound of its snapshot, so
+ * every datapoint below it is visible, without any lock: readers never block
+ * the writer and later appends are not visible to a running iteration.
+ *
+ * Appends should come from a single thread at a time.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class LiveSeries<P extends Comparable<P>, T> implements Windowable<P, T>, Reversible<P, T> {
+    private static final int SHIFT = 10;
+    private static final int CHUNK = 1 << SHIFT;
+    private static final int MASK = CHUNK - 1;
+
+    private static final VarHandle SIZE;
+
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(LiveSeries.class, "size", int.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Object[][] chunks = new Object[1][];
+    @SuppressWarnings("unused")
+    private int size = 0;
+    private int written = 0;
+    private P last;
+
+    private LiveSeries() {
+    }
+
+    static <P extends Comparable<P>, T> LiveSeries<P, T> of() {
+        return new LiveSeries<>();
+    }
+
+    /**
+     * Append a datapoint after the last one
+     *
+     * @param point the point, not before the last point
+     * @param data  the data
+     */
+    public final void append(final P point, final T data) {
+        if (this.last != null && this.last.compareTo(point) > 0)
+            throw new IllegalArgumentException("series should be sorted but " + point + " comes after " + this.last);
+
+        final var index = this.written;
+        final var chunk = index >>> SHIFT;
+        var chunks = this.chunks;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk * 2);
+            this.chunks = chunks;
+        }
+        if (chunks[chunk] == null)
+            chunks[chunk] = new Object[CHUNK];
+
+        chunks[chunk][index & MASK] = new DataPoint<>(point, data);
+        this.last = point;
+        this.written = index + 1;
+        SIZE.setRelease(this, this.written);
+    }
+
+    /**
+     * Append the datapoints after the last one
+     *
+     * @param series the sorted datapoints
+     */
+    public final void append(final Iterable<DataPoint<P, T>> series) {
+        for (final var x : series) {
+            append(x.point(), x.data());
+        }
+    }
+
+    /**
+     * The number of datapoints visible to readers
+     *
+     * @return the number of datapoints
+     */
+    public final int size() {
+        return (int) SIZE.getAcquire(this);
+    }
+
+    /**
+     * The data in effect at the given point
+     *
+     * @param point the point
+     * @return the data in effect or empty when the point is before the first
+     *         datapoint
+     */
+    public final Optional<T> valueAt(final P point) {
+        final var snapshot = snapshot();
+        final var index = snapshot.floorIndex(point);
+        return index < 0 ? Optional.empty() : Optional.of(snapshot.datapoint(index).data());
+    }
+
+    /**
+     * The bound and the chunks of a reader. The chunks are read after the
+     * acquire read of the size so they cover at least the bound.
+     */
+    private static record Snapshot<P extends Comparable<P>, T>(Object[][] chunks, int size) {
+
+        @SuppressWarnings("unchecked")
+        final DataPoint<P, T> datapoint(final int index) {
+            return (DataPoint<P, T>) this.chunks[index >>> SHIFT][index & MASK];
+        }
+
+        final int floorIndex(final P point) {
+            var lo = 0;
+            var hi = this.size;
+            while (lo < hi) {
+                final var mid = (lo + hi) >>> 1;
+                if (datapoint(mid).point().compareTo(point) <= 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo - 1;
+        }
+
+        final Iterator<DataPoint<P, T>> iterator(final int from) {
+            return new Iterator<DataPoint<P, T>>() {
+                private int index = Math.max(from, 0);
+
+                @Override
+                public final boolean hasNext() {
+                    return this.index < Snapshot.this.size;
+                }
+
+                @Override
+                public final DataPoint<P, T> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return datapoint(this.index++);
+                }
+            };
+        }
+
+        final Iterator<DataPoint<P, T>> descendingIterator() {
+            return new Iterator<DataPoint<P, T>>() {
+                private int index = Snapshot.this.size;
+
+                @Override
+                public final boolean hasNext() {
+                    return this.index > 0;
+                }
+
+                @Override
+                public final DataPoint<P, T> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    return datapoint(--this.index);
+                }
+            };
+        }
+    }
+
+    private final Snapshot<P, T> snapshot() {
+        final var size = (int) SIZE.getAcquire(this);
+        return new Snapshot<>(this.chunks, size);
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return snapshot().iterator(0);
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> descendingIterator() {
+        return snapshot().descendingIterator();
+    }
+
+    @Override
+    public final IterableSeries<P, T> window(final Window.Range<P> range) {
+        return () -> {
+            final var snapshot = snapshot();
+            return new Window<>(snapshot.iterator(snapshot.floorIndex(range.from())), range);
+        };
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A series absorbing small updates (e.g. a datapoint and its end) with a log
+ * structured write path.
+ *
+ * Updates are united in place with a sorted in-memory buffer, rewriting only
+ * the buffered datapoints from the start of the update, and the buffer is frozen
+ * as an immutable run once full. Runs are compacted in the background by
+ * uniting adjacent runs of similar size, so that each datapoint is rewritten a
+ * logarithmic number of times. Reads unite the runs and the frozen buffer on the
+ * fly from an immutable snapshot, the buffer is frozen again for reads only
+ * when it changed since.
+ *
+ * Since runs are compacted in any grouping, the resolver should be associative
+ * and return the present data for the left only and right only cases, like a
+ * last writer wins resolution.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class LogStructuredSeries<P extends Comparable<P>, T> implements Windowable<P, T> {
+
+    /**
+     * The runs and the frozen buffer, empty when the buffer changed since it was
+     * frozen
+     */
+    private static record State<P extends Comparable<P>, T>(List<IndexedSeries<P, T>> runs,
+            Optional<IndexedSeries<P, T>> buffer) {
+    }
+
+    private final UnionResolver<T, T, T> resolver;
+    private final Integer capacity;
+    private final AtomicBoolean isCompacting = new AtomicBoolean(false);
+    private final TreeMap<P, T> buffer = new TreeMap<>();
+    private volatile State<P, T> state;
+    private volatile Optional<RuntimeException> failure = Optional.empty();
+
+    private LogStructuredSeries(final UnionResolver<T, T, T> resolver, final Integer capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity should be greater than 0 but was " + capacity);
+
+        this.resolver = resolver;
+        this.capacity = capacity;
+        this.state = new State<P, T>(List.of(), Optional.of(empty()));
+    }
+
+    static <P extends Comparable<P>, T> LogStructuredSeries<P, T> of(final UnionResolver<T, T, T> resolver,
+            final Integer capacity) {
+        return new LogStructuredSeries<>(resolver, capacity);
+    }
+
+    private static <P extends Comparable<P>, T> IndexedSeries<P, T> empty() {
+        return new IndexedSeries<>(new Object[0], new Object[0]);
+    }
+
+    private final IndexedSeries<P, T> union(final IndexedSeries<P, T> older, final Iterable<DataPoint<P, T>> newer) {
+        return IndexedSeries.of(new UnionSeries<>(older, newer, this.resolver));
+    }
+
+    /**
+     * Unite the update with the series, the update is the right side of the
+     * resolver and keeps its last datapoint of a repeated point
+     *
+     * @param update the sorted datapoints of the update
+     */
+    public final synchronized void upsert(final Iterable<DataPoint<P, T>> update) {
+        final var updates = update.iterator();
+        if (!updates.hasNext())
+            return;
+
+        var next = Optional.of(updates.next());
+        final var from = next.get().point();
+        final var older = new ArrayList<DataPoint<P, T>>();
+        this.buffer.tailMap(from, true).forEach((point, data) -> older.add(new DataPoint<>(point, data)));
+
+        final var lower = this.buffer.lowerEntry(from);
+        var left = lower == null ? Optional.<T>empty() : Optional.of(lower.getValue());
+        var right = Optional.<T>empty();
+        var index = 0;
+        final var united = new ArrayList<DataPoint<P, T>>();
+        while (index < older.size() || next.isPresent()) {
+            final P point;
+            if (next.isEmpty() || index < older.size() && older.get(index).point().compareTo(next.get().point()) < 0)
+                point = older.get(index).point();
+            else
+                point = next.get().point();
+
+            if (index < older.size() && older.get(index).point().compareTo(point) == 0)
+                left = Optional.of(older.get(index++).data());
+            while (next.isPresent() && next.get().point().compareTo(point) == 0) {
+                right = Optional.of(next.get().data());
+                next = updates.hasNext() ? Optional.of(updates.next()) : Optional.empty();
+                if (next.isPresent() && next.get().point().compareTo(point) < 0)
+                    throw new IllegalArgumentException(
+                            "series should be sorted but " + next.get().point() + " comes after " + point);
+            }
+            united.add(new DataPoint<>(point, left.isPresent() ? this.resolver.both(left.get(), right.get())
+                    : this.resolver.rightOnly(right.get())));
+        }
+        united.forEach(x -> this.buffer.put(x.point(), x.data()));
+
+        this.state = new State<>(this.state.runs(), Optional.empty());
+        if (this.buffer.size() >= this.capacity)
+            flush();
+    }
+
+    private final IndexedSeries<P, T> frozen() {
+        return IndexedSeries.of(() -> this.buffer.entrySet().stream()
+                .map(x -> new DataPoint<>(x.getKey(), x.getValue())).iterator());
+    }
+
+    /**
+     * The state having a frozen buffer, waits for the writers only when the
+     * buffer changed since it was frozen
+     */
+    private final State<P, T> state() {
+        final var state = this.state;
+        return state.buffer().isPresent() ? state : freeze();
+    }
+
+    private final synchronized State<P, T> freeze() {
+        if (this.state.buffer().isEmpty())
+            this.state = new State<>(this.state.runs(), Optional.of(frozen()));
+        return this.state;
+    }
+
+    /**
+     * Flush the buffer as a new run and start a background compaction
+     */
+    public final synchronized void flush() {
+        checkFailure();
+        if (this.buffer.isEmpty())
+            return;
+
+        final var runs = new ArrayList<>(this.state.runs());
+        runs.add(frozen());
+        this.buffer.clear();
+        this.state = new State<P, T>(Collections.unmodifiableList(runs), Optional.of(empty()));
+
+        if (this.isCompacting.compareAndSet(false, true))
+            Threads.start("dataseries-compaction", this::compactInBackground);
+    }
+
+    /**
+     * The index of the older run of the first adjacent pair to compact, starting
+     * from the newest runs, or -1 when the runs are tiered
+     */
+    private static int nextCompaction(final List<? extends IndexedSeries<?, ?>> runs) {
+        for (var i = runs.size() - 2; i >= 0; i--) {
+            if (runs.get(i).size() <= 2 * runs.get(i + 1).size())
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The failure of the background compaction, usually of the resolver, is
+     * kept and thrown by the next flush, compaction or read
+     */
+    private final void checkFailure() {
+        if (this.failure.isPresent())
+            throw new IllegalStateException("background compaction failed", this.failure.get());
+    }
+
+    private final void compactInBackground() {
+        do {
+            try {
+                var index = nextCompaction(this.state.runs());
+                while (index >= 0) {
+                    final var runs = this.state.runs();
+                    final var older = runs.get(index);
+                    final var newer = runs.get(index + 1);
+                    replace(older, newer, union(older, newer));
+                    index = nextCompaction(this.state.runs());
+                }
+            } catch (final RuntimeException e) {
+                this.failure = Optional.of(e);
+                return;
+            } finally {
+                this.isCompacting.set(false);
+            }
+        } while (nextCompaction(this.state.runs()) >= 0 && this.isCompacting.compareAndSet(false, true));
+    }
+
+    /**
+     * Replace 2 adjacent runs by their union. Flushes only append runs so the
+     * pair is still adjacent unless a full compaction already folded it.
+     */
+    private final synchronized void replace(final IndexedSeries<P, T> older, final IndexedSeries<P, T> newer,
+            final IndexedSeries<P, T> compacted) {
+        final var runs = new ArrayList<>(this.state.runs());
+        final var index = runs.indexOf(older);
+        if (index < 0 || index + 1 >= runs.size() || runs.get(index + 1) != newer)
+            return;
+
+        runs.set(index, compacted);
+        runs.remove(index + 1);
+        this.state = new State<>(Collections.unmodifiableList(runs), this.state.buffer());
+    }
+
+    /**
+     * Fold the buffer and all the runs into a single run
+     */
+    public final synchronized void compact() {
+        checkFailure();
+        final var series = IndexedSeries.of(snapshot());
+        this.buffer.clear();
+        this.state = new State<P, T>(List.of(series), Optional.of(empty()));
+    }
+
+    /**
+     * The number of runs, excluding the buffer
+     *
+     * @return the number of runs
+     */
+    public final int runs() {
+        return this.state.runs().size();
+    }
+
+    /**
+     * The series at this instant, later writes are not visible
+     */
+    final Iterable<DataPoint<P, T>> snapshot() {
+        checkFailure();
+        final var state = state();
+        final var parts = new ArrayList<Iterable<DataPoint<P, T>>>(state.runs());
+        if (state.buffer().get().size() > 0)
+            parts.add(state.buffer().get());
+        if (parts.isEmpty())
+            return List.of();
+
+        var series = parts.get(0);
+        for (var i = 1; i < parts.size(); i++) {
+            series = new UnionSeries<>(series, parts.get(i), this.resolver);
+        }
+        return series;
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public final IterableSeries<P, T> window(final Window.Range<P> range) {
+        return () -> range.apply(snapshot()).iterator();
+    }
+}
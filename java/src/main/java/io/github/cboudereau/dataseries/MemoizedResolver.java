@@ -0,0 +1,165 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A resolver remembering the results of a pure resolver.
+ *
+ * A point repeating the case and values of the previous point reuses the
+ * previous result without any lookup, other points are looked up in a bounded
+ * least recently used cache keyed by the case and values, looked up with a
+ * reused key so that a hit does not allocate. Every union iteration starts with
+ * an empty cache while the statistics are shared by all the iterations.
+ *
+ * A memoized resolver is not thread safe, a union can still be iterated
+ * concurrently since each iteration has its own cache.
+ *
+ * @param <L> the left type
+ * @param <R> the right type
+ * @param <T> the resolved type
+ */
+public final class MemoizedResolver<L, R, T> implements UnionResolver<L, R, T> {
+    private static final int NONE = 0;
+    private static final int LEFT_ONLY = 1;
+    private static final int RIGHT_ONLY = 2;
+    private static final int BOTH = 3;
+
+    /**
+     * The number of resolutions by kind
+     *
+     * @param repeats the resolutions reusing the previous result
+     * @param hits    the resolutions found in the cache
+     * @param misses  the resolutions calling the memoized resolver
+     */
+    public static final record Stats(long repeats, long hits, long misses) {
+        /**
+         * The ratio of resolutions not calling the memoized resolver
+         *
+         * @return the hit rate between 0 and 1, 0 when nothing was resolved
+         */
+        public final double hitRate() {
+            final var total = this.repeats + this.hits + this.misses;
+            return total == 0 ? 0 : (double) (this.repeats + this.hits) / total;
+        }
+    }
+
+    private final UnionResolver<L, R, T> resolver;
+    private final Integer capacity;
+    private final LongAdder repeats;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<Key, T> cache;
+    private final Key probe = new Key();
+
+    private int lastCase = NONE;
+    private L lastLeft;
+    private R lastRight;
+    private T lastResult;
+
+    private MemoizedResolver(final UnionResolver<L, R, T> resolver, final Integer capacity, final LongAdder repeats,
+            final LongAdder hits, final LongAdder misses) {
+        this.resolver = resolver;
+        this.capacity = capacity;
+        this.repeats = repeats;
+        this.hits = hits;
+        this.misses = misses;
+        this.cache = new LinkedHashMap<Key, T>(16, 0.75f, true) {
+            @Override
+            protected final boolean removeEldestEntry(final Map.Entry<Key, T> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    static <L, R, T> MemoizedResolver<L, R, T> of(final UnionResolver<L, R, T> resolver, final Integer capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity should be greater than 0 but was " + capacity);
+        return new MemoizedResolver<>(resolver, capacity, new LongAdder(), new LongAdder(), new LongAdder());
+    }
+
+    /**
+     * A resolver with an empty cache sharing the statistics of this one
+     *
+     * @return the resolver of a single union iteration
+     */
+    @Override
+    public final MemoizedResolver<L, R, T> fork() {
+        return new MemoizedResolver<>(this.resolver, this.capacity, this.repeats, this.hits, this.misses);
+    }
+
+    private static final class Key {
+        private int kind;
+        private Object left;
+        private Object right;
+
+        private final Key set(final int kind, final Object left, final Object right) {
+            this.kind = kind;
+            this.left = left;
+            this.right = right;
+            return this;
+        }
+
+        @Override
+        public final int hashCode() {
+            return 31 * (31 * this.kind + Objects.hashCode(this.left)) + Objects.hashCode(this.right);
+        }
+
+        @Override
+        public final boolean equals(final Object other) {
+            return other instanceof final Key key && this.kind == key.kind && Objects.equals(this.left, key.left)
+                    && Objects.equals(this.right, key.right);
+        }
+    }
+
+    /**
+     * The statistics of this resolver and of all the iterations using it
+     *
+     * @return the number of resolutions by kind
+     */
+    public final Stats stats() {
+        return new Stats(this.repeats.sum(), this.hits.sum(), this.misses.sum());
+    }
+
+    private final T resolve(final int kind, final L left, final R right) {
+        if (kind == this.lastCase && Objects.equals(left, this.lastLeft) && Objects.equals(right, this.lastRight)) {
+            this.repeats.increment();
+            return this.lastResult;
+        }
+
+        final var probe = this.probe.set(kind, left, right);
+        var result = this.cache.get(probe);
+        if (result != null || this.cache.containsKey(probe)) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+            result = kind == LEFT_ONLY ? this.resolver.leftOnly(left)
+                    : kind == RIGHT_ONLY ? this.resolver.rightOnly(right) : this.resolver.both(left, right);
+            this.cache.put(new Key().set(kind, left, right), result);
+        }
+        probe.set(NONE, null, null);
+
+        this.lastCase = kind;
+        this.lastLeft = left;
+        this.lastRight = right;
+        this.lastResult = result;
+        return result;
+    }
+
+    @Override
+    public final T leftOnly(final L left) {
+        return resolve(LEFT_ONLY, left, null);
+    }
+
+    @Override
+    public final T rightOnly(final R right) {
+        return resolve(RIGHT_ONLY, null, right);
+    }
+
+    @Override
+    public final T both(final L left, final R right) {
+        return resolve(BOTH, left, right);
+    }
+}
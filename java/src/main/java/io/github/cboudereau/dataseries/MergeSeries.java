@@ -0,0 +1,16 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+
+record MergeSeries<P, T>(Iterable<DataPoint<P, T>> series) implements Reversible<P, T> {
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return new Merge<>(this.series.iterator());
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> descendingIterator() {
+        return new DescendingMerge<>(Reversible.descendingIterator(this.series));
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+
+/**
+ * An immutable materialized series of long points and double data stored off
+ * heap, so that large series neither grow the heap nor get scanned by the
+ * garbage collector.
+ *
+ * The memory is held until the series is closed, it should not be read after.
+ */
+public final class OffHeapSeries implements IterableSeries<Long, Double>, AutoCloseable {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final OffHeapColumns columns;
+    private final int size;
+    private Boolean isClosed = false;
+
+    private OffHeapSeries(final OffHeapColumns columns, final int size) {
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Copy the series off heap, the memory is released when the series is
+     * unsorted or fails to be read
+     */
+    static OffHeapSeries of(final Iterable<DataPoint<Long, Double>> series) {
+        var columns = new OffHeapColumns(INITIAL_CAPACITY);
+        var size = 0;
+        try {
+            for (final var x : series) {
+                if (size > 0 && columns.point(size - 1) > x.point())
+                    throw new IllegalArgumentException(
+                            "series should be sorted but " + x.point() + " comes after " + columns.point(size - 1));
+
+                if (size == columns.capacity())
+                    columns = columns.grow(size * 2, size);
+                columns.set(size++, x.point(), x.data());
+            }
+        } catch (final RuntimeException | Error e) {
+            columns.close();
+            throw e;
+        }
+        return new OffHeapSeries(columns, size);
+    }
+
+    /**
+     * The number of datapoints
+     *
+     * @return the number of datapoints
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    private final int floorIndex(final long point) {
+        var lo = 0;
+        var hi = this.size;
+        while (lo < hi) {
+            final var mid = (lo + hi) >>> 1;
+            if (this.columns.point(mid) <= point) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
+    }
+
+    /**
+     * The data in effect at the given point
+     *
+     * @param point the point
+     * @return the data in effect or empty when the point is before the first
+     *         datapoint
+     */
+    public final OptionalDouble valueAt(final long point) {
+        final var index = floorIndex(point);
+        return index < 0 ? OptionalDouble.empty() : OptionalDouble.of(this.columns.data(index));
+    }
+
+    /**
+     * A cursor reading the columns without allocating a datapoint per position
+     *
+     * @return a double series cursor
+     */
+    public final SeriesCursor.OfDouble<Long> cursor() {
+        return new SeriesCursor.OfDouble<Long>() {
+            private int index = -1;
+
+            @Override
+            public final boolean advance() {
+                if (this.index + 1 >= OffHeapSeries.this.size)
+                    return false;
+                this.index++;
+                return true;
+            }
+
+            @Override
+            public final Long point() {
+                return OffHeapSeries.this.columns.point(this.index);
+            }
+
+            @Override
+            public final double data() {
+                return OffHeapSeries.this.columns.data(this.index);
+            }
+        };
+    }
+
+    @Override
+    public final Iterator<DataPoint<Long, Double>> iterator() {
+        return new Iterator<DataPoint<Long, Double>>() {
+            private int index = 0;
+
+            @Override
+            public final boolean hasNext() {
+                return this.index < OffHeapSeries.this.size;
+            }
+
+            @Override
+            public final DataPoint<Long, Double> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                final var index = this.index++;
+                return new DataPoint<>(OffHeapSeries.this.columns.point(index),
+                        OffHeapSeries.this.columns.data(index));
+            }
+        };
+    }
+
+    /**
+     * Release the off heap memory, closing twice has no effect
+     */
+    @Override
+    public final synchronized void close() {
+        if (this.isClosed)
+            return;
+        this.isClosed = true;
+        this.columns.close();
+    }
+}
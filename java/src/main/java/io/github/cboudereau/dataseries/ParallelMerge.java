@@ -0,0 +1,92 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+final class ParallelMerge<P extends Comparable<P>, T> {
+    static final int CHUNK = 1 << 13;
+
+    private static final class Chunks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer f;
+
+        private Chunks(final int from, final int to, final IntConsumer f) {
+            this.from = from;
+            this.to = to;
+            this.f = f;
+        }
+
+        @Override
+        protected final void compute() {
+            if (this.to - this.from <= 1) {
+                for (var chunk = this.from; chunk < this.to; chunk++) {
+                    this.f.accept(chunk);
+                }
+                return;
+            }
+
+            final var middle = (this.from + this.to) >>> 1;
+            invokeAll(new Chunks(this.from, middle, this.f), new Chunks(middle, this.to, this.f));
+        }
+    }
+
+    private final IndexedSeries<P, T> series;
+    private final int chunks;
+
+    private ParallelMerge(final IndexedSeries<P, T> series) {
+        this.series = series;
+        this.chunks = (series.size() + CHUNK - 1) / CHUNK;
+    }
+
+    static <P extends Comparable<P>, T> IndexedSeries<P, T> merge(final IndexedSeries<P, T> series,
+            final ForkJoinPool pool) {
+        return new ParallelMerge<>(series).merge(pool);
+    }
+
+    /**
+     * A datapoint starts a new run when its data differs from the previous one.
+     * The first datapoint of a chunk is compared with the last datapoint of the
+     * previous chunk to stitch runs crossing the chunk boundary.
+     */
+    private final Boolean isRunStart(final int index) {
+        return index == 0 || !this.series.data(index - 1).equals(this.series.data(index));
+    }
+
+    private final IndexedSeries<P, T> merge(final ForkJoinPool pool) {
+        final var counts = new int[this.chunks];
+        pool.invoke(new Chunks(0, this.chunks, chunk -> {
+            final var to = Math.min((chunk + 1) * CHUNK, this.series.size());
+            for (var i = chunk * CHUNK; i < to; i++) {
+                if (isRunStart(i))
+                    counts[chunk]++;
+            }
+        }));
+
+        final var offsets = new int[this.chunks];
+        var size = 0;
+        for (var chunk = 0; chunk < this.chunks; chunk++) {
+            offsets[chunk] = size;
+            size += counts[chunk];
+        }
+
+        final var points = new Object[size];
+        final var data = new Object[size];
+        pool.invoke(new Chunks(0, this.chunks, chunk -> {
+            final var to = Math.min((chunk + 1) * CHUNK, this.series.size());
+            var offset = offsets[chunk];
+            for (var i = chunk * CHUNK; i < to; i++) {
+                if (isRunStart(i)) {
+                    points[offset] = this.series.point(i);
+                    data[offset] = this.series.data(i);
+                    offset++;
+                }
+            }
+        }));
+
+        return new IndexedSeries<>(points, data);
+    }
+}
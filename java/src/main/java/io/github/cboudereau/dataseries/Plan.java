@@ -0,0 +1,393 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The logical plan of a query. Each node can be optimized into an equivalent
+ * plan and compiled into a tree of cursors driven by a single loop.
+ *
+ * The rewrites are:
+ * <ul>
+ * <li>windows are pushed down through union, combine, merge and map to the
+ * sources, indexed and windowable sources then seek to the window start
+ * instead of scanning</li>
+ * <li>consecutive maps are composed and a map over a union is fused into the
+ * union resolver</li>
+ * <li>consecutive merges are collapsed</li>
+ * <li>nested combines sharing the same operator are flattened and their inputs
+ * are ordered by estimated size</li>
+ * </ul>
+ * A filter drops datapoints so that a different datapoint is in effect at the
+ * window start, windows are never pushed through a filter.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+sealed interface Plan<P extends Comparable<P>, T>
+        permits Plan.Source, Plan.UnionOf, Plan.CombineOf, Plan.MergeOf, Plan.MapOf, Plan.FilterOf, Plan.WindowOf {
+
+    static final long UNKNOWN = -1;
+
+    Plan<P, T> optimize();
+
+    Plan<P, T> window(final Window.Range<P> range);
+
+    default <U> Plan<P, U> map(final Function<T, U> f) {
+        return new MapOf<>(this, f);
+    }
+
+    default Plan<P, T> merge() {
+        return new MergeOf<>(this);
+    }
+
+    /**
+     * The estimated number of datapoints or UNKNOWN
+     */
+    long size();
+
+    SeriesCursor<P, T> cursor();
+
+    void explain(final StringBuilder builder, final int depth);
+
+    default String explain() {
+        final var builder = new StringBuilder();
+        explain(builder, 0);
+        return builder.toString();
+    }
+
+    private static void line(final StringBuilder builder, final int depth, final String line) {
+        builder.append("  ".repeat(depth)).append(line).append('\n');
+    }
+
+    private static long sum(final long x, final long y) {
+        return x == UNKNOWN || y == UNKNOWN ? UNKNOWN : x + y;
+    }
+
+    private static String estimate(final long size) {
+        return size == UNKNOWN ? "?" : Long.toString(size);
+    }
+
+    private static String format(final Window.Range<?> range) {
+        final var to = switch (range.to()) {
+            case final Union.Value.Fixed<?> fixed -> fixed.value().toString();
+            case final Union.Value.Infinite<?> infinite -> "inf";
+        };
+        return "[" + range.from() + ", " + to + ")";
+    }
+
+    static record Mapped<L, R, T, U>(UnionResolver<L, R, T> resolver, Function<T, U> f)
+            implements UnionResolver<L, R, U> {
+
+        @Override
+        public final Mapped<L, R, T, U> fork() {
+            return new Mapped<>(this.resolver.fork(), this.f);
+        }
+
+        @Override
+        public final U leftOnly(final L left) {
+            return this.f.apply(this.resolver.leftOnly(left));
+        }
+
+        @Override
+        public final U rightOnly(final R right) {
+            return this.f.apply(this.resolver.rightOnly(right));
+        }
+
+        @Override
+        public final U both(final L left, final R right) {
+            return this.f.apply(this.resolver.both(left, right));
+        }
+    }
+
+    static record Combined<T>(BinaryOperator<T> combine) implements UnionResolver<T, T, T> {
+        @Override
+        public final T leftOnly(final T left) {
+            return left;
+        }
+
+        @Override
+        public final T rightOnly(final T right) {
+            return right;
+        }
+
+        @Override
+        public final T both(final T left, final T right) {
+            return this.combine.apply(left, right);
+        }
+    }
+
+    static <P extends Comparable<P>, T> Plan<P, T> of(final Iterable<DataPoint<P, T>> series) {
+        return switch (series) {
+            case final Query<P, T> query -> query.plan();
+            default -> new Source<>(series, Optional.empty());
+        };
+    }
+
+    static record Source<P extends Comparable<P>, T>(Iterable<DataPoint<P, T>> series,
+            Optional<Window.Range<P>> range) implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return this;
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new Source<>(this.series, Optional.of(this.range.map(x -> x.intersect(range)).orElse(range)));
+        }
+
+        @Override
+        public final long size() {
+            return switch (this.series) {
+                case final IndexedSeries<P, T> indexed -> indexed.size();
+                case final EncodedSeries<P, T> encoded -> encoded.size();
+                case final SegmentStore<P, T> store -> store.size();
+                case final LiveSeries<P, T> live -> live.size();
+                case final Collection<?> collection -> collection.size();
+                default -> UNKNOWN;
+            };
+        }
+
+        final Boolean isSeek() {
+            return this.range.isPresent() && switch (this.series) {
+                case final IndexedSeries<P, T> indexed -> true;
+                case final Windowable<P, T> windowable -> true;
+                default -> false;
+            };
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return Cursors.of(this.range.<Iterable<DataPoint<P, T>>>map(x -> x.apply(this.series)).orElse(this.series));
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            final var window = this.range.map(x -> " window " + format(x)).orElse("");
+            final var access = this.range.isEmpty() ? "" : isSeek() ? " seek" : " scan";
+            line(builder, depth, "source size=" + estimate(size()) + window + access);
+        }
+    }
+
+    static record UnionOf<P extends Comparable<P>, L, R, T>(Plan<P, L> left, Plan<P, R> right,
+            UnionResolver<L, R, T> resolver) implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return new UnionOf<>(this.left.optimize(), this.right.optimize(), this.resolver);
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new UnionOf<>(this.left.window(range), this.right.window(range), this.resolver);
+        }
+
+        @Override
+        public final <U> Plan<P, U> map(final Function<T, U> f) {
+            return new UnionOf<>(this.left, this.right, new Mapped<>(this.resolver, f));
+        }
+
+        @Override
+        public final long size() {
+            return sum(this.left.size(), this.right.size());
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return new Cursors.Resolved<>(new Cursors.Union<>(this.left.cursor(), this.right.cursor()),
+                    this.resolver);
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            final var fused = this.resolver instanceof Mapped ? " fused map" : "";
+            line(builder, depth, "union size=" + estimate(size()) + fused);
+            this.left.explain(builder, depth + 1);
+            this.right.explain(builder, depth + 1);
+        }
+    }
+
+    static record CombineOf<P extends Comparable<P>, T>(List<Plan<P, T>> inputs, BinaryOperator<T> combine)
+            implements Plan<P, T> {
+
+        private static long order(final long size) {
+            return size == UNKNOWN ? Long.MAX_VALUE : size;
+        }
+
+        @Override
+        public final Plan<P, T> optimize() {
+            final var inputs = new ArrayList<Plan<P, T>>();
+            for (final var input : this.inputs) {
+                final var optimized = input.optimize();
+                if (optimized instanceof final CombineOf<P, T> nested && nested.combine() == this.combine) {
+                    inputs.addAll(nested.inputs());
+                } else {
+                    inputs.add(optimized);
+                }
+            }
+            inputs.sort(Comparator.comparingLong(x -> order(x.size())));
+            return new CombineOf<>(List.copyOf(inputs), this.combine);
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new CombineOf<>(this.inputs.stream().map(x -> x.window(range)).toList(), this.combine);
+        }
+
+        @Override
+        public final long size() {
+            return this.inputs.stream().mapToLong(Plan::size).reduce(0, Plan::sum);
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            final var resolver = new Combined<>(this.combine);
+            var cursor = this.inputs.get(0).cursor();
+            for (final var input : this.inputs.subList(1, this.inputs.size())) {
+                cursor = new Cursors.Resolved<>(new Cursors.Union<>(cursor, input.cursor()), resolver);
+            }
+            return cursor;
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            line(builder, depth, "combine size=" + estimate(size()));
+            this.inputs.forEach(x -> x.explain(builder, depth + 1));
+        }
+    }
+
+    static record MergeOf<P extends Comparable<P>, T>(Plan<P, T> input) implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return this.input.optimize().merge();
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new MergeOf<>(this.input.window(range));
+        }
+
+        @Override
+        public final Plan<P, T> merge() {
+            return this;
+        }
+
+        @Override
+        public final long size() {
+            return this.input.size();
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return new Cursors.Merge<>(this.input.cursor());
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            line(builder, depth, "merge");
+            this.input.explain(builder, depth + 1);
+        }
+    }
+
+    static record MapOf<P extends Comparable<P>, S, T>(Plan<P, S> input, Function<S, T> f) implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return this.input.optimize().map(this.f);
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new MapOf<>(this.input.window(range), this.f);
+        }
+
+        @Override
+        public final <U> Plan<P, U> map(final Function<T, U> f) {
+            return new MapOf<>(this.input, this.f.andThen(f));
+        }
+
+        @Override
+        public final long size() {
+            return this.input.size();
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return new Cursors.Mapped<>(this.input.cursor(), this.f);
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            line(builder, depth, "map");
+            this.input.explain(builder, depth + 1);
+        }
+    }
+
+    static record FilterOf<P extends Comparable<P>, T>(Plan<P, T> input, Predicate<T> predicate)
+            implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return new FilterOf<>(this.input.optimize(), this.predicate);
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new WindowOf<>(this, range);
+        }
+
+        @Override
+        public final long size() {
+            return this.input.size();
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return new Cursors.Filtered<>(this.input.cursor(), this.predicate);
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            line(builder, depth, "filter");
+            this.input.explain(builder, depth + 1);
+        }
+    }
+
+    static record WindowOf<P extends Comparable<P>, T>(Plan<P, T> input, Window.Range<P> range)
+            implements Plan<P, T> {
+
+        @Override
+        public final Plan<P, T> optimize() {
+            return this.input.optimize().window(this.range);
+        }
+
+        @Override
+        public final Plan<P, T> window(final Window.Range<P> range) {
+            return new WindowOf<>(this.input, this.range.intersect(range));
+        }
+
+        @Override
+        public final long size() {
+            return this.input.size();
+        }
+
+        @Override
+        public final SeriesCursor<P, T> cursor() {
+            return new Cursors.Source<>(new Window<>(new Cursors.Datapoints<>(this.input.cursor()), this.range));
+        }
+
+        @Override
+        public final void explain(final StringBuilder builder, final int depth) {
+            line(builder, depth, "window " + format(this.range));
+            this.input.explain(builder, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The union of the datapoints of both series at one point, like {@link Union}:
+ * the datapoints are paired one by one and a serie starting at a repeated point
+ * after the other one repeats the datapoint in effect of the other serie for
+ * each of its datapoints but the last, unless it is the left serie and the
+ * right serie also has a datapoint at this point.
+ */
+final class PointUnion {
+    private PointUnion() {
+
+    }
+
+    private static <L, R, T> T resolve(final UnionResolver<L, R, T> resolver, final Optional<L> left,
+            final Optional<R> right) {
+        return left.isEmpty() ? resolver.rightOnly(right.get())
+                : right.isEmpty() ? resolver.leftOnly(left.get()) : resolver.both(left.get(), right.get());
+    }
+
+    /**
+     * Unite the datapoints at the point from the datapoints in effect before it
+     *
+     * @param point    the point
+     * @param left     the left datapoint in effect before the point
+     * @param right    the right datapoint in effect before the point
+     * @param lefts    the left data at the point
+     * @param rights   the right data at the point
+     * @param resolver the resolver
+     * @param united   receives the united datapoints in order
+     */
+    static <P extends Comparable<P>, L, R, T> void unite(final P point, final Optional<DataPoint<P, L>> left,
+            final Optional<DataPoint<P, R>> right, final List<L> lefts, final List<R> rights,
+            final UnionResolver<L, R, T> resolver, final Consumer<DataPoint<P, T>> united) {
+        var i = 0;
+        var j = 0;
+        if (left.isEmpty() && right.isPresent() && !lefts.isEmpty() && rights.isEmpty()) {
+            for (; i < lefts.size() - 1; i++)
+                united.accept(new DataPoint<>(right.get().point(), resolver.rightOnly(right.get().data())));
+        } else if (right.isEmpty() && left.isPresent() && !rights.isEmpty()) {
+            for (; j < rights.size() - 1; j++)
+                united.accept(new DataPoint<>(left.get().point(), resolver.leftOnly(left.get().data())));
+        }
+
+        var leftData = left.map(DataPoint::data);
+        var rightData = right.map(DataPoint::data);
+        while (i < lefts.size() || j < rights.size()) {
+            if (i < lefts.size())
+                leftData = Optional.of(lefts.get(i++));
+            if (j < rights.size())
+                rightData = Optional.of(rights.get(j++));
+            united.accept(new DataPoint<>(point, resolve(resolver, leftData, rightData)));
+        }
+    }
+}
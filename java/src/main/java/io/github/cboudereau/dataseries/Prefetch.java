@@ -0,0 +1,148 @@
+package io.github.cboudereau.dataseries;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the series ahead on a background thread into a bounded queue of
+ * batches. A batch is handed over as soon as the consumer is waiting so that a
+ * slow source is not delayed until the batch is full.
+ *
+ * The background thread does not reference the iterator: closing the iterator,
+ * or the iterator being garbage collected when the iteration is abandoned,
+ * stops the thread which waits for room in the queue with a timeout and gives
+ * up once stopped.
+ */
+final class Prefetch<P, T> implements CloseableIterator<DataPoint<P, T>> {
+    static final int BATCH = 1 << 10;
+    private static final long OFFER_MILLIS = 100;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static record Batch<P, T>(List<DataPoint<P, T>> datapoints, Boolean isLast,
+            Optional<Throwable> error) {
+    }
+
+    private static final class Producer<P, T> implements Runnable {
+        private final Iterator<DataPoint<P, T>> series;
+        private final BlockingQueue<Batch<P, T>> queue;
+
+        private volatile Boolean isClosed = false;
+        private volatile Thread thread;
+
+        private Producer(final Iterator<DataPoint<P, T>> series, final BlockingQueue<Batch<P, T>> queue) {
+            this.series = series;
+            this.queue = queue;
+        }
+
+        private final void start() {
+            this.thread = Threads.start("dataseries-prefetch", this);
+            if (this.isClosed)
+                this.thread.interrupt();
+        }
+
+        private final Boolean put(final Batch<P, T> batch) throws InterruptedException {
+            while (!this.isClosed) {
+                if (this.queue.offer(batch, OFFER_MILLIS, TimeUnit.MILLISECONDS))
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public final void run() {
+            try {
+                try {
+                    var batch = new ArrayList<DataPoint<P, T>>();
+                    while (!this.isClosed && this.series.hasNext()) {
+                        batch.add(this.series.next());
+                        if (batch.size() == BATCH || this.queue.isEmpty()) {
+                            if (!put(new Batch<>(batch, false, Optional.empty())))
+                                return;
+                            batch = new ArrayList<>();
+                        }
+                    }
+                    put(new Batch<>(batch, true, Optional.empty()));
+                } catch (final RuntimeException | Error e) {
+                    put(new Batch<>(List.of(), true, Optional.of(e)));
+                }
+            } catch (final InterruptedException e) {
+                // closed by the consumer
+            }
+        }
+
+        private final void close() {
+            this.isClosed = true;
+            final var thread = this.thread;
+            if (thread != null)
+                thread.interrupt();
+        }
+    }
+
+    private final BlockingQueue<Batch<P, T>> queue;
+    private final Cleaner.Cleanable producer;
+
+    private Iterator<DataPoint<P, T>> current = Collections.emptyIterator();
+    private Boolean isLast = false;
+
+    Prefetch(final Iterator<DataPoint<P, T>> series, final Integer capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity should be greater than 0 but was " + capacity);
+
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        final var producer = new Producer<>(series, this.queue);
+        this.producer = CLEANER.register(this, producer::close);
+        producer.start();
+    }
+
+    private final Batch<P, T> take() {
+        try {
+            return this.queue.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the prefetched datapoints", e);
+        }
+    }
+
+    @Override
+    public final boolean hasNext() {
+        while (!this.current.hasNext() && !this.isLast) {
+            final var batch = take();
+            if (batch.error().isPresent()) {
+                this.isLast = true;
+                switch (batch.error().get()) {
+                    case final RuntimeException e -> throw e;
+                    case final Error e -> throw e;
+                    default -> throw new IllegalStateException(batch.error().get());
+                }
+            }
+            this.current = batch.datapoints().iterator();
+            this.isLast = batch.isLast();
+        }
+        return this.current.hasNext();
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        return this.current.next();
+    }
+
+    /**
+     * Stop reading ahead when the iteration is abandoned before the end
+     */
+    @Override
+    public final void close() {
+        this.isLast = true;
+        this.current = Collections.emptyIterator();
+        this.producer.clean();
+    }
+}
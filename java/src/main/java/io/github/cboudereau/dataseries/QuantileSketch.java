@@ -0,0 +1,235 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Arrays;
+
+/**
+ * A mergeable streaming quantile sketch (merging t-digest). Values are
+ * clustered into weighted centroids, the centroids are small near the
+ * extremes and larger around the median so that the tail quantiles stay
+ * accurate. The number of centroids is bounded by the compression whatever
+ * the number of values.
+ *
+ * Sketches of different segments can be stored with the codec and merged to
+ * answer a query over several segments.
+ */
+public final class QuantileSketch {
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int size = 0;
+
+    private final double[] bufferedValues;
+    private final double[] bufferedWeights;
+    private int buffered = 0;
+
+    private double total = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    QuantileSketch(final Double compression) {
+        if (!(compression >= 10))
+            throw new IllegalArgumentException("compression should be at least 10 but was " + compression);
+
+        this.compression = compression;
+        final var capacity = (int) Math.ceil(compression) * 2;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.bufferedValues = new double[capacity * 4];
+        this.bufferedWeights = new double[capacity * 4];
+    }
+
+    /**
+     * The codec storing the centroids of a sketch
+     *
+     * @return the sketch codec
+     */
+    public static Codec<QuantileSketch> codec() {
+        return Codec.of((output, sketch) -> {
+            sketch.compress();
+            output.writeDouble(sketch.compression);
+            output.writeDouble(sketch.min);
+            output.writeDouble(sketch.max);
+            output.writeInt(sketch.size);
+            for (var i = 0; i < sketch.size; i++) {
+                output.writeDouble(sketch.means[i]);
+                output.writeDouble(sketch.weights[i]);
+            }
+        }, input -> {
+            final var sketch = new QuantileSketch(input.readDouble());
+            final var min = input.readDouble();
+            final var max = input.readDouble();
+            final var size = input.readInt();
+            for (var i = 0; i < size; i++) {
+                sketch.add(input.readDouble(), input.readDouble());
+            }
+            sketch.min = Math.min(sketch.min, min);
+            sketch.max = Math.max(sketch.max, max);
+            return sketch;
+        });
+    }
+
+    /**
+     * Add a value with a weight of 1
+     *
+     * @param value the value
+     */
+    public final void add(final double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Add a weighted value, a zero weight is ignored
+     *
+     * @param value  the value
+     * @param weight the positive weight (e.g. the duration of a step)
+     */
+    public final void add(final double value, final double weight) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("value should be a number");
+        if (!(weight >= 0) || Double.isInfinite(weight))
+            throw new IllegalArgumentException("weight should be a positive number but was " + weight);
+        if (weight == 0)
+            return;
+
+        if (this.buffered == this.bufferedValues.length)
+            compress();
+
+        this.bufferedValues[this.buffered] = value;
+        this.bufferedWeights[this.buffered] = weight;
+        this.buffered++;
+        this.total += weight;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    private final double scale(final double q) {
+        return this.compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private final void compress() {
+        if (this.buffered == 0)
+            return;
+
+        final var n = this.size + this.buffered;
+        final var order = new Integer[n];
+        final var values = new double[n];
+        final var weights = new double[n];
+        System.arraycopy(this.means, 0, values, 0, this.size);
+        System.arraycopy(this.weights, 0, weights, 0, this.size);
+        System.arraycopy(this.bufferedValues, 0, values, this.size, this.buffered);
+        System.arraycopy(this.bufferedWeights, 0, weights, this.size, this.buffered);
+        for (var i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(values[x], values[y]));
+
+        this.size = 0;
+        this.buffered = 0;
+
+        var cumulated = 0.0;
+        var mean = values[order[0]];
+        var weight = weights[order[0]];
+        var lower = scale(0);
+        for (var i = 1; i < n; i++) {
+            final var value = values[order[i]];
+            final var w = weights[order[i]];
+            if (scale((cumulated + weight + w) / this.total) - lower <= 1) {
+                weight += w;
+                mean += (value - mean) * w / weight;
+                continue;
+            }
+
+            append(mean, weight);
+            cumulated += weight;
+            lower = scale(cumulated / this.total);
+            mean = value;
+            weight = w;
+        }
+        append(mean, weight);
+    }
+
+    private final void append(final double mean, final double weight) {
+        if (this.size == this.means.length) {
+            this.means = Arrays.copyOf(this.means, this.size * 2);
+            this.weights = Arrays.copyOf(this.weights, this.size * 2);
+        }
+        this.means[this.size] = mean;
+        this.weights[this.size] = weight;
+        this.size++;
+    }
+
+    /**
+     * A new sketch of the values of both sketches
+     *
+     * @param other the other sketch
+     * @return the merged sketch
+     */
+    public final QuantileSketch merge(final QuantileSketch other) {
+        compress();
+        other.compress();
+
+        final var merged = new QuantileSketch(Math.max(this.compression, other.compression));
+        for (final var sketch : new QuantileSketch[] { this, other }) {
+            for (var i = 0; i < sketch.size; i++) {
+                merged.add(sketch.means[i], sketch.weights[i]);
+            }
+        }
+        merged.min = Math.min(this.min, other.min);
+        merged.max = Math.max(this.max, other.max);
+        return merged;
+    }
+
+    /**
+     * The total weight of the values
+     *
+     * @return the total weight
+     */
+    public final double count() {
+        return this.total;
+    }
+
+    /**
+     * The number of centroids kept by the sketch
+     *
+     * @return the number of centroids
+     */
+    public final int centroids() {
+        compress();
+        return this.size;
+    }
+
+    /**
+     * The estimated value below which the given fraction of the weight falls
+     *
+     * @param q the fraction between 0 and 1 (e.g. 0.99 for p99)
+     * @return the estimated quantile or NaN when the sketch is empty
+     */
+    public final double quantile(final double q) {
+        if (!(q >= 0 && q <= 1))
+            throw new IllegalArgumentException("quantile should be between 0 and 1 but was " + q);
+
+        compress();
+        if (this.size == 0)
+            return Double.NaN;
+        if (this.size == 1)
+            return this.means[0];
+
+        final var index = q * this.total;
+        final var first = this.weights[0] / 2;
+        if (index < first)
+            return this.min + (this.means[0] - this.min) * index / first;
+
+        var cumulated = first;
+        for (var i = 0; i < this.size - 1; i++) {
+            final var step = (this.weights[i] + this.weights[i + 1]) / 2;
+            if (cumulated + step > index)
+                return this.means[i] + (this.means[i + 1] - this.means[i]) * (index - cumulated) / step;
+            cumulated += step;
+        }
+
+        final var last = this.weights[this.size - 1] / 2;
+        final var mean = this.means[this.size - 1];
+        return Math.min(this.max, mean + (this.max - mean) * (index - cumulated) / last);
+    }
+}
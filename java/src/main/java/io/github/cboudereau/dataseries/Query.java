@@ -0,0 +1,129 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A declarative query over series. The query only describes the plan, it is
+ * optimized into an equivalent plan when iterated: windows are pushed down to
+ * the sources, maps are fused into unions, nested combines are ordered by
+ * estimated size and the whole plan runs as a single loop over cursors
+ * allocating one datapoint per result.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class Query<P extends Comparable<P>, T> implements IterableSeries<P, T> {
+    private final Plan<P, T> plan;
+
+    Query(final Plan<P, T> plan) {
+        this.plan = plan;
+    }
+
+    final Plan<P, T> plan() {
+        return this.plan;
+    }
+
+    /**
+     * union with another serie and combine the left and right data with the
+     * given resolver
+     *
+     * @param <R>      the right type
+     * @param <U>      the resolved type
+     * @param right    the right serie or query
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return the union query
+     */
+    public final <R, U> Query<P, U> union(final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<T, R, U> resolver) {
+        return new Query<>(new Plan.UnionOf<>(this.plan, Plan.of(right), resolver));
+    }
+
+    /**
+     * union with another serie and apply the function to the union result
+     *
+     * @param <R>   the right type
+     * @param <U>   the resolved type
+     * @param right the right serie or query
+     * @param f     the function applied to convert union result to U type
+     * @return the union query
+     */
+    public final <R, U> Query<P, U> union(final Iterable<DataPoint<P, R>> right,
+            final Function<UnionResult<T, R>, U> f) {
+        return union(right, UnionResolver.of(f));
+    }
+
+    /**
+     * union with another serie of the same type, the data of both series are
+     * combined with the operator and the data of a single serie is kept as is.
+     *
+     * The operator should be associative and commutative: consecutive combines
+     * with the same operator instance are reordered by estimated size.
+     *
+     * @param other   the other serie or query
+     * @param combine the associative and commutative operator
+     * @return the combined query
+     */
+    public final Query<P, T> combine(final Iterable<DataPoint<P, T>> other, final BinaryOperator<T> combine) {
+        return new Query<>(new Plan.CombineOf<>(List.of(this.plan, Plan.of(other)), combine));
+    }
+
+    /**
+     * merge contiguous datapoints having the same data
+     *
+     * @return the merged query
+     */
+    public final Query<P, T> merge() {
+        return new Query<>(new Plan.MergeOf<>(this.plan));
+    }
+
+    /**
+     * apply the function to the data of each datapoint
+     *
+     * @param <U> the mapped type
+     * @param f   the function
+     * @return the mapped query
+     */
+    public final <U> Query<P, U> map(final Function<T, U> f) {
+        return new Query<>(new Plan.MapOf<>(this.plan, f));
+    }
+
+    /**
+     * keep only the datapoints whose data matches the predicate
+     *
+     * @param predicate the predicate
+     * @return the filtered query
+     */
+    public final Query<P, T> filter(final Predicate<T> predicate) {
+        return new Query<>(new Plan.FilterOf<>(this.plan, predicate));
+    }
+
+    /**
+     * restrict the query to the points from (inclusive) to (exclusive), see
+     * {@link Series#window(Iterable, Comparable, Comparable)}
+     *
+     * @param from the first point of the window (inclusive)
+     * @param to   the last point of the window (exclusive)
+     * @return the windowed query
+     */
+    public final Query<P, T> window(final P from, final P to) {
+        return new Query<>(new Plan.WindowOf<>(this.plan, Window.Range.of(from, Union.Value.fixed(to))));
+    }
+
+    /**
+     * The optimized plan, one operator per line with its inputs indented below
+     *
+     * @return the optimized plan
+     */
+    public final String explain() {
+        return this.plan.optimize().explain();
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return new Cursors.Datapoints<>(this.plan.optimize().cursor());
+    }
+}
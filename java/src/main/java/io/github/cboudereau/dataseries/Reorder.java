@@ -0,0 +1,107 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+final class Reorder<P extends Comparable<P>, T> implements Iterator<DataPoint<P, T>> {
+
+    private static record Entry<P, T>(long sequence, DataPoint<P, T> datapoint) {
+    }
+
+    private final Iterator<DataPoint<P, T>> series;
+    private final UnaryOperator<P> lateness;
+    private final Consumer<DataPoint<P, T>> late;
+    private final PriorityQueue<Entry<P, T>> buffer;
+
+    private Boolean hasNext = true;
+    private Boolean isPulled = false;
+    private long sequence = 0;
+
+    private Optional<P> watermark = Optional.empty();
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    public Reorder(final Iterator<DataPoint<P, T>> series, final UnaryOperator<P> lateness,
+            final Consumer<DataPoint<P, T>> late) {
+        this.series = series;
+        this.lateness = lateness;
+        this.late = late;
+        this.buffer = new PriorityQueue<>(
+                Comparator.<Entry<P, T>, P>comparing(x -> x.datapoint().point()).thenComparingLong(x -> x.sequence()));
+    }
+
+    private final Boolean isBeforeWatermark(final P point) {
+        return this.watermark.map(w -> point.compareTo(w) < 0).orElse(false);
+    }
+
+    private final void advanceWatermark(final P point) {
+        final var candidate = this.lateness.apply(point);
+        if (this.watermark.map(w -> candidate.compareTo(w) > 0).orElse(true)) {
+            this.watermark = Optional.of(candidate);
+        }
+    }
+
+    private final Boolean tryEmit() {
+        if (this.buffer.isEmpty() || !isBeforeWatermark(this.buffer.peek().datapoint().point()))
+            return false;
+
+        this.entry = Optional.of(this.buffer.poll().datapoint());
+        return true;
+    }
+
+    private final void pull() {
+        if (this.isPulled)
+            return;
+
+        this.isPulled = true;
+        pullEntry();
+    }
+
+    private final void pullEntry() {
+        if (tryEmit())
+            return;
+
+        while (this.series.hasNext()) {
+            final var next = this.series.next();
+
+            if (isBeforeWatermark(next.point())) {
+                this.late.accept(next);
+                continue;
+            }
+
+            this.buffer.add(new Entry<>(this.sequence++, next));
+            advanceWatermark(next.point());
+
+            if (tryEmit())
+                return;
+        }
+
+        if (!this.buffer.isEmpty()) {
+            this.entry = Optional.of(this.buffer.poll().datapoint());
+            return;
+        }
+
+        this.hasNext = false;
+        this.entry = Optional.empty();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (this.entry.isEmpty())
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A series which can also be iterated from its last datapoint backwards
+ * without reading the whole series first.
+ */
+interface Reversible<P, T> extends IterableSeries<P, T> {
+    Iterator<DataPoint<P, T>> descendingIterator();
+
+    /**
+     * The datapoints of the series from the last one. Series which are neither
+     * reversible nor lists are copied first.
+     */
+    static <P, T> Iterator<DataPoint<P, T>> descendingIterator(final Iterable<DataPoint<P, T>> series) {
+        return switch (series) {
+            case final Reversible<P, T> reversible -> reversible.descendingIterator();
+            case final List<DataPoint<P, T>> list -> reverse(list);
+            default -> {
+                final var list = new ArrayList<DataPoint<P, T>>();
+                series.forEach(list::add);
+                yield reverse(list);
+            }
+        };
+    }
+
+    private static <P, T> Iterator<DataPoint<P, T>> reverse(final List<DataPoint<P, T>> list) {
+        final var iterator = list.listIterator(list.size());
+        return new Iterator<DataPoint<P, T>>() {
+            @Override
+            public final boolean hasNext() {
+                return iterator.hasPrevious();
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                return iterator.previous();
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * An immutable series split into time bounded segments.
+ *
+ * A new segment starts whenever the bucket of the point changes (e.g. the
+ * month of a date). Each segment keeps its first and last points, its number of
+ * datapoints and the data in effect when it starts, so that a windowed query
+ * only reads the segments overlapping the window. The data carried in from the
+ * pruned segments before the window is taken from the entry of the first read
+ * segment.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class SegmentStore<P extends Comparable<P>, T> implements Windowable<P, T> {
+
+    /**
+     * An immutable segment of the store
+     *
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param first  the first point of the segment
+     * @param last   the last point of the segment
+     * @param count  the number of datapoints
+     * @param entry  the data in effect before the first point, empty for the
+     *               first segment
+     * @param series the datapoints of the segment
+     */
+    public static final record Segment<P extends Comparable<P>, T>(P first, P last, Integer count, Optional<T> entry,
+            IndexedSeries<P, T> series) {
+    }
+
+    private final Function<P, ?> bucket;
+    private final List<Segment<P, T>> segments;
+
+    private SegmentStore(final Function<P, ?> bucket, final List<Segment<P, T>> segments) {
+        this.bucket = bucket;
+        this.segments = segments;
+    }
+
+    private static <P extends Comparable<P>, T> Segment<P, T> segment(final List<Object> points,
+            final List<Object> data, final Optional<T> entry) {
+        final var series = new IndexedSeries<P, T>(points.toArray(), data.toArray());
+        return new Segment<>(series.point(0), series.point(series.size() - 1), series.size(), entry, series);
+    }
+
+    static <P extends Comparable<P>, T> SegmentStore<P, T> of(final Iterable<DataPoint<P, T>> series,
+            final Function<P, ?> bucket) {
+        return new SegmentStore<P, T>(bucket, List.of()).append(series);
+    }
+
+    /**
+     * A new store with the given datapoints appended in new segments, existing
+     * segments are never modified even when they share the bucket of the first
+     * appended point
+     *
+     * @param series the sorted datapoints, after the last point of the store
+     * @return a new store sharing the existing segments
+     */
+    public final SegmentStore<P, T> append(final Iterable<DataPoint<P, T>> series) {
+        final var segments = new ArrayList<>(this.segments);
+        final var last = segments.isEmpty() ? Optional.<Segment<P, T>>empty()
+                : Optional.of(segments.get(segments.size() - 1));
+
+        var previous = last.map(x -> x.series().datapoint(x.count() - 1));
+        var entry = previous.map(DataPoint::data);
+        Object currentBucket = null;
+        final var points = new ArrayList<Object>();
+        final var data = new ArrayList<Object>();
+        for (final var x : series) {
+            if (previous.isPresent() && previous.get().point().compareTo(x.point()) >= 0)
+                throw new IllegalArgumentException(
+                        "series should be sorted but " + x.point() + " comes after " + previous.get().point());
+
+            final var bucket = this.bucket.apply(x.point());
+            if (!points.isEmpty() && !bucket.equals(currentBucket)) {
+                segments.add(segment(points, data, entry));
+                entry = previous.map(DataPoint::data);
+                points.clear();
+                data.clear();
+            }
+
+            currentBucket = bucket;
+            previous = Optional.of(x);
+            points.add(x.point());
+            data.add(x.data());
+        }
+        if (!points.isEmpty())
+            segments.add(segment(points, data, entry));
+
+        return new SegmentStore<>(this.bucket, Collections.unmodifiableList(segments));
+    }
+
+    /**
+     * The segments of the store ordered by point
+     *
+     * @return the segments
+     */
+    public final List<Segment<P, T>> segments() {
+        return this.segments;
+    }
+
+    /**
+     * The number of datapoints
+     *
+     * @return the number of datapoints
+     */
+    public final int size() {
+        return this.segments.stream().mapToInt(Segment::count).sum();
+    }
+
+    /**
+     * The index of the first segment whose last point is at or after the given
+     * point, the number of segments when there is none
+     */
+    private final int ceilingSegment(final P point) {
+        var lo = 0;
+        var hi = this.segments.size();
+        while (lo < hi) {
+            final var mid = (lo + hi) >>> 1;
+            if (this.segments.get(mid).last().compareTo(point) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The segments overlapping the range: the one holding the data in effect at
+     * from, or the following one when from falls between 2 segments, up to the
+     * last one starting before to
+     */
+    final List<Segment<P, T>> plan(final Window.Range<P> range) {
+        if (range.isEmpty() || this.segments.isEmpty())
+            return List.of();
+
+        final var from = Math.min(ceilingSegment(range.from()), this.segments.size() - 1);
+        var to = from;
+        while (to < this.segments.size() && range.isBefore(this.segments.get(to).first())) {
+            to++;
+        }
+        return this.segments.subList(from, Math.max(to, from + 1));
+    }
+
+    private static <P extends Comparable<P>, T> Iterator<DataPoint<P, T>> concat(
+            final List<Iterator<DataPoint<P, T>>> iterators) {
+        return new Iterator<DataPoint<P, T>>() {
+            private int index = 0;
+
+            @Override
+            public final boolean hasNext() {
+                while (this.index < iterators.size() && !iterators.get(this.index).hasNext()) {
+                    this.index++;
+                }
+                return this.index < iterators.size();
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return iterators.get(this.index).next();
+            }
+        };
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        final var iterators = new ArrayList<Iterator<DataPoint<P, T>>>();
+        for (final var segment : this.segments) {
+            iterators.add(segment.series().iterator());
+        }
+        return concat(iterators);
+    }
+
+    @Override
+    public final IterableSeries<P, T> window(final Window.Range<P> range) {
+        return () -> {
+            final var plan = plan(range);
+            final var iterators = new ArrayList<Iterator<DataPoint<P, T>>>();
+            if (!plan.isEmpty()) {
+                final var first = plan.get(0);
+                if (first.first().compareTo(range.from()) > 0)
+                    first.entry().ifPresent(x -> iterators.add(List.of(new DataPoint<>(range.from(), x)).iterator()));
+            }
+            for (final var segment : plan) {
+                iterators.add(range.apply(segment.series()).iterator());
+            }
+            return concat(iterators);
+        };
+    }
+}
@@ -1,6 +1,21 @@
 package io.github.cboudereau.dataseries;
 
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.StreamSupport;
 
 /**
  * The entrypoint of the api, here is a simple usage of the union dataseries :
@@ -332,7 +347,259 @@ public class Series {
     public static final <P extends Comparable<P>, L, R, T> IterableSeries<P, T> union(
             final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
             final Function<UnionResult<L, R>, T> f) {
-        return () -> new Union<>(left.iterator(), right.iterator(), f);
+        return new UnionSeries<>(left, right, UnionResolver.of(f));
+    }
+
+    /**
+     * union 2 series and combine the left and right data with the given resolver
+     * without allocating a union result
+     * 
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param left     the left serie
+     * @param right    the right serie
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return a iterable series
+     */
+    public static final <P extends Comparable<P>, L, R, T> IterableSeries<P, T> union(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver) {
+        return new UnionSeries<>(left, right, resolver);
+    }
+
+    /**
+     * union 2 series comparing the keys of the points instead of the points,
+     * each point is encoded once so that every step is a primitive comparison
+     * 
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param left     the left serie
+     * @param right    the right serie
+     * @param resolver the resolver of the left only, right only and both cases
+     * @param key      the order preserving key codec of the points
+     * @return a iterable series
+     */
+    public static final <P, L, R, T> IterableSeries<P, T> union(final Iterable<DataPoint<P, L>> left,
+            final Iterable<DataPoint<P, R>> right, final UnionResolver<L, R, T> resolver, final KeyCodec<P> key) {
+        return () -> new KeyedUnion<>(left.iterator(), right.iterator(), key, resolver);
+    }
+
+    /**
+     * union 2 series with an iterator exporting its position after each emitted
+     * datapoint, see resume with a checkpoint
+     *
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param left     the left serie
+     * @param right    the right serie
+     * @param resolver the union resolver
+     * @return a checkpointed union iterator
+     */
+    public static final <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> checkpointedUnion(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver) {
+        return CheckpointedUnion.of(left, right, resolver, false);
+    }
+
+    /**
+     * resume a checkpointed union against the same series, emitting exactly the
+     * datapoints after the checkpoint. Indexed and windowable series seek to the
+     * checkpoint point.
+     *
+     * @param <P>        the point type should be common for left and right series
+     * @param <L>        the left type
+     * @param <R>        the right type
+     * @param <T>        the resolved type
+     * @param left       the left serie
+     * @param right      the right serie
+     * @param resolver   the union resolver
+     * @param checkpoint the checkpoint of the union
+     * @return a checkpointed union iterator
+     */
+    public static final <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> checkpointedUnion(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver, final Checkpoint<P, L, R, T> checkpoint) {
+        return CheckpointedUnion.resume(left, right, resolver, false, checkpoint);
+    }
+
+    /**
+     * merge the union of 2 series with an iterator exporting its position after
+     * each emitted datapoint, same as merge of union
+     *
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param left     the left serie
+     * @param right    the right serie
+     * @param resolver the union resolver
+     * @return a checkpointed merged union iterator
+     */
+    public static final <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> checkpointedMergedUnion(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver) {
+        return CheckpointedUnion.of(left, right, resolver, true);
+    }
+
+    /**
+     * resume a checkpointed merged union against the same series, emitting
+     * exactly the datapoints after the checkpoint
+     *
+     * @param <P>        the point type should be common for left and right series
+     * @param <L>        the left type
+     * @param <R>        the right type
+     * @param <T>        the resolved type
+     * @param left       the left serie
+     * @param right      the right serie
+     * @param resolver   the union resolver
+     * @param checkpoint the checkpoint of the merged union
+     * @return a checkpointed merged union iterator
+     */
+    public static final <P extends Comparable<P>, L, R, T> CheckpointedUnion<P, L, R, T> checkpointedMergedUnion(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final UnionResolver<L, R, T> resolver, final Checkpoint<P, L, R, T> checkpoint) {
+        return CheckpointedUnion.resume(left, right, resolver, true, checkpoint);
+    }
+
+    /**
+     * memoize a pure resolver for the union of series, the previous result is
+     * reused when a point repeats the previous values and the other results are
+     * kept in a bounded cache created for each iteration
+     *
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param resolver the pure resolver to memoize
+     * @param capacity the maximum number of cached results per iteration
+     * @return a memoized resolver reporting its hit rate
+     */
+    public static final <L, R, T> MemoizedResolver<L, R, T> memoize(final UnionResolver<L, R, T> resolver,
+            final Integer capacity) {
+        return MemoizedResolver.of(resolver, capacity);
+    }
+
+    /**
+     * memoize a pure function of the union result, see memoize with a resolver
+     *
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param f        the pure function applied to the union result
+     * @param capacity the maximum number of cached results per iteration
+     * @return a memoized resolver reporting its hit rate
+     */
+    public static final <L, R, T> MemoizedResolver<L, R, T> memoize(final Function<UnionResult<L, R>, T> f,
+            final Integer capacity) {
+        return memoize(UnionResolver.of(f), capacity);
+    }
+
+    /**
+     * an empty append only series with a single writer and lock free readers:
+     * iterations and windows read a snapshot of the datapoints appended so far
+     * and never block the writer
+     *
+     * @param <P> the point type
+     * @param <T> the data type
+     * @return a live series
+     */
+    public static final <P extends Comparable<P>, T> LiveSeries<P, T> live() {
+        return LiveSeries.of();
+    }
+
+    /**
+     * an empty index of the intervals of many series answering stabbing and
+     * overlap queries in O(log n + k) for k matching intervals, series are
+     * added and replaced with put and grown with append
+     *
+     * @param <K>   the series key type
+     * @param <P>   the point type
+     * @param <T>   the data type
+     * @param isGap whether a data marks the end of an interval
+     * @return an interval index
+     */
+    public static final <K, P extends Comparable<P>, T> IntervalIndex<K, P, T> intervals(final Predicate<T> isGap) {
+        return IntervalIndex.of(isGap);
+    }
+
+    /**
+     * index the intervals of the given series, see intervals
+     *
+     * @param <K>    the series key type
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the sorted series by key
+     * @param isGap  whether a data marks the end of an interval
+     * @return an interval index
+     */
+    public static final <K, P extends Comparable<P>, T> IntervalIndex<K, P, T> intervals(
+            final Map<K, ? extends Iterable<DataPoint<P, T>>> series, final Predicate<T> isGap) {
+        final IntervalIndex<K, P, T> index = IntervalIndex.of(isGap);
+        series.forEach((key, x) -> index.put(key, x));
+        return index;
+    }
+
+    /**
+     * an empty series absorbing small updates with a log structured write path:
+     * updates are buffered, flushed as immutable runs and compacted in the
+     * background while reads unite the runs on the fly
+     *
+     * @param <P>      the point type
+     * @param <T>      the data type
+     * @param resolver the associative resolver of the stored data (left) and the
+     *                 update (right)
+     * @param capacity the number of buffered datapoints triggering a flush
+     * @return a log structured series
+     */
+    public static final <P extends Comparable<P>, T> LogStructuredSeries<P, T> logStructured(
+            final UnionResolver<T, T, T> resolver, final Integer capacity) {
+        return LogStructuredSeries.of(resolver, capacity);
+    }
+
+    /**
+     * an empty log structured series resolving conflicts with a function of the
+     * union result, see logStructured with a resolver
+     *
+     * @param <P>      the point type
+     * @param <T>      the data type
+     * @param f        the associative function applied to the union of the stored
+     *                 data (left) and the update (right)
+     * @param capacity the number of buffered datapoints triggering a flush
+     * @return a log structured series
+     */
+    public static final <P extends Comparable<P>, T> LogStructuredSeries<P, T> logStructured(
+            final Function<UnionResult<T, T>, T> f, final Integer capacity) {
+        return logStructured(UnionResolver.of(f), capacity);
+    }
+
+    /**
+     * open a durable log structured series stored in the given directory,
+     * recovering the latest snapshot and the write-ahead log records after it.
+     *
+     * Appends are committed by groups with one fsync per group and a snapshot
+     * of the merged series is written every snapshot interval appends.
+     *
+     * @param <P>              the point type
+     * @param <T>              the data type
+     * @param directory        the directory of the log segments and snapshot
+     * @param point            the point codec
+     * @param data             the data codec
+     * @param resolver         the associative resolver of the stored data (left)
+     *                         and the update (right)
+     * @param capacity         the number of buffered datapoints triggering a
+     *                         flush of the in-memory series
+     * @param snapshotInterval the number of appends between snapshots
+     * @return a series log to close once done
+     */
+    public static final <P extends Comparable<P>, T> SeriesLog<P, T> log(final Path directory,
+            final Codec<P> point, final Codec<T> data, final UnionResolver<T, T, T> resolver,
+            final Integer capacity, final Integer snapshotInterval) {
+        return SeriesLog.open(directory, point, data, resolver, capacity, snapshotInterval);
     }
 
     /**
@@ -346,6 +613,684 @@ public class Series {
      */
     public static final <P, T> IterableSeries<P, T> merge(
             final Iterable<DataPoint<P, T>> series) {
-        return () -> new Merge<>(series.iterator());
+        return new MergeSeries<>(series);
+    }
+
+    /**
+     * read a serie once for several consumers running on their own threads: the
+     * datapoints are buffered until the slowest branch has read them and a
+     * branch more than the capacity ahead of the slowest waits for it. Each
+     * branch can be iterated once and every branch should be iterated, to its
+     * end or until the others are done, or its iterator closed so that the
+     * other branches no longer wait for it.
+     *
+     * @param <P>      the point type
+     * @param <T>      the data type
+     * @param series   the serie to read once
+     * @param branches the number of branches
+     * @param capacity the maximum gap between the fastest and the slowest branch
+     * @return the branches of the serie
+     */
+    public static final <P, T> List<CloseableSeries<P, T>> tee(final Iterable<DataPoint<P, T>> series,
+            final Integer branches, final Integer capacity) {
+        return Tee.of(series, branches, capacity);
+    }
+
+    /**
+     * read a serie once for several consumers driven together in a single loop,
+     * e.g. unions of the serie with several overrides: the consumer whose branch
+     * is the most behind is always pulled first and its output is given to the
+     * sink with the index of the consumer. A consumer reading more than the
+     * capacity ahead of the slowest fails with an IllegalStateException.
+     *
+     * @param <P>       the point type
+     * @param <T>       the data type
+     * @param <R>       the consumer output type
+     * @param series    the serie to read once
+     * @param capacity  the maximum gap between the fastest and the slowest branch
+     * @param consumers the consumers of a branch of the serie
+     * @param sink      the sink of the consumer index and output
+     */
+    public static final <P, T, R> void drive(final Iterable<DataPoint<P, T>> series, final Integer capacity,
+            final List<Function<IterableSeries<P, T>, ? extends Iterable<DataPoint<P, R>>>> consumers,
+            final BiConsumer<Integer, DataPoint<P, R>> sink) {
+        Tee.drive(series, capacity, consumers, sink);
+    }
+
+    /**
+     * the datapoints of a serie from the last one backwards. Indexed, encoded and
+     * live series are read from their end and the unions and merges of such
+     * series are computed backwards, emitting the datapoints of the forward
+     * union or merge in reverse order, so that reading the latest datapoints
+     * costs in proportion to the number read. Other lists are read backwards and
+     * any other serie is copied first.
+     *
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the serie, a union or a merge of series
+     * @return the datapoints in descending point order
+     */
+    public static final <P, T> IterableSeries<P, T> descending(final Iterable<DataPoint<P, T>> series) {
+        return () -> Reversible.descendingIterator(series);
+    }
+
+    /**
+     * lossy merge dropping the datapoints whose data is within the tolerance of
+     * the last kept data, the compressed serie never deviates by more than the
+     * tolerance
+     *
+     * @param <P>       the point type
+     * @param series    the serie to compress
+     * @param tolerance the maximum absolute deviation
+     * @return a compressed series
+     */
+    public static final <P> IterableSeries<P, Double> deadband(final Iterable<DataPoint<P, Double>> series,
+            final Double tolerance) {
+        final var band = Deadband.Band.absolute(tolerance);
+        return () -> new Deadband<>(series.iterator(), band);
+    }
+
+    /**
+     * lossy merge dropping the datapoints whose data is within a ratio of the
+     * last kept data
+     *
+     * @param <P>    the point type
+     * @param series the serie to compress
+     * @param ratio  the maximum deviation relative to the last kept data (e.g.
+     *               0.01 for 1%)
+     * @return a compressed series
+     */
+    public static final <P> IterableSeries<P, Double> relativeDeadband(final Iterable<DataPoint<P, Double>> series,
+            final Double ratio) {
+        final var band = Deadband.Band.relative(ratio);
+        return () -> new Deadband<>(series.iterator(), band);
+    }
+
+    /**
+     * lossy compression with the swinging door trending algorithm, the linear
+     * interpolation between the kept datapoints is within the tolerance of every
+     * dropped datapoint. Unlike the other series, the result should be read with
+     * a linear interpolation instead of steps.
+     *
+     * @param <P>       the point type
+     * @param series    the serie to compress with strictly increasing points
+     * @param position  the numeric position of a point (e.g. epoch millis)
+     * @param tolerance the maximum absolute deviation of the interpolation
+     * @return a compressed series
+     */
+    public static final <P> IterableSeries<P, Double> swingingDoor(final Iterable<DataPoint<P, Double>> series,
+            final ToDoubleFunction<P> position, final Double tolerance) {
+        return () -> new SwingingDoor<>(series.iterator(), position, tolerance);
+    }
+
+    /**
+     * reorder an almost sorted serie with a bounded lateness so that it can be
+     * used as an input of union or merge.
+     * 
+     * Datapoints are buffered until the watermark, given by the lateness function
+     * applied to the greatest point seen so far, has passed them. Datapoints
+     * arriving before the watermark are late and redirected to the late consumer
+     * instead of being emitted out of order.
+     * 
+     * @param <P>      the point type
+     * @param <T>      the data type
+     * @param series   the almost sorted serie
+     * @param lateness the function returning the watermark from the greatest point
+     *                 seen so far, it should be monotonic (e.g. x -&#62; x - 5)
+     * @param late     the consumer of datapoints arriving after the watermark
+     * @return a series sorted by point
+     */
+    public static final <P extends Comparable<P>, T> IterableSeries<P, T> reorder(
+            final Iterable<DataPoint<P, T>> series, final UnaryOperator<P> lateness,
+            final Consumer<DataPoint<P, T>> late) {
+        return () -> new Reorder<>(series.iterator(), lateness, late);
+    }
+
+    /**
+     * sort a serie which does not fit in memory by spilling sorted runs to
+     * temporary files and merging them back while iterating.
+     * 
+     * Datapoints sharing the same point are resolved in arrival order with the
+     * given function. The run files are deleted once merged, when the sort fails
+     * or when the iterator or the stream is closed, an iteration abandoned before
+     * its end should be closed.
+     * 
+     * @param <P>       the point type
+     * @param <T>       the data type
+     * @param series    the unsorted serie
+     * @param point     the point codec used to spill runs
+     * @param data      the data codec used to spill runs
+     * @param budget    the maximum number of datapoints kept in memory per run
+     * @param resolve   the function resolving datapoints of the same point
+     * @param directory the directory of the temporary run files
+     * @return a series sorted by point
+     */
+    public static final <P extends Comparable<P>, T> CloseableSeries<P, T> sort(
+            final Iterable<DataPoint<P, T>> series, final Codec<P> point, final Codec<T> data,
+            final Integer budget, final BinaryOperator<T> resolve, final Path directory) {
+        return () -> new ExternalSort<>(series.iterator(), point, data, budget, resolve, directory);
+    }
+
+    /**
+     * sort a serie which does not fit in memory by spilling sorted runs to the
+     * default temporary directory.
+     * 
+     * @param <P>     the point type
+     * @param <T>     the data type
+     * @param series  the unsorted serie
+     * @param point   the point codec used to spill runs
+     * @param data    the data codec used to spill runs
+     * @param budget  the maximum number of datapoints kept in memory per run
+     * @param resolve the function resolving datapoints of the same point
+     * @return a series sorted by point
+     */
+    public static final <P extends Comparable<P>, T> CloseableSeries<P, T> sort(
+            final Iterable<DataPoint<P, T>> series, final Codec<P> point, final Codec<T> data,
+            final Integer budget, final BinaryOperator<T> resolve) {
+        return sort(series, point, data, budget, resolve, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * sort a serie which does not fit in memory comparing the keys of the points
+     * instead of the points, the runs store each point as its 8 bytes key.
+     * 
+     * @param <P>       the point type
+     * @param <T>       the data type
+     * @param series    the unsorted serie
+     * @param key       the order preserving key codec of the points
+     * @param data      the data codec used to spill runs
+     * @param budget    the maximum number of datapoints kept in memory per run
+     * @param resolve   the function resolving datapoints of the same point
+     * @param directory the directory of the temporary run files
+     * @return a series sorted by point
+     */
+    public static final <P, T> CloseableSeries<P, T> sort(final Iterable<DataPoint<P, T>> series,
+            final KeyCodec<P> key, final Codec<T> data, final Integer budget, final BinaryOperator<T> resolve,
+            final Path directory) {
+        return () -> ExternalSort.keyed(series.iterator(), key, data, budget, resolve, directory);
+    }
+
+    /**
+     * materialize a sorted serie into an immutable series optimized for point
+     * lookups
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the sorted serie
+     * @return an indexed series
+     */
+    public static final <P extends Comparable<P>, T> IndexedSeries<P, T> index(
+            final Iterable<DataPoint<P, T>> series) {
+        return IndexedSeries.of(series);
+    }
+
+    /**
+     * join each event with the data of the serie in effect at the event point.
+     * 
+     * Only one datapoint is emitted per event. The serie is advanced lazily, and
+     * an indexed serie is searched from the previous position instead of being
+     * scanned.
+     * 
+     * @param <P>    the point type
+     * @param <E>    the event type
+     * @param <T>    the data type of the serie
+     * @param <R>    the return of the applied function
+     * @param events the events sorted by point
+     * @param series the serie to look up
+     * @param f      the function combining an event with the data in effect
+     * @return a series with one datapoint per event
+     */
+    public static final <P extends Comparable<P>, E, T, R> IterableSeries<P, R> asOf(
+            final Iterable<DataPoint<P, E>> events, final Iterable<DataPoint<P, T>> series,
+            final BiFunction<E, Optional<T>, R> f) {
+        return () -> new AsOf<>(events.iterator(), AsOf.Lookup.of(series), f);
+    }
+
+    /**
+     * a view of the serie restricted to the points from (inclusive) to
+     * (exclusive).
+     * 
+     * The datapoint in effect at from is clamped to from, indexed series are
+     * searched instead of scanned to find it and the iteration stops at to. The
+     * range is pushed down through union and merge to their inputs.
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the serie
+     * @param from   the first point of the window (inclusive)
+     * @param to     the last point of the window (exclusive)
+     * @return a windowed series
+     */
+    public static final <P extends Comparable<P>, T> IterableSeries<P, T> window(
+            final Iterable<DataPoint<P, T>> series, final P from, final P to) {
+        return Window.Range.of(from, Union.Value.fixed(to)).apply(series);
+    }
+
+    /**
+     * a coordinator distributing unions over worker processes by ranges of the
+     * point domain, see {@link Worker} to start the workers
+     *
+     * @param <P>     the point type
+     * @param <L>     the left type
+     * @param <R>     the right type
+     * @param <T>     the resolved type
+     * @param workers the worker addresses
+     * @param job     the job class giving the codecs and the resolver, loaded by
+     *                name on the workers
+     * @return a cluster
+     */
+    public static final <P extends Comparable<P>, L, R, T> Cluster<P, L, R, T> cluster(
+            final List<InetSocketAddress> workers, final Class<? extends Cluster.Job<P, L, R, T>> job) {
+        return Cluster.of(workers, job);
+    }
+
+    /**
+     * start a declarative query over the serie. The query plan is optimized
+     * before running (window pushdown, map fusion, size ordered combines) and can
+     * be inspected with explain.
+     *
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the source serie
+     * @return a query
+     */
+    public static final <P extends Comparable<P>, T> Query<P, T> query(final Iterable<DataPoint<P, T>> series) {
+        return new Query<>(Plan.of(series));
+    }
+
+    /**
+     * sketch the quantiles of the data in a single pass and bounded memory, each
+     * datapoint has the same weight
+     *
+     * @param <P>         the point type
+     * @param series      the serie
+     * @param compression the accuracy of the sketch (e.g. 100), the number of
+     *                    centroids grows with it
+     * @return a mergeable quantile sketch
+     */
+    public static final <P> QuantileSketch quantiles(final Iterable<DataPoint<P, Double>> series,
+            final Double compression) {
+        final var sketch = new QuantileSketch(compression);
+        for (final var datapoint : series) {
+            sketch.add(datapoint.data());
+        }
+        return sketch;
+    }
+
+    /**
+     * sketch the quantiles of the data in a single pass and bounded memory, each
+     * datapoint is weighted by the duration of its step until the next datapoint.
+     * The last datapoint has no end and is not counted.
+     *
+     * @param <P>         the point type
+     * @param series      the serie with increasing points
+     * @param position    the numeric position of a point (e.g. epoch millis)
+     * @param compression the accuracy of the sketch (e.g. 100), the number of
+     *                    centroids grows with it
+     * @return a mergeable quantile sketch
+     */
+    public static final <P> QuantileSketch quantiles(final Iterable<DataPoint<P, Double>> series,
+            final ToDoubleFunction<P> position, final Double compression) {
+        final var sketch = new QuantileSketch(compression);
+        Optional<DataPoint<P, Double>> previous = Optional.empty();
+        for (final var datapoint : series) {
+            if (previous.isPresent())
+                sketch.add(previous.get().data(),
+                        position.applyAsDouble(datapoint.point()) - position.applyAsDouble(previous.get().point()));
+            previous = Optional.of(datapoint);
+        }
+        return sketch;
+    }
+
+    /**
+     * sketch the number of distinct data in a single pass and bounded memory.
+     * Strings, numbers, characters and booleans are hashed from their content,
+     * other data from their hashCode and should rather be sketched with a 64 bit
+     * hash function.
+     *
+     * @param <P>       the point type
+     * @param <T>       the data type
+     * @param series    the serie
+     * @param precision the number of bits selecting a register between 4 and 18
+     *                  (e.g. 14 for a 16KB sketch with a 0.8% standard error)
+     * @return a mergeable distinct sketch
+     */
+    public static final <P, T> DistinctSketch distinct(final Iterable<DataPoint<P, T>> series,
+            final Integer precision) {
+        final var sketch = new DistinctSketch(precision);
+        for (final var datapoint : series) {
+            sketch.add(datapoint.data());
+        }
+        return sketch;
+    }
+
+    /**
+     * sketch the number of distinct data in a single pass and bounded memory,
+     * hashing the data with the given 64 bit hash function. Sketches to merge
+     * should use the same function.
+     *
+     * @param <P>       the point type
+     * @param <T>       the data type
+     * @param series    the serie
+     * @param hash      the 64 bit hash function of the data
+     * @param precision the number of bits selecting a register between 4 and 18
+     * @return a mergeable distinct sketch
+     */
+    public static final <P, T> DistinctSketch distinct(final Iterable<DataPoint<P, T>> series,
+            final ToLongFunction<T> hash, final Integer precision) {
+        final var sketch = new DistinctSketch(precision);
+        for (final var datapoint : series) {
+            sketch.add(datapoint.data(), hash);
+        }
+        return sketch;
+    }
+
+    /**
+     * downsample a window of the serie to the minimum and the maximum of each
+     * pixel in a single pass, the result has at most 2 datapoints per pixel.
+     * Indexed and windowable series seek to the window instead of scanning.
+     *
+     * @param <P>      the point type
+     * @param series   the serie to downsample
+     * @param position the numeric position of a point (e.g. epoch millis)
+     * @param from     the first point of the window (inclusive)
+     * @param to       the last point of the window (exclusive)
+     * @param pixels   the number of pixels of the window
+     * @return a downsampled series
+     */
+    public static final <P extends Comparable<P>> IterableSeries<P, Double> minMax(
+            final Iterable<DataPoint<P, Double>> series, final ToDoubleFunction<P> position, final P from, final P to,
+            final Integer pixels) {
+        final var buckets = Downsample.Buckets.of(position, from, to, pixels);
+        final var window = window(series, from, to);
+        return () -> new Downsample.MinMax<>(window.iterator(), buckets);
+    }
+
+    /**
+     * downsample a window of the serie with the largest triangle three buckets
+     * algorithm in a single pass and bounded memory, the first and the last
+     * datapoints are kept. Indexed and windowable series seek to the window
+     * instead of scanning.
+     *
+     * @param <P>      the point type
+     * @param series   the serie to downsample
+     * @param position the numeric position of a point (e.g. epoch millis)
+     * @param from     the first point of the window (inclusive)
+     * @param to       the last point of the window (exclusive)
+     * @param points   the maximum number of datapoints, at least 3
+     * @return a downsampled series
+     */
+    public static final <P extends Comparable<P>> IterableSeries<P, Double> lttb(
+            final Iterable<DataPoint<P, Double>> series, final ToDoubleFunction<P> position, final P from, final P to,
+            final Integer points) {
+        if (points < 3)
+            throw new IllegalArgumentException("points should be at least 3 but was " + points);
+        final var buckets = Downsample.Buckets.of(position, from, to, points - 2);
+        final var window = window(series, from, to);
+        return () -> new Downsample.Lttb<>(window.iterator(), buckets);
+    }
+
+    /**
+     * split a sorted serie into immutable segments, a new segment starts when the
+     * bucket of the point changes. A window of the store only reads the segments
+     * overlapping the window.
+     *
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the sorted serie
+     * @param bucket the function returning the bucket of a point (e.g. its month)
+     * @return a segment store
+     */
+    public static final <P extends Comparable<P>, T> SegmentStore<P, T> segment(
+            final Iterable<DataPoint<P, T>> series, final Function<P, ?> bucket) {
+        return SegmentStore.of(series, bucket);
+    }
+
+    /**
+     * merge an indexed serie in parallel on the given pool. The result is the
+     * same as the sequential merge.
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the indexed serie to merge
+     * @param pool   the pool running the chunks
+     * @return a merged indexed series
+     */
+    public static final <P extends Comparable<P>, T> IndexedSeries<P, T> parallelMerge(
+            final IndexedSeries<P, T> series, final ForkJoinPool pool) {
+        return ParallelMerge.merge(series, pool);
+    }
+
+    /**
+     * merge an indexed serie in parallel on the common pool. The result is the
+     * same as the sequential merge.
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the indexed serie to merge
+     * @return a merged indexed series
+     */
+    public static final <P extends Comparable<P>, T> IndexedSeries<P, T> parallelMerge(
+            final IndexedSeries<P, T> series) {
+        return parallelMerge(series, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * read a serie ahead on a background thread, a virtual thread on java 21+,
+     * so that a slow source is read while the consumer works.
+     *
+     * An iteration abandoned before the end should close its iterator or its
+     * stream to stop reading ahead, otherwise the reading stops once the
+     * iterator is garbage collected.
+     *
+     * @param <P>      the point type
+     * @param <T>      the data type
+     * @param series   the serie to read ahead
+     * @param capacity the maximum number of batches read ahead
+     * @return a prefetched series
+     */
+    public static final <P, T> CloseableSeries<P, T> prefetch(final Iterable<DataPoint<P, T>> series,
+            final Integer capacity) {
+        return () -> new Prefetch<>(series.iterator(), capacity);
+    }
+
+    /**
+     * union 2 series reading both of them ahead concurrently, closing the
+     * iterator stops reading both of them, see prefetch
+     *
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the return of the applied function to union result
+     * @param left     the left serie
+     * @param right    the right serie
+     * @param f        the function applied to convert union result to T type
+     * @param capacity the maximum number of batches read ahead per serie
+     * @return a series of T
+     */
+    public static final <P extends Comparable<P>, L, R, T> CloseableSeries<P, T> parallelUnion(
+            final Iterable<DataPoint<P, L>> left, final Iterable<DataPoint<P, R>> right,
+            final Function<UnionResult<L, R>, T> f, final Integer capacity) {
+        final var resolver = UnionResolver.of(f);
+        return () -> {
+            final var leftPrefetch = new Prefetch<>(left.iterator(), capacity);
+            try {
+                final var rightPrefetch = new Prefetch<>(right.iterator(), capacity);
+                return Closing.of(new Union<>(leftPrefetch, rightPrefetch, resolver),
+                        List.of(leftPrefetch, rightPrefetch));
+            } catch (final RuntimeException e) {
+                leftPrefetch.close();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * materialize a sorted serie of long points and double data off heap, in
+     * direct buffers on java 17 and in memory segments on java 22+
+     *
+     * @param series the sorted serie
+     * @return an off heap series to close once done
+     */
+    public static final OffHeapSeries offHeap(final Iterable<DataPoint<Long, Double>> series) {
+        return OffHeapSeries.of(series);
+    }
+
+    /**
+     * materialize a sorted serie of double data off heap with the keys of the
+     * points, look up a point with the key of the point
+     *
+     * @param <P>    the point type
+     * @param series the sorted serie
+     * @param key    the order preserving key codec of the points
+     * @return an off heap series of keys to close once done
+     */
+    public static final <P> OffHeapSeries offHeap(final Iterable<DataPoint<P, Double>> series,
+            final KeyCodec<P> key) {
+        return offHeap(() -> StreamSupport.stream(series.spliterator(), false)
+                .map(x -> new DataPoint<>(key.encode(x.point()), x.data())).iterator());
+    }
+
+    /**
+     * materialize a sorted serie storing its data as codes of the given
+     * dictionary, which can be shared between series
+     * 
+     * @param <P>        the point type
+     * @param <T>        the data type
+     * @param series     the sorted serie
+     * @param dictionary the dictionary of the data values
+     * @return an encoded series
+     */
+    public static final <P extends Comparable<P>, T> EncodedSeries<P, T> encode(
+            final Iterable<DataPoint<P, T>> series, final Dictionary<T> dictionary) {
+        return EncodedSeries.of(series, dictionary);
+    }
+
+    /**
+     * materialize a sorted serie storing its data as codes of its own dictionary
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the sorted serie
+     * @return an encoded series
+     */
+    public static final <P extends Comparable<P>, T> EncodedSeries<P, T> encode(
+            final Iterable<DataPoint<P, T>> series) {
+        return encode(series, new Dictionary<>());
+    }
+
+    /**
+     * union 2 encoded series, the function is called once per distinct pair of
+     * left and right codes and its results are encoded with the given dictionary
+     * 
+     * @param <P>        the point type should be common for left and right series
+     * @param <L>        the left type
+     * @param <R>        the right type
+     * @param <T>        the return of the applied function to union result
+     * @param left       the left serie
+     * @param right      the right serie
+     * @param f          the function applied to convert union result to T type
+     * @param dictionary the dictionary of the union data values
+     * @return an encoded series
+     */
+    public static final <P extends Comparable<P>, L, R, T> EncodedSeries<P, T> union(
+            final EncodedSeries<P, L> left, final EncodedSeries<P, R> right,
+            final Function<UnionResult<L, R>, T> f, final Dictionary<T> dictionary) {
+        return EncodedSeries.union(left, right, f, dictionary);
+    }
+
+    /**
+     * a cursor over the serie reusing the same position instead of allocating a
+     * datapoint per step, indexed series are read directly from their columns
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the serie
+     * @return a series cursor
+     */
+    public static final <P extends Comparable<P>, T> SeriesCursor<P, T> cursor(
+            final Iterable<DataPoint<P, T>> series) {
+        return Cursors.of(series);
+    }
+
+    /**
+     * union 2 series cursors exposing the left and right data in effect at each
+     * point without allocating a union result
+     * 
+     * @param <P>   the point type should be common for left and right series
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @param left  the left cursor
+     * @param right the right cursor
+     * @return a union cursor
+     */
+    public static final <P extends Comparable<P>, L, R> UnionCursor<P, L, R> union(
+            final SeriesCursor<P, L> left, final SeriesCursor<P, R> right) {
+        return new Cursors.Union<>(left, right);
+    }
+
+    /**
+     * merge a series cursor to be more compact when contigous events have the
+     * same data
+     * 
+     * @param <P>    the point type
+     * @param <T>    the data type
+     * @param series the cursor to merge
+     * @return a merged series cursor
+     */
+    public static final <P, T> SeriesCursor<P, T> merge(final SeriesCursor<P, T> series) {
+        return new Cursors.Merge<>(series);
+    }
+
+    /**
+     * union 2 series cursors and resolve the data of each point without
+     * allocating a union result
+     * 
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param left     the left cursor
+     * @param right    the right cursor
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return a series cursor
+     */
+    public static final <P extends Comparable<P>, L, R, T> SeriesCursor<P, T> union(
+            final SeriesCursor<P, L> left, final SeriesCursor<P, R> right, final UnionResolver<L, R, T> resolver) {
+        return new Cursors.Resolved<>(union(left, right), resolver);
+    }
+
+    /**
+     * union 2 series cursors and resolve the data of each point to a double
+     * 
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param left     the left cursor
+     * @param right    the right cursor
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return a double series cursor
+     */
+    public static final <P extends Comparable<P>, L, R> SeriesCursor.OfDouble<P> union(
+            final SeriesCursor<P, L> left, final SeriesCursor<P, R> right,
+            final UnionResolver.ToDouble<L, R> resolver) {
+        return new Cursors.ResolvedDouble<>(union(left, right), resolver);
+    }
+
+    /**
+     * union 2 series cursors and resolve the data of each point to a long
+     * 
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param left     the left cursor
+     * @param right    the right cursor
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return a long series cursor
+     */
+    public static final <P extends Comparable<P>, L, R> SeriesCursor.OfLong<P> union(
+            final SeriesCursor<P, L> left, final SeriesCursor<P, R> right,
+            final UnionResolver.ToLong<L, R> resolver) {
+        return new Cursors.ResolvedLong<>(union(left, right), resolver);
     }
 }
@@ -0,0 +1,88 @@
+package io.github.cboudereau.dataseries;
+
+/**
+ * A cursor exposing the current datapoint of a series without allocating a
+ * DataPoint per position. The point and data are only valid after a call to
+ * advance returning true and until the next call to advance.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public interface SeriesCursor<P, T> {
+    /**
+     * Move to the next datapoint
+     *
+     * @return false when there is no more datapoint
+     */
+    boolean advance();
+
+    /**
+     * The point of the current position
+     *
+     * @return the current point
+     */
+    P point();
+
+    /**
+     * The data of the current position
+     *
+     * @return the current data
+     */
+    T data();
+
+    /**
+     * A cursor specialized for double data
+     *
+     * @param <P> the point type
+     */
+    public static interface OfDouble<P> {
+        /**
+         * Move to the next datapoint
+         *
+         * @return false when there is no more datapoint
+         */
+        boolean advance();
+
+        /**
+         * The point of the current position
+         *
+         * @return the current point
+         */
+        P point();
+
+        /**
+         * The data of the current position
+         *
+         * @return the current data
+         */
+        double data();
+    }
+
+    /**
+     * A cursor specialized for long data
+     *
+     * @param <P> the point type
+     */
+    public static interface OfLong<P> {
+        /**
+         * Move to the next datapoint
+         *
+         * @return false when there is no more datapoint
+         */
+        boolean advance();
+
+        /**
+         * The point of the current position
+         *
+         * @return the current point
+         */
+        P point();
+
+        /**
+         * The data of the current position
+         *
+         * @return the current data
+         */
+        long data();
+    }
+}
@@ -0,0 +1,526 @@
+package io.github.cboudereau.dataseries;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A durable log structured series.
+ *
+ * Updates are appended to a write-ahead log split in segments. Each record is
+ * framed with its length and a CRC32 checksum. Appends are committed by groups
+ * by a single flusher thread, with one fsync per group, and are applied to the
+ * series once durable.
+ *
+ * A snapshot of the merged series is written periodically to a temporary file
+ * and atomically moved in place, then the log segments it covers are deleted.
+ * Opening a log loads the snapshot and replays the remaining records, stopping
+ * at the first torn or corrupted record which is truncated.
+ *
+ * @param <P> the point type
+ * @param <T> the data type
+ */
+public final class SeriesLog<P extends Comparable<P>, T> implements Windowable<P, T>, AutoCloseable {
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final String SNAPSHOT_TMP = "snapshot.tmp";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER = Integer.BYTES + Integer.BYTES;
+    private static final boolean IS_DIRECTORY_SYNCABLE = !System.getProperty("os.name").toLowerCase(Locale.ROOT)
+            .startsWith("windows");
+
+    private static sealed interface Command<P, T> permits Command.Append, Command.Snapshot, Command.Close {
+        static final record Append<P, T>(List<DataPoint<P, T>> update, CompletableFuture<Void> done)
+                implements Command<P, T> {
+        }
+
+        static final record Snapshot<P, T>(CompletableFuture<Void> done) implements Command<P, T> {
+        }
+
+        static final record Close<P, T>() implements Command<P, T> {
+        }
+    }
+
+    private final Path directory;
+    private final Codec<P> point;
+    private final Codec<T> data;
+    private final LogStructuredSeries<P, T> series;
+    private final Integer snapshotInterval;
+    private final LinkedBlockingQueue<Command<P, T>> commands = new LinkedBlockingQueue<>();
+
+    private volatile Boolean isClosed = false;
+    private volatile Optional<IOException> failure = Optional.empty();
+
+    private long sequence;
+    private long snapshotSequence;
+    private long sinceSnapshot = 0;
+    private FileChannel segment;
+    private final List<CompletableFuture<Void>> snapshots = new ArrayList<>();
+    private final Thread flusher;
+
+    private SeriesLog(final Path directory, final Codec<P> point, final Codec<T> data,
+            final LogStructuredSeries<P, T> series, final Integer snapshotInterval) throws IOException {
+        if (snapshotInterval < 1)
+            throw new IllegalArgumentException(
+                    "snapshot interval should be greater than 0 but was " + snapshotInterval);
+
+        this.directory = directory;
+        this.point = point;
+        this.data = data;
+        this.series = series;
+        this.snapshotInterval = snapshotInterval;
+
+        Files.createDirectories(directory);
+        Files.deleteIfExists(directory.resolve(SNAPSHOT_TMP));
+        this.snapshotSequence = loadSnapshot();
+        this.sequence = replay(this.snapshotSequence) + 1;
+        this.segment = openSegment(this.sequence);
+        this.flusher = Threads.start("dataseries-wal", this::flush);
+    }
+
+    static <P extends Comparable<P>, T> SeriesLog<P, T> open(final Path directory, final Codec<P> point,
+            final Codec<T> data, final UnionResolver<T, T, T> resolver, final Integer capacity,
+            final Integer snapshotInterval) {
+        try {
+            return new SeriesLog<>(directory, point, data, LogStructuredSeries.of(resolver, capacity),
+                    snapshotInterval);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private final Path segmentPath(final long sequence) {
+        return this.directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentSequence(final Path path) {
+        final var name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private final List<Path> segments() throws IOException {
+        try (final var files = Files.list(this.directory)) {
+            return files.filter(x -> {
+                final var name = x.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted((x, y) -> Long.compare(segmentSequence(x), segmentSequence(y))).toList();
+        }
+    }
+
+    /**
+     * Open the segment, the directory is synced when the segment is created so
+     * that the segment entry survives a crash
+     */
+    private final FileChannel openSegment(final long sequence) throws IOException {
+        final var path = segmentPath(sequence);
+        final var isCreated = !Files.exists(path);
+        final var segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        if (isCreated)
+            syncDirectory();
+        return segment;
+    }
+
+    /**
+     * Fsync the directory entries. Windows cannot open a directory and persists
+     * the entries with the file, elsewhere a failure is a durability failure.
+     */
+    private final void syncDirectory() throws IOException {
+        if (!IS_DIRECTORY_SYNCABLE)
+            return;
+
+        try (final var channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private final long loadSnapshot() throws IOException {
+        final var path = this.directory.resolve(SNAPSHOT);
+        if (!Files.exists(path))
+            return 0;
+
+        final var checksum = new CRC32();
+        try (final var input = new DataInputStream(
+                new CheckedInputStream(new BufferedInputStream(Files.newInputStream(path)), checksum))) {
+            final var sequence = input.readLong();
+            final var datapoints = new ArrayList<DataPoint<P, T>>();
+            while (input.readBoolean()) {
+                datapoints.add(new DataPoint<>(this.point.read(input), this.data.read(input)));
+            }
+            final var expected = checksum.getValue();
+            if (input.readLong() != expected)
+                throw new IOException("corrupted snapshot " + path);
+
+            this.series.upsert(datapoints);
+            return sequence;
+        }
+    }
+
+    /**
+     * Replay the records after the snapshot and truncate the log at the first
+     * torn or corrupted record
+     *
+     * @return the last replayed sequence
+     */
+    private final long replay(final long snapshotSequence) throws IOException {
+        var sequence = snapshotSequence;
+        var isTorn = false;
+        for (final var path : segments()) {
+            if (isTorn) {
+                Files.delete(path);
+                continue;
+            }
+
+            try (final var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+                final var size = channel.size();
+                var valid = 0L;
+                while (valid < size) {
+                    final var record = readRecord(input, size - valid - HEADER);
+                    if (record.isEmpty()) {
+                        isTorn = true;
+                        break;
+                    }
+                    valid += HEADER + record.get().length;
+                    final var recordSequence = decode(record.get(), sequence);
+                    if (recordSequence > sequence)
+                        sequence = recordSequence;
+                }
+                if (isTorn)
+                    channel.truncate(valid);
+            }
+        }
+        return sequence;
+    }
+
+    private static Optional<byte[]> readRecord(final DataInputStream input, final long remaining)
+            throws IOException {
+        try {
+            final var length = input.readInt();
+            final var crc = input.readInt();
+            if (length < 0 || length > remaining)
+                return Optional.empty();
+
+            final var payload = new byte[length];
+            input.readFully(payload);
+            final var checksum = new CRC32();
+            checksum.update(payload);
+            return (int) checksum.getValue() == crc ? Optional.of(payload) : Optional.empty();
+        } catch (final EOFException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Apply the record when it is not covered by the snapshot
+     *
+     * @return the sequence of the record
+     */
+    private final long decode(final byte[] payload, final long after) throws IOException {
+        final var input = new DataInputStream(new ByteArrayInputStream(payload));
+        final var sequence = input.readLong();
+        if (sequence <= after)
+            return sequence;
+
+        final var count = input.readInt();
+        final var update = new ArrayList<DataPoint<P, T>>(count);
+        for (var i = 0; i < count; i++) {
+            update.add(new DataPoint<>(this.point.read(input), this.data.read(input)));
+        }
+        this.series.upsert(update);
+        return sequence;
+    }
+
+    private final void encode(final DataOutputStream output, final long sequence, final List<DataPoint<P, T>> update)
+            throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        final var payload = new DataOutputStream(bytes);
+        payload.writeLong(sequence);
+        payload.writeInt(update.size());
+        for (final var x : update) {
+            this.point.write(payload, x.point());
+            this.data.write(payload, x.data());
+        }
+        payload.flush();
+
+        final var checksum = new CRC32();
+        checksum.update(bytes.toByteArray());
+        output.writeInt(bytes.size());
+        output.writeInt((int) checksum.getValue());
+        bytes.writeTo(output);
+    }
+
+    private final Command<P, T> take() {
+        try {
+            return this.commands.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Command.Close<>();
+        }
+    }
+
+    private final void flush() {
+        var isRunning = true;
+        while (isRunning) {
+            final var commands = new ArrayList<Command<P, T>>();
+            commands.add(take());
+            this.commands.drainTo(commands);
+
+            final var appends = new ArrayList<Command.Append<P, T>>();
+            for (final var command : commands) {
+                switch (command) {
+                    case final Command.Append<P, T> append -> appends.add(append);
+                    case final Command.Snapshot<P, T> snapshot -> {
+                        commit(appends);
+                        snapshot(snapshot.done());
+                    }
+                    case final Command.Close<P, T> close -> {
+                        commit(appends);
+                        isRunning = false;
+                    }
+                }
+            }
+            commit(appends);
+        }
+
+        final var closed = new IllegalStateException("series log is closed");
+        final var pending = new ArrayList<Command<P, T>>();
+        this.commands.drainTo(pending);
+        for (final var command : pending) {
+            switch (command) {
+                case final Command.Append<P, T> append -> append.done().completeExceptionally(closed);
+                case final Command.Snapshot<P, T> snapshot -> snapshot.done().completeExceptionally(closed);
+                case final Command.Close<P, T> close -> {
+                }
+            }
+        }
+
+        try {
+            this.segment.close();
+        } catch (final IOException e) {
+            this.failure = Optional.of(e);
+        }
+    }
+
+    /**
+     * Write and fsync the pending appends at once, then apply them to the
+     * series
+     */
+    private final void commit(final List<Command.Append<P, T>> appends) {
+        if (appends.isEmpty())
+            return;
+
+        try {
+            if (this.failure.isPresent())
+                throw this.failure.get();
+
+            final var bytes = new ByteArrayOutputStream();
+            final var output = new DataOutputStream(bytes);
+            for (var i = 0; i < appends.size(); i++) {
+                encode(output, this.sequence + i, appends.get(i).update());
+            }
+            output.flush();
+
+            final var buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                this.segment.write(buffer);
+            }
+            this.segment.force(false);
+        } catch (final IOException e) {
+            this.failure = Optional.of(e);
+            appends.forEach(x -> x.done().completeExceptionally(new UncheckedIOException(e)));
+            appends.clear();
+            return;
+        }
+
+        this.sequence += appends.size();
+        this.sinceSnapshot += appends.size();
+        for (final var append : appends) {
+            try {
+                this.series.upsert(append.update());
+                append.done().complete(null);
+            } catch (final RuntimeException e) {
+                append.done().completeExceptionally(e);
+            }
+        }
+        appends.clear();
+
+        if (this.sinceSnapshot >= this.snapshotInterval)
+            snapshot(new CompletableFuture<>());
+    }
+
+    /**
+     * Start a new segment so that the snapshot covers all the previous ones and
+     * write the snapshot in the background
+     */
+    private final void snapshot(final CompletableFuture<Void> done) {
+        final var sequence = this.sequence - 1;
+        this.sinceSnapshot = 0;
+        final Iterable<DataPoint<P, T>> series;
+        try {
+            series = this.series.snapshot();
+        } catch (final RuntimeException e) {
+            done.completeExceptionally(e);
+            return;
+        }
+        try {
+            if (this.failure.isPresent())
+                throw this.failure.get();
+
+            this.segment.close();
+            this.segment = openSegment(this.sequence);
+        } catch (final IOException e) {
+            this.failure = Optional.of(e);
+            done.completeExceptionally(new UncheckedIOException(e));
+            return;
+        }
+
+        this.snapshots.removeIf(CompletableFuture::isDone);
+        this.snapshots.add(done);
+        Threads.start("dataseries-snapshot", () -> {
+            try {
+                writeSnapshot(sequence, series);
+                done.complete(null);
+            } catch (final IOException e) {
+                done.completeExceptionally(new UncheckedIOException(e));
+            } catch (final RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+    }
+
+    private final synchronized void writeSnapshot(final long sequence, final Iterable<DataPoint<P, T>> series)
+            throws IOException {
+        if (sequence <= this.snapshotSequence)
+            return;
+
+        final var tmp = this.directory.resolve(SNAPSHOT_TMP);
+        final var checksum = new CRC32();
+        try (final var channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var output = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), checksum)));
+            output.writeLong(sequence);
+            for (final var x : Series.merge(series)) {
+                output.writeBoolean(true);
+                this.point.write(output, x.point());
+                this.data.write(output, x.data());
+            }
+            output.writeBoolean(false);
+            output.flush();
+            output.writeLong(checksum.getValue());
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, this.directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        this.snapshotSequence = sequence;
+
+        for (final var path : segments()) {
+            if (segmentSequence(path) <= sequence)
+                Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Append the update to the log, the update is applied to the series once
+     * durable
+     *
+     * @param update the sorted datapoints of the update
+     * @return a future completed once the update is durable and visible
+     */
+    public final CompletableFuture<Void> append(final Iterable<DataPoint<P, T>> update) {
+        final var datapoints = new ArrayList<DataPoint<P, T>>();
+        update.forEach(datapoints::add);
+        final var done = new CompletableFuture<Void>();
+        enqueue(new Command.Append<>(List.copyOf(datapoints), done));
+        return done;
+    }
+
+    /**
+     * Check and enqueue under the same lock as close so that no command is
+     * enqueued after the close command
+     */
+    private final void enqueue(final Command<P, T> command) {
+        synchronized (this.commands) {
+            if (this.isClosed)
+                throw new IllegalStateException("series log is closed");
+            this.commands.add(command);
+        }
+    }
+
+    /**
+     * Append the update and wait until it is durable
+     *
+     * @param update the sorted datapoints of the update
+     */
+    public final void upsert(final Iterable<DataPoint<P, T>> update) {
+        append(update).join();
+    }
+
+    /**
+     * Write a snapshot of the series covering all the appends done before
+     *
+     * @return a future completed once the snapshot is written
+     */
+    public final CompletableFuture<Void> snapshot() {
+        final var done = new CompletableFuture<Void>();
+        enqueue(new Command.Snapshot<>(done));
+        return done;
+    }
+
+    /**
+     * Commit the pending appends and close the log
+     */
+    @Override
+    public final void close() {
+        synchronized (this.commands) {
+            if (this.isClosed)
+                return;
+            this.isClosed = true;
+            this.commands.add(new Command.Close<>());
+        }
+        try {
+            this.flusher.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CompletableFuture.allOf(this.snapshots.toArray(CompletableFuture[]::new)).handle((x, e) -> x).join();
+        if (this.failure.isPresent())
+            throw new UncheckedIOException(this.failure.get());
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return this.series.iterator();
+    }
+
+    @Override
+    public final IterableSeries<P, T> window(final Window.Range<P> range) {
+        return this.series.window(range);
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Swinging door trending: keeps the datapoints so that the linear
+ * interpolation between kept datapoints is within the tolerance of every
+ * dropped datapoint.
+ *
+ * Two doors pivot around the last kept datapoint shifted by the tolerance and
+ * open with each dropped datapoint. A new datapoint extends the current segment
+ * while its slope from the pivot stays between the doors, otherwise the
+ * previous datapoint is kept and becomes the new pivot. The first and the last
+ * datapoints are always kept.
+ */
+final class SwingingDoor<P> implements Iterator<DataPoint<P, Double>> {
+    private final Iterator<DataPoint<P, Double>> series;
+    private final ToDoubleFunction<P> position;
+    private final double tolerance;
+
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+    private Optional<DataPoint<P, Double>> entry = Optional.empty();
+
+    private Optional<DataPoint<P, Double>> pivot = Optional.empty();
+    private Optional<DataPoint<P, Double>> previous = Optional.empty();
+    private double upper;
+    private double lower;
+
+    SwingingDoor(final Iterator<DataPoint<P, Double>> series, final ToDoubleFunction<P> position,
+            final Double tolerance) {
+        if (!(tolerance >= 0))
+            throw new IllegalArgumentException("tolerance should be positive but was " + tolerance);
+
+        this.series = series;
+        this.position = position;
+        this.tolerance = tolerance;
+    }
+
+    private final double dx(final DataPoint<P, Double> next) {
+        final var pivot = this.pivot.get();
+        final var dx = this.position.applyAsDouble(next.point()) - this.position.applyAsDouble(pivot.point());
+        if (!(dx > 0))
+            throw new IllegalArgumentException(
+                    "points should be strictly increasing but " + next.point() + " comes after " + pivot.point());
+        return dx;
+    }
+
+    private final void open(final DataPoint<P, Double> dropped) {
+        final var dx = dx(dropped);
+        final var dy = dropped.data() - this.pivot.get().data();
+        this.upper = Math.max(this.upper, (dy - this.tolerance) / dx);
+        this.lower = Math.min(this.lower, (dy + this.tolerance) / dx);
+    }
+
+    private final Boolean fits(final DataPoint<P, Double> next) {
+        final var slope = (next.data() - this.pivot.get().data()) / dx(next);
+        return this.upper <= slope && slope <= this.lower;
+    }
+
+    private final void keep(final DataPoint<P, Double> pivot) {
+        this.entry = Optional.of(pivot);
+        this.pivot = Optional.of(pivot);
+        this.upper = Double.NEGATIVE_INFINITY;
+        this.lower = Double.POSITIVE_INFINITY;
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+        while (this.series.hasNext()) {
+            final var next = this.series.next();
+            if (this.pivot.isEmpty()) {
+                keep(next);
+                return;
+            }
+
+            final var previous = this.previous;
+            this.previous = Optional.of(next);
+            if (previous.isEmpty()) {
+                dx(next);
+                continue;
+            }
+
+            open(previous.get());
+            if (!fits(next)) {
+                keep(previous.get());
+                dx(next);
+                return;
+            }
+        }
+
+        if (this.previous.isPresent()) {
+            this.entry = this.previous;
+            this.previous = Optional.empty();
+            return;
+        }
+
+        this.hasNext = false;
+        this.entry = Optional.empty();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, Double> next() {
+        pull();
+        if (!this.hasNext)
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,268 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Read a series once and feed several branches.
+ *
+ * The datapoints read from the source are kept in a ring buffer until the
+ * slowest branch has read them, so the buffer only holds the gap between the
+ * fastest and the slowest branch. A branch reaching the end of the buffer reads
+ * the next datapoint of the source for every branch. When the gap reaches the
+ * capacity, the fastest branch waits for the slowest one when the branches are
+ * read by different threads, or fails when they are driven in a single loop.
+ * The source is read outside the lock of the buffer so that the other branches
+ * keep reading the buffered datapoints meanwhile.
+ *
+ * A finished or closed branch no longer holds the buffer, a branch which is
+ * never iterated holds it from the start. A failing branch is closed and a
+ * failure of the source fails every branch instead of leaving them waiting.
+ */
+final class Tee<P, T> {
+    private static final long DONE = Long.MAX_VALUE;
+
+    private final Iterator<DataPoint<P, T>> source;
+    private final Object[] buffer;
+    private final long[] positions;
+    private final Boolean isBlocking;
+
+    private final boolean[] isOpened;
+    private long head = 0;
+    private Boolean isDone = false;
+    private Boolean isFetching = false;
+    private Optional<Throwable> failure = Optional.empty();
+
+    private Tee(final Iterator<DataPoint<P, T>> source, final Integer branches, final Integer capacity,
+            final Boolean isBlocking) {
+        if (branches < 1)
+            throw new IllegalArgumentException("branches should be greater than 0 but was " + branches);
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity should be greater than 0 but was " + capacity);
+
+        this.source = source;
+        this.buffer = new Object[capacity];
+        this.positions = new long[branches];
+        this.isOpened = new boolean[branches];
+        this.isBlocking = isBlocking;
+    }
+
+    static <P, T> List<CloseableSeries<P, T>> of(final Iterable<DataPoint<P, T>> series, final Integer branches,
+            final Integer capacity) {
+        return new Tee<>(series.iterator(), branches, capacity, true).branches();
+    }
+
+    /**
+     * Drive the consumers of the branches in a single loop, always pulling the
+     * consumer whose branch is the most behind
+     */
+    static <P, T, R> void drive(final Iterable<DataPoint<P, T>> series, final Integer capacity,
+            final List<Function<IterableSeries<P, T>, ? extends Iterable<DataPoint<P, R>>>> consumers,
+            final BiConsumer<Integer, DataPoint<P, R>> sink) {
+        final var tee = new Tee<>(series.iterator(), consumers.size(), capacity, false);
+        final var branches = tee.branches();
+        try {
+            final var outputs = new ArrayList<Iterator<DataPoint<P, R>>>();
+            for (var i = 0; i < consumers.size(); i++) {
+                outputs.add(consumers.get(i).apply(branches.get(i)).iterator());
+            }
+
+            final var isActive = new boolean[outputs.size()];
+            Arrays.fill(isActive, true);
+            var active = outputs.size();
+            while (active > 0) {
+                var slowest = -1;
+                for (var i = 0; i < outputs.size(); i++) {
+                    if (isActive[i] && (slowest < 0 || tee.position(i) < tee.position(slowest)))
+                        slowest = i;
+                }
+
+                final var output = outputs.get(slowest);
+                if (output.hasNext()) {
+                    sink.accept(slowest, output.next());
+                } else {
+                    isActive[slowest] = false;
+                    tee.close(slowest);
+                    active--;
+                }
+            }
+        } finally {
+            for (var i = 0; i < consumers.size(); i++) {
+                tee.close(i);
+            }
+        }
+    }
+
+    private final List<CloseableSeries<P, T>> branches() {
+        final var branches = new ArrayList<CloseableSeries<P, T>>();
+        for (var i = 0; i < this.positions.length; i++) {
+            final var branch = i;
+            branches.add(() -> iterator(branch));
+        }
+        return List.copyOf(branches);
+    }
+
+    private final synchronized long position(final int branch) {
+        return this.positions[branch];
+    }
+
+    private final synchronized void close(final int branch) {
+        this.positions[branch] = DONE;
+        notifyAll();
+    }
+
+    private final long slowest() {
+        var slowest = DONE;
+        for (final var position : this.positions) {
+            slowest = Math.min(slowest, position);
+        }
+        return slowest;
+    }
+
+    private final void await(final int branch) {
+        try {
+            wait();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("branch " + branch + " was interrupted", e);
+        }
+    }
+
+    /**
+     * Wait until the branch has a buffered datapoint or the source is done,
+     * returns true when the branch should fetch the next datapoint of the source
+     */
+    private final synchronized Boolean claim(final int branch) {
+        while (this.positions[branch] == this.head) {
+            if (this.failure.isPresent())
+                throw new IllegalStateException("the source of branch " + branch + " failed", this.failure.get());
+            if (this.isDone)
+                return false;
+
+            if (this.head - slowest() >= this.buffer.length) {
+                if (!this.isBlocking)
+                    throw new IllegalStateException("branch " + branch + " is " + this.buffer.length
+                            + " datapoints ahead of the slowest branch, the capacity should be greater");
+                await(branch);
+                continue;
+            }
+
+            if (this.isFetching) {
+                await(branch);
+                continue;
+            }
+
+            this.isFetching = true;
+            return true;
+        }
+        return false;
+    }
+
+    private final synchronized void publish(final Optional<DataPoint<P, T>> next, final Optional<Throwable> failure) {
+        if (next.isPresent()) {
+            this.buffer[(int) (this.head % this.buffer.length)] = next.get();
+            this.head++;
+        } else {
+            this.isDone = true;
+            this.failure = failure;
+        }
+        this.isFetching = false;
+        notifyAll();
+    }
+
+    /**
+     * Read the next datapoint of the source without holding the lock
+     */
+    private final void fetch() {
+        final Optional<DataPoint<P, T>> next;
+        try {
+            next = this.source.hasNext() ? Optional.of(this.source.next()) : Optional.empty();
+        } catch (final RuntimeException | Error e) {
+            publish(Optional.empty(), Optional.of(e));
+            throw e;
+        }
+        publish(next, Optional.empty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private final synchronized DataPoint<P, T> take(final int branch) {
+        if (this.positions[branch] == this.head)
+            return null;
+
+        final var position = this.positions[branch]++;
+        notifyAll();
+        return (DataPoint<P, T>) this.buffer[(int) (position % this.buffer.length)];
+    }
+
+    /**
+     * The next datapoint of the branch or null at the end of the source
+     */
+    private final DataPoint<P, T> read(final int branch) {
+        while (claim(branch)) {
+            fetch();
+        }
+        return take(branch);
+    }
+
+    private final synchronized void open(final int branch) {
+        if (this.isOpened[branch])
+            throw new IllegalStateException("branch " + branch + " can only be iterated once");
+        this.isOpened[branch] = true;
+    }
+
+    private final CloseableIterator<DataPoint<P, T>> iterator(final int branch) {
+        open(branch);
+        return new CloseableIterator<DataPoint<P, T>>() {
+            private Boolean isPulled = false;
+            private DataPoint<P, T> entry;
+
+            private final void pull() {
+                if (this.isPulled)
+                    return;
+
+                this.isPulled = true;
+                try {
+                    this.entry = read(branch);
+                } catch (final RuntimeException e) {
+                    close();
+                    throw e;
+                }
+                if (this.entry == null)
+                    close();
+            }
+
+            @Override
+            public final boolean hasNext() {
+                pull();
+                return this.entry != null;
+            }
+
+            @Override
+            public final DataPoint<P, T> next() {
+                pull();
+                if (this.entry == null)
+                    throw new NoSuchElementException();
+
+                this.isPulled = false;
+                return this.entry;
+            }
+
+            /**
+             * Release the buffer so that the other branches no longer wait for
+             * this branch
+             */
+            @Override
+            public final void close() {
+                this.isPulled = true;
+                this.entry = null;
+                Tee.this.close(branch);
+            }
+        };
+    }
+}
@@ -200,17 +200,17 @@ final class Union<P extends Comparable<P>, L, R, T> implements Iterator<DataPoin
 
     private final CursorIterator<DataPoint<P, R>> right;
     private final CursorIterator<DataPoint<P, L>> left;
-    private final Function<UnionResult<L, R>, T> f;
+    private final UnionResolver<L, R, T> resolver;
 
     private Boolean isPulled = false;
     private Boolean hasNext = true;
     private UnionState<DataPoint<P, L>, DataPoint<P, R>> state = UnionState.none();
 
     public Union(final Iterator<DataPoint<P, L>> left, final Iterator<DataPoint<P, R>> right,
-            final Function<UnionResult<L, R>, T> f) {
+            final UnionResolver<L, R, T> resolver) {
         this.left = new CursorIterator<>(left);
         this.right = new CursorIterator<>(right);
-        this.f = f;
+        this.resolver = resolver.fork();
     }
 
     private final static <P extends Comparable<P>, L, R> UnionState<DataPoint<P, L>, DataPoint<P, R>> getUnionState(
@@ -324,25 +324,25 @@ final class Union<P extends Comparable<P>, L, R, T> implements Iterator<DataPoin
         final var left = overlapped.left().fst();
         final var right = overlapped.right().fst();
         final var point = (left.point().compareTo(right.point()) > 0) ? left.point() : right.point();
-        return Series.datapoint(point, f.apply(UnionResult.both(left.data(), right.data())));
+        return Series.datapoint(point, this.resolver.both(left.data(), right.data()));
     }
 
     private DataPoint<P, T> getDisjointed(UnionState.Disjointed<DataPoint<P, L>, DataPoint<P, R>> disjointed) {
         final var left = disjointed.left().fst();
         final var right = disjointed.right().fst();
         if (left.point().compareTo(right.point()) < 0) {
-            return Series.datapoint(left.point(), this.f.apply(UnionResult.leftOnly(left.data())));
+            return Series.datapoint(left.point(), this.resolver.leftOnly(left.data()));
         }
-        return Series.datapoint(right.point(), this.f.apply(UnionResult.rightOnly(right.data())));
+        return Series.datapoint(right.point(), this.resolver.rightOnly(right.data()));
     }
 
     private DataPoint<P, T> getRight(UnionState.RightOnly<DataPoint<P, L>, DataPoint<P, R>> rightOnly) {
         final var right = rightOnly.right.fst();
-        return Series.datapoint(right.point(), this.f.apply(UnionResult.rightOnly(right.data())));
+        return Series.datapoint(right.point(), this.resolver.rightOnly(right.data()));
     }
 
     private DataPoint<P, T> getLeft(UnionState.LeftOnly<DataPoint<P, L>, DataPoint<P, R>> leftOnly) {
         final var left = leftOnly.left().fst();
-        return Series.datapoint(left.point(), this.f.apply(UnionResult.leftOnly(left.data())));
+        return Series.datapoint(left.point(), this.resolver.leftOnly(left.data()));
     }
 }
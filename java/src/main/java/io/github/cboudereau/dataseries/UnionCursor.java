@@ -0,0 +1,57 @@
+package io.github.cboudereau.dataseries;
+
+/**
+ * A cursor over the union of 2 series exposing the left and right data in
+ * effect at the current point without allocating a UnionResult per position.
+ * The values are only valid after a call to advance returning true and until
+ * the next call to advance.
+ *
+ * @param <P> the point type
+ * @param <L> the left type
+ * @param <R> the right type
+ */
+public interface UnionCursor<P, L, R> {
+    /**
+     * Move to the next point of the union
+     *
+     * @return false when there is no more point
+     */
+    boolean advance();
+
+    /**
+     * The point of the current position
+     *
+     * @return the current point
+     */
+    P point();
+
+    /**
+     * Whether the left serie has data at the current point
+     *
+     * @return true when the left data is present
+     */
+    boolean hasLeft();
+
+    /**
+     * Whether the right serie has data at the current point
+     *
+     * @return true when the right data is present
+     */
+    boolean hasRight();
+
+    /**
+     * The left data in effect at the current point, only valid when hasLeft is
+     * true
+     *
+     * @return the left data
+     */
+    L left();
+
+    /**
+     * The right data in effect at the current point, only valid when hasRight is
+     * true
+     *
+     * @return the right data
+     */
+    R right();
+}
@@ -0,0 +1,141 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.function.Function;
+
+/**
+ * Resolve the data of a union point without allocating a UnionResult
+ *
+ * @param <L> the left type
+ * @param <R> the right type
+ * @param <T> the resolved type
+ */
+public interface UnionResolver<L, R, T> {
+    /**
+     * Resolve a point where only the left data is present
+     *
+     * @param left the left data
+     * @return the resolved data
+     */
+    T leftOnly(L left);
+
+    /**
+     * Resolve a point where only the right data is present
+     *
+     * @param right the right data
+     * @return the resolved data
+     */
+    T rightOnly(R right);
+
+    /**
+     * Resolve a point where both left and right data are present
+     *
+     * @param left  the left data
+     * @param right the right data
+     * @return the resolved data
+     */
+    T both(L left, R right);
+
+    /**
+     * The resolver of a single union iteration, a resolver keeping state
+     * between calls returns a copy so that iterations never share it
+     *
+     * @return this resolver when it is stateless
+     */
+    default UnionResolver<L, R, T> fork() {
+        return this;
+    }
+
+    /**
+     * Adapt a function of the union result to a resolver
+     *
+     * @param <L> the left type
+     * @param <R> the right type
+     * @param <T> the resolved type
+     * @param f   the function applied to the union result
+     * @return a resolver allocating a union result for each call
+     */
+    public static <L, R, T> UnionResolver<L, R, T> of(final Function<UnionResult<L, R>, T> f) {
+        return new UnionResolver<L, R, T>() {
+            @Override
+            public T leftOnly(final L left) {
+                return f.apply(UnionResult.leftOnly(left));
+            }
+
+            @Override
+            public T rightOnly(final R right) {
+                return f.apply(UnionResult.rightOnly(right));
+            }
+
+            @Override
+            public T both(final L left, final R right) {
+                return f.apply(UnionResult.both(left, right));
+            }
+        };
+    }
+
+    /**
+     * A resolver specialized for double results
+     *
+     * @param <L> the left type
+     * @param <R> the right type
+     */
+    public static interface ToDouble<L, R> {
+        /**
+         * Resolve a point where only the left data is present
+         *
+         * @param left the left data
+         * @return the resolved data
+         */
+        double leftOnly(L left);
+
+        /**
+         * Resolve a point where only the right data is present
+         *
+         * @param right the right data
+         * @return the resolved data
+         */
+        double rightOnly(R right);
+
+        /**
+         * Resolve a point where both left and right data are present
+         *
+         * @param left  the left data
+         * @param right the right data
+         * @return the resolved data
+         */
+        double both(L left, R right);
+    }
+
+    /**
+     * A resolver specialized for long results
+     *
+     * @param <L> the left type
+     * @param <R> the right type
+     */
+    public static interface ToLong<L, R> {
+        /**
+         * Resolve a point where only the left data is present
+         *
+         * @param left the left data
+         * @return the resolved data
+         */
+        long leftOnly(L left);
+
+        /**
+         * Resolve a point where only the right data is present
+         *
+         * @param right the right data
+         * @return the resolved data
+         */
+        long rightOnly(R right);
+
+        /**
+         * Resolve a point where both left and right data are present
+         *
+         * @param left  the left data
+         * @param right the right data
+         * @return the resolved data
+         */
+        long both(L left, R right);
+    }
+}
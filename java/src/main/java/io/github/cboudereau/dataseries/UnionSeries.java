@@ -0,0 +1,24 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+
+record UnionSeries<P extends Comparable<P>, L, R, T>(Iterable<DataPoint<P, L>> left,
+        Iterable<DataPoint<P, R>> right, UnionResolver<L, R, T> resolver)
+        implements Windowable<P, T>, Reversible<P, T> {
+
+    @Override
+    public final Iterator<DataPoint<P, T>> iterator() {
+        return new Union<>(this.left.iterator(), this.right.iterator(), this.resolver);
+    }
+
+    @Override
+    public final Iterator<DataPoint<P, T>> descendingIterator() {
+        return new DescendingUnion<>(Reversible.descendingIterator(this.left),
+                Reversible.descendingIterator(this.right), this.resolver);
+    }
+
+    @Override
+    public final IterableSeries<P, T> window(final Window.Range<P> range) {
+        return new UnionSeries<>(range.apply(this.left), range.apply(this.right), this.resolver);
+    }
+}
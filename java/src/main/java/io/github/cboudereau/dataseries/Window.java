@@ -0,0 +1,135 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import io.github.cboudereau.dataseries.Union.Value;
+
+final class Window<P extends Comparable<P>, T> implements Iterator<DataPoint<P, T>> {
+
+    static record Range<P extends Comparable<P>>(P from, Value<P> to) {
+
+        static <P extends Comparable<P>> Range<P> of(final P from, final Value<P> to) {
+            if (to.isLessThan(Value.fixed(from)))
+                throw new IllegalArgumentException("window from " + from + " should not be after " + to);
+            return new Range<>(from, to);
+        }
+
+        final Boolean isEmpty() {
+            return !this.to.isGreaterThan(Value.fixed(this.from));
+        }
+
+        final Boolean isBefore(final P point) {
+            return this.to.isGreaterThan(Value.fixed(point));
+        }
+
+        final Range<P> intersect(final Range<P> other) {
+            final var from = this.from.compareTo(other.from) > 0 ? this.from : other.from;
+            final var to = this.to.isLessThan(other.to) ? this.to : other.to;
+            return new Range<>(from, to.isLessThan(Value.fixed(from)) ? Value.fixed(from) : to);
+        }
+
+        final <T> IterableSeries<P, T> apply(final Iterable<DataPoint<P, T>> series) {
+            return switch (series) {
+                case final Windowable<P, T> windowable -> windowable.window(this);
+                case final MergeSeries<P, T> merge -> new MergeSeries<>(apply(merge.series()));
+                default -> new View<>(series, this);
+            };
+        }
+    }
+
+    static record View<P extends Comparable<P>, T>(Iterable<DataPoint<P, T>> series, Range<P> range)
+            implements Windowable<P, T> {
+
+        @Override
+        public final Iterator<DataPoint<P, T>> iterator() {
+            return switch (this.series) {
+                case final IndexedSeries<P, T> indexed ->
+                    new Window<>(indexed.iterator(indexed.floorIndex(this.range.from())), this.range);
+                default -> new Window<>(this.series.iterator(), this.range);
+            };
+        }
+
+        @Override
+        public final IterableSeries<P, T> window(final Range<P> range) {
+            return new View<>(this.series, this.range.intersect(range));
+        }
+    }
+
+    private final Iterator<DataPoint<P, T>> series;
+    private final Range<P> range;
+
+    private Boolean isStarted = false;
+    private Boolean isPulled = false;
+    private Boolean hasNext = true;
+
+    private Optional<DataPoint<P, T>> pending = Optional.empty();
+    private Optional<DataPoint<P, T>> entry = Optional.empty();
+
+    public Window(final Iterator<DataPoint<P, T>> series, final Range<P> range) {
+        this.series = series;
+        this.range = range;
+    }
+
+    private final Optional<DataPoint<P, T>> seek() {
+        Optional<DataPoint<P, T>> current = Optional.empty();
+        while (this.series.hasNext()) {
+            final var next = this.series.next();
+            if (next.point().compareTo(this.range.from()) > 0) {
+                this.pending = Optional.of(next);
+                break;
+            }
+            current = Optional.of(next);
+        }
+        return current.map(x -> new DataPoint<>(this.range.from(), x.data()));
+    }
+
+    private final Optional<DataPoint<P, T>> getNext() {
+        if (this.pending.isPresent()) {
+            final var next = this.pending;
+            this.pending = Optional.empty();
+            return next;
+        }
+        return this.series.hasNext() ? Optional.of(this.series.next()) : Optional.empty();
+    }
+
+    private final void pull() {
+        if (!this.hasNext || this.isPulled)
+            return;
+
+        this.isPulled = true;
+
+        if (this.range.isEmpty()) {
+            this.hasNext = false;
+            this.entry = Optional.empty();
+            return;
+        }
+
+        if (!this.isStarted) {
+            this.isStarted = true;
+            this.entry = seek();
+            if (this.entry.isPresent())
+                return;
+        }
+
+        this.entry = getNext().filter(x -> this.range.isBefore(x.point()));
+        this.hasNext = this.entry.isPresent();
+    }
+
+    @Override
+    public final boolean hasNext() {
+        pull();
+        return this.hasNext;
+    }
+
+    @Override
+    public final DataPoint<P, T> next() {
+        pull();
+        if (this.entry.isEmpty())
+            throw new NoSuchElementException();
+
+        this.isPulled = false;
+        return this.entry.get();
+    }
+}
@@ -0,0 +1,5 @@
+package io.github.cboudereau.dataseries;
+
+interface Windowable<P extends Comparable<P>, T> extends IterableSeries<P, T> {
+    IterableSeries<P, T> window(Window.Range<P> range);
+}
@@ -0,0 +1,257 @@
+package io.github.cboudereau.dataseries;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A worker process computing the union of a range of the point domain for a
+ * {@link Cluster}. Each connection carries one range:
+ *
+ * <ul>
+ * <li>request: the job class name, the merge flag, the optional range start,
+ * then the left and right datapoints interleaved in point order, the left ones
+ * first at the same point, ended by an end frame. A datapoint before the range
+ * start is the datapoint in effect at the start of its side.</li>
+ * <li>response: the resulting datapoints in order ended by an end frame, or an
+ * error frame</li>
+ * </ul>
+ *
+ * The union is computed while the datapoints arrive: the datapoints of a point
+ * are united as soon as the next point is read, so a range is never held in
+ * memory.
+ *
+ * The job class is loaded by name and should be on the worker classpath, a
+ * class which is not a {@link Cluster.Job} is answered with an error frame
+ * without being initialized. A worker runs the jobs of any coordinator
+ * reaching it, it listens to the loopback address unless another address is
+ * explicitly given.
+ *
+ * Run it with
+ * {@code java --enable-preview -cp <classpath> io.github.cboudereau.dataseries.Worker <port> [address]},
+ * the worker prints the port it listens to and stops when its standard input
+ * is closed.
+ */
+public final class Worker implements AutoCloseable {
+    static final byte END = 0;
+    static final byte DATAPOINT = 1;
+    static final byte ERROR = 2;
+    static final byte LEFT = 3;
+    static final byte RIGHT = 4;
+
+    private final ServerSocket server;
+
+    private Worker(final ServerSocket server) {
+        this.server = server;
+        Threads.start("dataseries-worker", this::accept);
+    }
+
+    /**
+     * Start a worker listening on the given port of the given address, only
+     * trusted coordinators should be able to reach it
+     *
+     * @param port    the port, 0 to pick a free port
+     * @param address the address to bind
+     * @return the started worker
+     */
+    public static Worker start(final Integer port, final InetAddress address) {
+        if (address == null)
+            throw new IllegalArgumentException("the address to bind should be given");
+        try {
+            return new Worker(new ServerSocket(port, 50, address));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Start a worker listening on the given port of the loopback address
+     *
+     * @param port the port, 0 to pick a free port
+     * @return the started worker
+     */
+    public static Worker start(final Integer port) {
+        return start(port, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Start a worker process and print the listening port
+     *
+     * @param args the port and optionally the address to bind, the loopback
+     *             address by default
+     * @throws IOException when the standard input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        final var port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        final var address = args.length > 1 ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        try (final var worker = start(port, address)) {
+            System.out.println(worker.port());
+            System.out.flush();
+            while (System.in.read() >= 0) {
+                // run until the standard input is closed
+            }
+        }
+    }
+
+    /**
+     * The port the worker listens to
+     *
+     * @return the port
+     */
+    public final int port() {
+        return this.server.getLocalPort();
+    }
+
+    private final void accept() {
+        while (!this.server.isClosed()) {
+            try {
+                final var socket = this.server.accept();
+                Threads.start("dataseries-worker-range", () -> serve(socket));
+            } catch (final IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private static void serve(final Socket socket) {
+        try (socket;
+                final var input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                final var output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            try {
+                final var type = Class.forName(input.readUTF(), false, Worker.class.getClassLoader());
+                if (!Cluster.Job.class.isAssignableFrom(type))
+                    throw new IllegalArgumentException(type.getName() + " is not a cluster job");
+
+                final Cluster.Job<?, ?, ?, ?> job = type.asSubclass(Cluster.Job.class).getDeclaredConstructor()
+                        .newInstance();
+                run(job, input, output);
+            } catch (final RuntimeException | ReflectiveOperationException e) {
+                output.writeByte(ERROR);
+                output.writeUTF(String.valueOf(e));
+                output.flush();
+                socket.shutdownOutput();
+                while (input.read() >= 0) {
+                    // drain the request until the coordinator closes so that the error is not reset
+                }
+            }
+        } catch (final IOException e) {
+            // the coordinator is gone, there is nobody to answer
+        }
+    }
+
+    /**
+     * The union of the interleaved datapoints of a range, read one point at a
+     * time
+     */
+    private static final class Streamed<P extends Comparable<P>, L, R, T> implements Iterator<DataPoint<P, T>> {
+        private final Cluster.Job<P, L, R, T> job;
+        private final UnionResolver<L, R, T> resolver;
+        private final DataInputStream input;
+        private final Optional<P> from;
+
+        private byte frame;
+        private Optional<DataPoint<P, L>> left = Optional.empty();
+        private Optional<DataPoint<P, R>> right = Optional.empty();
+        private final List<L> lefts = new ArrayList<>();
+        private final List<R> rights = new ArrayList<>();
+        private final ArrayDeque<DataPoint<P, T>> united = new ArrayDeque<>();
+        private P pending;
+
+        private Streamed(final Cluster.Job<P, L, R, T> job, final DataInputStream input, final Optional<P> from)
+                throws IOException {
+            this.job = job;
+            this.resolver = job.resolver().fork();
+            this.input = input;
+            this.from = from;
+            read();
+        }
+
+        private final void read() throws IOException {
+            this.frame = this.input.readByte();
+            if (this.frame != END)
+                this.pending = this.job.point().read(this.input);
+        }
+
+        private final void unite() throws IOException {
+            final var point = this.pending;
+            while (this.frame != END && this.pending.compareTo(point) == 0) {
+                if (this.frame == LEFT) {
+                    this.lefts.add(this.job.left().read(this.input));
+                } else {
+                    this.rights.add(this.job.right().read(this.input));
+                }
+                read();
+            }
+
+            if (this.from.map(x -> x.compareTo(point) <= 0).orElse(true))
+                PointUnion.unite(point, this.left, this.right, this.lefts, this.rights, this.resolver,
+                        this.united::add);
+
+            if (!this.lefts.isEmpty())
+                this.left = Optional.of(new DataPoint<>(point, this.lefts.get(this.lefts.size() - 1)));
+            if (!this.rights.isEmpty())
+                this.right = Optional.of(new DataPoint<>(point, this.rights.get(this.rights.size() - 1)));
+            this.lefts.clear();
+            this.rights.clear();
+        }
+
+        @Override
+        public final boolean hasNext() {
+            try {
+                while (this.united.isEmpty() && this.frame != END) {
+                    unite();
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return !this.united.isEmpty();
+        }
+
+        @Override
+        public final DataPoint<P, T> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return this.united.poll();
+        }
+    }
+
+    private static <P extends Comparable<P>, L, R, T> void run(final Cluster.Job<P, L, R, T> job,
+            final DataInputStream input, final DataOutputStream output) throws IOException {
+        final var merge = input.readBoolean();
+        final Optional<P> from = input.readBoolean() ? Optional.of(job.point().read(input)) : Optional.empty();
+
+        final var union = new Streamed<>(job, input, from);
+        final Iterable<DataPoint<P, T>> result = merge ? Series.merge(() -> union) : () -> union;
+        try {
+            for (final var datapoint : result) {
+                output.writeByte(DATAPOINT);
+                job.point().write(output, datapoint.point());
+                job.data().write(output, datapoint.data());
+            }
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+        output.writeByte(END);
+    }
+
+    @Override
+    public final void close() {
+        try {
+            this.server.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.cboudereau.dataseries;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * The point and data columns of an off heap series stored in direct buffers.
+ * The Java 22 layer of the multi-release jar replaces this class to store them
+ * in memory segments which are released on close instead of on garbage
+ * collection.
+ */
+final class OffHeapColumns {
+    private final int capacity;
+    private LongBuffer points;
+    private DoubleBuffer data;
+
+    OffHeapColumns(final int capacity) {
+        if ((long) capacity * Long.BYTES > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("capacity " + capacity + " exceeds the direct buffer limit");
+
+        this.capacity = capacity;
+        this.points = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        this.data = ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder())
+                .asDoubleBuffer();
+    }
+
+    private final void checkOpen() {
+        if (this.points == null)
+            throw new IllegalStateException("off heap columns are closed");
+    }
+
+    final int capacity() {
+        return this.capacity;
+    }
+
+    final long point(final int index) {
+        checkOpen();
+        return this.points.get(index);
+    }
+
+    final double data(final int index) {
+        checkOpen();
+        return this.data.get(index);
+    }
+
+    final void set(final int index, final long point, final double data) {
+        checkOpen();
+        this.points.put(index, point);
+        this.data.put(index, data);
+    }
+
+    final OffHeapColumns grow(final int capacity, final int size) {
+        checkOpen();
+        final var columns = new OffHeapColumns(capacity);
+        columns.points.put(0, this.points, 0, size);
+        columns.data.put(0, this.data, 0, size);
+        close();
+        return columns;
+    }
+
+    final void close() {
+        this.points = null;
+        this.data = null;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.cboudereau.dataseries;
+
+/**
+ * Starts the background threads of the library. The Java 17 layer uses daemon
+ * platform threads, the Java 21 layer of the multi-release jar replaces this
+ * class to use virtual threads.
+ */
+final class Threads {
+    private Threads() {
+
+    }
+
+    static Thread start(final String name, final Runnable task) {
+        final var thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.cboudereau.dataseries;
+
+/**
+ * Starts the background threads of the library on virtual threads so that
+ * blocking reads do not hold a platform thread.
+ */
+final class Threads {
+    private Threads() {
+
+    }
+
+    static Thread start(final String name, final Runnable task) {
+        return Thread.ofVirtual().name(name).start(task);
+    }
+}
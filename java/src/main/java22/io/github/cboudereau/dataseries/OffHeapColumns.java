@@ -0,0 +1,57 @@
+package io.github.cboudereau.dataseries;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * The point and data columns of an off heap series stored in memory segments
+ * of a shared arena, the memory is released as soon as the columns are closed.
+ */
+final class OffHeapColumns {
+    private final int capacity;
+    private final Arena arena;
+    private final MemorySegment points;
+    private final MemorySegment data;
+
+    OffHeapColumns(final int capacity) {
+        this.capacity = capacity;
+        this.arena = Arena.ofShared();
+        this.points = this.arena.allocate((long) capacity * Long.BYTES, Long.BYTES);
+        this.data = this.arena.allocate((long) capacity * Double.BYTES, Double.BYTES);
+    }
+
+    final int capacity() {
+        return this.capacity;
+    }
+
+    final long point(final int index) {
+        return this.points.getAtIndex(ValueLayout.JAVA_LONG, index);
+    }
+
+    final double data(final int index) {
+        return this.data.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+    }
+
+    final void set(final int index, final long point, final double data) {
+        this.points.setAtIndex(ValueLayout.JAVA_LONG, index, point);
+        this.data.setAtIndex(ValueLayout.JAVA_DOUBLE, index, data);
+    }
+
+    final OffHeapColumns grow(final int capacity, final int size) {
+        final var columns = new OffHeapColumns(capacity);
+        try {
+            MemorySegment.copy(this.points, 0, columns.points, 0, (long) size * Long.BYTES);
+            MemorySegment.copy(this.data, 0, columns.data, 0, (long) size * Double.BYTES);
+        } catch (final RuntimeException e) {
+            columns.close();
+            throw e;
+        }
+        close();
+        return columns;
+    }
+
+    final void close() {
+        this.arena.close();
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Gatherer;
+
+/**
+ * Stream gatherers running the union and merge of series inside a native
+ * stream pipeline. The upstream should be sequential and sorted by point like
+ * any other series.
+ */
+public final class SeriesGatherers {
+    private SeriesGatherers() {
+
+    }
+
+    private static final class MergeState<T> {
+        private Boolean isStarted = false;
+        private T data;
+    }
+
+    /**
+     * The upstream datapoints of a point are held until the next point arrives
+     * so that repeated points are united like {@link Union}
+     */
+    private static final class UnionState<P extends Comparable<P>, L, R, T> {
+        private final Iterator<DataPoint<P, R>> rights;
+        private final UnionResolver<L, R, T> resolver;
+
+        private DataPoint<P, R> pending;
+        private Optional<DataPoint<P, L>> left = Optional.empty();
+        private Optional<DataPoint<P, R>> right = Optional.empty();
+
+        private P point;
+        private final List<L> lefts = new ArrayList<>();
+        private final List<DataPoint<P, T>> united = new ArrayList<>();
+
+        private UnionState(final Iterator<DataPoint<P, R>> right, final UnionResolver<L, R, T> resolver) {
+            this.rights = right;
+            this.resolver = resolver.fork();
+            pull();
+        }
+
+        private final void pull() {
+            this.pending = this.rights.hasNext() ? this.rights.next() : null;
+        }
+
+        private final boolean unite(final P point, final List<L> lefts,
+                final Gatherer.Downstream<? super DataPoint<P, T>> downstream) {
+            final var rights = new ArrayList<R>();
+            while (this.pending != null && this.pending.point().compareTo(point) == 0) {
+                rights.add(this.pending.data());
+                pull();
+            }
+
+            PointUnion.unite(point, this.left, this.right, lefts, rights, this.resolver, this.united::add);
+            if (!lefts.isEmpty())
+                this.left = Optional.of(new DataPoint<>(point, lefts.get(lefts.size() - 1)));
+            if (!rights.isEmpty())
+                this.right = Optional.of(new DataPoint<>(point, rights.get(rights.size() - 1)));
+
+            var isPushing = true;
+            for (final var datapoint : this.united) {
+                isPushing = isPushing && downstream.push(datapoint);
+            }
+            this.united.clear();
+            return isPushing;
+        }
+
+        private final boolean flush(final Gatherer.Downstream<? super DataPoint<P, T>> downstream) {
+            while (this.pending != null && this.pending.point().compareTo(this.point) < 0) {
+                if (!unite(this.pending.point(), List.of(), downstream))
+                    return false;
+            }
+            final var isPushing = unite(this.point, this.lefts, downstream);
+            this.lefts.clear();
+            return isPushing;
+        }
+
+        private final boolean integrate(final DataPoint<P, L> left,
+                final Gatherer.Downstream<? super DataPoint<P, T>> downstream) {
+            if (this.point != null && this.point.compareTo(left.point()) != 0 && !flush(downstream))
+                return false;
+
+            this.point = left.point();
+            this.lefts.add(left.data());
+            return true;
+        }
+
+        private final void finish(final Gatherer.Downstream<? super DataPoint<P, T>> downstream) {
+            if (this.point != null && !flush(downstream))
+                return;
+
+            while (this.pending != null && !downstream.isRejecting()) {
+                unite(this.pending.point(), List.of(), downstream);
+            }
+        }
+    }
+
+    /**
+     * merge the upstream series to be more compact when contigous events have
+     * the same data
+     *
+     * @param <P> the point type
+     * @param <T> the data type
+     * @return a gatherer keeping the first datapoint of each run of equal data
+     */
+    public static final <P, T> Gatherer<DataPoint<P, T>, ?, DataPoint<P, T>> merge() {
+        return Gatherer.<DataPoint<P, T>, MergeState<T>, DataPoint<P, T>>ofSequential(MergeState::new,
+                Gatherer.Integrator.ofGreedy((state, x, downstream) -> {
+                    if (state.isStarted && state.data.equals(x.data()))
+                        return true;
+                    state.isStarted = true;
+                    state.data = x.data();
+                    return downstream.push(x);
+                }));
+    }
+
+    /**
+     * union the upstream series, as the left serie, with the given right serie
+     *
+     * @param <P>      the point type should be common for left and right series
+     * @param <L>      the left type
+     * @param <R>      the right type
+     * @param <T>      the resolved type
+     * @param right    the right serie
+     * @param resolver the resolver of the left only, right only and both cases
+     * @return a gatherer emitting the same datapoints as the union of both series
+     */
+    public static final <P extends Comparable<P>, L, R, T> Gatherer<DataPoint<P, L>, ?, DataPoint<P, T>> union(
+            final Iterable<DataPoint<P, R>> right, final UnionResolver<L, R, T> resolver) {
+        return Gatherer.<DataPoint<P, L>, UnionState<P, L, R, T>, DataPoint<P, T>>ofSequential(
+                () -> new UnionState<>(right.iterator(), resolver),
+                Gatherer.Integrator.ofGreedy((state, x, downstream) -> state.integrate(x, downstream)),
+                (state, downstream) -> state.finish(downstream));
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class AsOfTest {
+    record Row<E, T>(E event, Optional<T> data) {
+    }
+
+    private static final List<DataPoint<Integer, String>> events = List.of(
+            Series.datapoint(0, "e0"),
+            Series.datapoint(1, "e1"),
+            Series.datapoint(2, "e2"),
+            Series.datapoint(2, "e2bis"),
+            Series.datapoint(15, "e15"));
+
+    private static final List<DataPoint<Integer, Integer>> series = List.of(
+            Series.datapoint(1, 100),
+            Series.datapoint(3, 110),
+            Series.datapoint(5, 120),
+            Series.datapoint(10, 130));
+
+    private static final Object[] expected = List.of(
+            Series.datapoint(0, new Row<>("e0", Optional.<Integer>empty())),
+            Series.datapoint(1, new Row<>("e1", Optional.of(100))),
+            Series.datapoint(2, new Row<>("e2", Optional.of(100))),
+            Series.datapoint(2, new Row<>("e2bis", Optional.of(100))),
+            Series.datapoint(15, new Row<>("e15", Optional.of(130)))).toArray();
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.asOf(x, series, Row::new).stream().toArray());
+    }
+
+    @Test
+    public void scanTest() {
+        assertArrayEquals(expected, Series.asOf(events, series, Row::new).stream().toArray());
+    }
+
+    @Test
+    public void seekTest() {
+        assertArrayEquals(expected, Series.asOf(events, Series.index(series), Row::new).stream().toArray());
+    }
+
+    @Test
+    public void sparseEventsTest() {
+        final var s = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 1000; i++) {
+            s.add(Series.datapoint(i, i));
+        }
+        final var e = List.of(Series.datapoint(3, "a"), Series.datapoint(500, "b"), Series.datapoint(5000, "c"));
+
+        final var scan = Series.asOf(e, s, Row::new).stream().toArray();
+        final var seek = Series.asOf(e, Series.index(s), Row::new).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(3, new Row<>("a", Optional.of(3))),
+                Series.datapoint(500, new Row<>("b", Optional.of(500))),
+                Series.datapoint(5000, new Row<>("c", Optional.of(999)))).toArray();
+
+        assertArrayEquals(expected, scan);
+        assertArrayEquals(expected, seek);
+    }
+}
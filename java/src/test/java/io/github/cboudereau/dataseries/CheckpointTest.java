@@ -0,0 +1,145 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class CheckpointTest {
+
+    private static final UnionResolver<Integer, Integer, Integer> resolver = UnionResolver
+            .of(x -> switch (x) {
+                case final UnionResult.LeftOnly<Integer, Integer> l -> l.left();
+                case final UnionResult.RightOnly<Integer, Integer> r -> r.right();
+                case final UnionResult.Both<Integer, Integer> b -> Math.max(b.left(), b.right());
+            });
+
+    private static final Codec<Checkpoint<Integer, Integer, Integer, Integer>> codec = Checkpoint
+            .codec(Codec.ofInteger(), Codec.ofInteger(), Codec.ofInteger(), Codec.ofInteger());
+
+    private static final Checkpoint<Integer, Integer, Integer, Integer> roundtrip(
+            final Checkpoint<Integer, Integer, Integer, Integer> checkpoint) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), checkpoint);
+        return codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Integer>> x = List.of();
+        final var union = Series.checkpointedUnion(x, x, resolver);
+        assertEquals(false, union.hasNext());
+        assertEquals(Optional.empty(), union.checkpoint());
+    }
+
+    @Test
+    public void checkpointTest() {
+        final var union = Series.checkpointedUnion(List.of(Series.datapoint(1, 10), Series.datapoint(5, 1)),
+                List.of(Series.datapoint(3, 5)), resolver);
+
+        assertEquals(Series.datapoint(1, 10), union.next());
+        assertEquals(true, union.hasNext());
+        assertEquals(Optional.of(new Checkpoint<>(Optional.of(1), Optional.of(10), Optional.empty(), 0, 10)), union.checkpoint());
+        assertEquals(Series.datapoint(3, 10), union.next());
+        assertEquals(Optional.of(new Checkpoint<>(Optional.of(3), Optional.of(10), Optional.of(5), 0, 10)), union.checkpoint());
+    }
+
+    @Test
+    public void resumeTest() throws IOException {
+        final var random = new Random(42);
+        for (var i = 0; i < 50; i++) {
+            final var left = Series.index(RandomSeries.of(random, random.nextInt(30)));
+            final var right = RandomSeries.of(random, random.nextInt(30));
+            final var expected = Series.union(left, right, resolver).stream().toArray();
+
+            for (var k = 1; k < expected.length; k++) {
+                final var actual = new ArrayList<DataPoint<Integer, Integer>>();
+                final var union = Series.checkpointedUnion(left, right, resolver);
+                for (var j = 0; j < k; j++) {
+                    actual.add(union.next());
+                }
+                final var resumed = Series.checkpointedUnion(left, right, resolver,
+                        roundtrip(union.checkpoint().get()));
+                resumed.forEachRemaining(actual::add);
+                assertArrayEquals(expected, actual.toArray());
+            }
+        }
+    }
+
+    @Test
+    public void resumeMergeTest() throws IOException {
+        final var random = new Random(42);
+        for (var i = 0; i < 50; i++) {
+            final var left = RandomSeries.of(random, random.nextInt(30));
+            final var right = Series.index(RandomSeries.of(random, random.nextInt(30)));
+            final var expected = Series.merge(Series.union(left, right, resolver)).stream().toArray();
+
+            final var all = new ArrayList<DataPoint<Integer, Integer>>();
+            Series.checkpointedMergedUnion(left, right, resolver).forEachRemaining(all::add);
+            assertArrayEquals(expected, all.toArray());
+
+            for (var k = 1; k < expected.length; k++) {
+                final var actual = new ArrayList<DataPoint<Integer, Integer>>();
+                final var union = Series.checkpointedMergedUnion(left, right, resolver);
+                for (var j = 0; j < k; j++) {
+                    actual.add(union.next());
+                }
+                final var resumed = Series.checkpointedMergedUnion(left, right, resolver,
+                        roundtrip(union.checkpoint().get()));
+                resumed.forEachRemaining(actual::add);
+                assertArrayEquals(expected, actual.toArray());
+            }
+        }
+    }
+
+    @Test
+    public void repeatedCheckpointTest() {
+        final var union = Series.checkpointedUnion(List.of(Series.datapoint(1, 10), Series.datapoint(1, 1)),
+                List.of(Series.datapoint(1, 5)), resolver);
+
+        assertEquals(Series.datapoint(1, 10), union.next());
+        assertEquals(Optional.of(new Checkpoint<>(Optional.empty(), Optional.empty(), Optional.empty(), 1, 10)),
+                union.checkpoint());
+        assertEquals(Series.datapoint(1, 5), union.next());
+        assertEquals(Optional.of(new Checkpoint<>(Optional.of(1), Optional.of(1), Optional.of(5), 0, 5)),
+                union.checkpoint());
+    }
+
+    @Test
+    public void resumeRepeatedTest() throws IOException {
+        final var random = new Random(42);
+        for (var i = 0; i < 100; i++) {
+            final var left = Series.index(RandomSeries.repeated(random, random.nextInt(20)));
+            final var right = RandomSeries.repeated(random, random.nextInt(20));
+            for (final var isMerged : List.of(false, true)) {
+                final var union = Series.union(left, right, resolver);
+                final var expected = (isMerged ? Series.merge(union) : union).stream().toArray();
+
+                for (var k = 1; k < expected.length; k++) {
+                    final var actual = new ArrayList<DataPoint<Integer, Integer>>();
+                    final var checkpointed = isMerged ? Series.checkpointedMergedUnion(left, right, resolver)
+                            : Series.checkpointedUnion(left, right, resolver);
+                    for (var j = 0; j < k; j++) {
+                        actual.add(checkpointed.next());
+                    }
+                    final var checkpoint = roundtrip(checkpointed.checkpoint().get());
+                    final var resumed = isMerged
+                            ? Series.checkpointedMergedUnion(left, right, resolver, checkpoint)
+                            : Series.checkpointedUnion(left, right, resolver, checkpoint);
+                    resumed.forEachRemaining(actual::add);
+                    assertArrayEquals(expected, actual.toArray());
+                }
+            }
+        }
+    }
+}
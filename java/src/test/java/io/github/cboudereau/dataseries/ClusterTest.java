@@ -0,0 +1,288 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ClusterTest {
+
+    public static final class SumJob implements Cluster.Job<Integer, Integer, Integer, Integer> {
+        @Override
+        public final Codec<Integer> point() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> left() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> right() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> data() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final UnionResolver<Integer, Integer, Integer> resolver() {
+            return UnionResolver.of(ClusterTest::sum);
+        }
+    }
+
+    public static final class FailingJob implements Cluster.Job<Integer, Integer, Integer, Integer> {
+        @Override
+        public final Codec<Integer> point() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> left() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> right() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final Codec<Integer> data() {
+            return Codec.ofInteger();
+        }
+
+        @Override
+        public final UnionResolver<Integer, Integer, Integer> resolver() {
+            return UnionResolver.of(x -> {
+                throw new IllegalStateException("boom");
+            });
+        }
+    }
+
+    private static final AtomicBoolean isInitialized = new AtomicBoolean();
+
+    public static final class NotAJob {
+        static {
+            isInitialized.set(true);
+        }
+    }
+
+    private static final List<Process> processes = new ArrayList<>();
+    private static final List<InetSocketAddress> workers = new ArrayList<>();
+
+    private static final Integer sum(final UnionResult<Integer, Integer> x) {
+        return switch (x) {
+            case final UnionResult.LeftOnly<Integer, Integer> l -> l.left();
+            case final UnionResult.RightOnly<Integer, Integer> r -> r.right();
+            case final UnionResult.Both<Integer, Integer> b -> b.left() + b.right();
+        };
+    }
+
+    @BeforeAll
+    public static void startWorkers() throws IOException {
+        final var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        for (var i = 0; i < 3; i++) {
+            final var process = new ProcessBuilder(java, "--enable-preview", "-cp",
+                    System.getProperty("java.class.path"), Worker.class.getName(), "0", "127.0.0.1")
+                    .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            processes.add(process);
+            final var port = new BufferedReader(new InputStreamReader(process.getInputStream())).readLine();
+            workers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(port)));
+        }
+    }
+
+    @AfterAll
+    public static void stopWorkers() throws IOException, InterruptedException {
+        for (final var process : processes) {
+            process.getOutputStream().close();
+            if (!process.waitFor(10, TimeUnit.SECONDS))
+                process.destroyForcibly();
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final List<DataPoint<Integer, Integer>> x = List.of();
+        assertArrayEquals(new Object[] {}, cluster.union(x, x, List.of(5, 10)).stream().toArray());
+    }
+
+    @Test
+    public void carryTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var left = List.of(Series.datapoint(1, 1), Series.datapoint(10, 2));
+        final var right = List.of(Series.datapoint(3, 10), Series.datapoint(5, 20));
+
+        final var expected = Series.union(left, right, ClusterTest::sum).stream().toArray();
+        assertArrayEquals(expected, cluster.union(left, right, List.of(2, 4, 5, 7, 12)).stream().toArray());
+    }
+
+    @Test
+    public void sameAsLocalTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var random = new Random(42);
+        for (var i = 0; i < 10; i++) {
+            final var left = RandomSeries.of(random, 1_000);
+            final var right = RandomSeries.of(random, 500);
+            final var splits = Cluster.splits(Series.index(left), 1 + random.nextInt(8));
+
+            final var union = Series.union(left, right, ClusterTest::sum);
+            assertArrayEquals(union.stream().toArray(), cluster.union(left, right, splits).stream().toArray());
+            assertArrayEquals(Series.merge(union).stream().toArray(),
+                    cluster.mergedUnion(left, right, splits).stream().toArray());
+        }
+    }
+
+    @Test
+    public void repeatedPointsTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var random = new Random(42);
+        for (var i = 0; i < 50; i++) {
+            final var left = RandomSeries.repeated(random, random.nextInt(40));
+            final var right = RandomSeries.repeated(random, random.nextInt(40));
+            final var splits = Cluster.splits(Series.index(RandomSeries.repeated(random, 20)), 1 + random.nextInt(6));
+
+            final var union = Series.union(left, right, ClusterTest::sum);
+            assertArrayEquals(union.stream().toArray(), cluster.union(left, right, splits).stream().toArray());
+            assertArrayEquals(union.stream().toArray(),
+                    cluster.union(Series.index(left), Series.index(right), splits).stream().toArray());
+            assertArrayEquals(Series.merge(union).stream().toArray(),
+                    cluster.mergedUnion(left, right, splits).stream().toArray());
+        }
+    }
+
+    @Test
+    public void splitsTest() {
+        final var x = Series.index(List.of(
+                Series.datapoint(1, 0),
+                Series.datapoint(2, 0),
+                Series.datapoint(2, 1),
+                Series.datapoint(3, 0),
+                Series.datapoint(4, 0),
+                Series.datapoint(5, 0)));
+        assertEquals(List.of(2, 4), Cluster.splits(x, 3));
+        assertEquals(List.of(), Cluster.splits(x, 1));
+        assertTrue(Cluster.splits(Series.index(List.<DataPoint<Integer, Integer>>of()), 4).isEmpty());
+    }
+
+    @Test
+    public void invalidTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var x = List.of(Series.datapoint(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> cluster.union(x, x, List.of(3, 3)));
+        assertThrows(IllegalArgumentException.class, () -> Series.cluster(List.of(), SumJob.class));
+
+        final var unsorted = List.of(Series.datapoint(2, 1), Series.datapoint(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> cluster.union(unsorted, x, List.of()).stream().toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> cluster.union(x, unsorted, List.of(0, 5)).stream().toList());
+    }
+
+    @Test
+    public void notAJobTest() throws IOException {
+        try (final var worker = Worker.start(0);
+                final var socket = new Socket(InetAddress.getLoopbackAddress(), worker.port());
+                final var output = new DataOutputStream(socket.getOutputStream());
+                final var input = new DataInputStream(socket.getInputStream())) {
+            output.writeUTF(NotAJob.class.getName());
+            output.flush();
+            assertEquals(Worker.ERROR, input.readByte());
+            assertTrue(input.readUTF().contains("is not a cluster job"));
+        }
+        assertFalse(isInitialized.get());
+        assertThrows(IllegalArgumentException.class, () -> Worker.start(0, null));
+    }
+
+    @Test
+    public void workerErrorTest() {
+        final var cluster = Series.cluster(workers, FailingJob.class);
+        final var x = List.of(Series.datapoint(1, 1));
+        final var e = assertThrows(IllegalStateException.class, () -> cluster.union(x, x, List.of()).stream().toList());
+        assertTrue(e.getMessage().contains("boom"), e.getMessage());
+
+        try (final var iterator = cluster.union(x, x, List.of(1, 2)).iterator()) {
+            assertThrows(IllegalStateException.class, () -> iterator.hasNext());
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void closeTest() {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var left = RandomSeries.of(new Random(42), 100_000);
+        final var right = RandomSeries.of(new Random(43), 100_000);
+        final var splits = List.of(left.get(25_000).point(), left.get(50_000).point(), left.get(75_000).point());
+        final var iterator = cluster.union(left, right, splits).iterator();
+        try {
+            assertTrue(iterator.hasNext());
+            iterator.next();
+        } finally {
+            iterator.close();
+        }
+        assertFalse(iterator.hasNext());
+
+        final var union = Series.union(left, right, ClusterTest::sum);
+        try (final var stream = cluster.mergedUnion(left, right, splits).stream()) {
+            assertEquals(union.stream().findFirst(), stream.findFirst());
+        }
+        assertArrayEquals(union.stream().toArray(), cluster.union(left, right, splits).stream().toArray());
+    }
+
+    private static final double throughput(final List<InetSocketAddress> workers,
+            final IndexedSeries<Integer, Integer> left, final IndexedSeries<Integer, Integer> right,
+            final Object[] expected) {
+        final var cluster = Series.cluster(workers, SumJob.class);
+        final var splits = Cluster.splits(left, workers.size());
+        var best = Long.MAX_VALUE;
+        for (var i = 0; i < 3; i++) {
+            final var start = System.nanoTime();
+            final var actual = cluster.union(left, right, splits).stream().toArray();
+            best = Math.min(best, System.nanoTime() - start);
+            assertArrayEquals(expected, actual);
+        }
+        return (left.size() + right.size()) * 1e9 / best;
+    }
+
+    @Test
+    public void throughputTest() {
+        final var left = Series.index(RandomSeries.of(new Random(42), 300_000));
+        final var right = Series.index(RandomSeries.of(new Random(43), 300_000));
+        final var expected = Series.union(left, right, ClusterTest::sum).stream().toArray();
+
+        throughput(workers, left, right, expected);
+        final var throughputs = new ArrayList<Double>();
+        for (var i = 1; i <= workers.size(); i++) {
+            throughputs.add(throughput(workers.subList(0, i), left, right, expected));
+        }
+        System.out.println("cluster throughput by number of workers (datapoints/s): " + throughputs);
+
+        assumeTrue(Runtime.getRuntime().availableProcessors() > workers.size(),
+                "scaling needs a core per worker and one for the coordinator");
+        assertTrue(throughputs.get(2) > throughputs.get(0), "3 workers should be faster than 1: " + throughputs);
+    }
+}
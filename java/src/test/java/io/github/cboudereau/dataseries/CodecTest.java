@@ -0,0 +1,31 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class CodecTest {
+
+    private static <T> T roundtrip(final Codec<T> codec, final T value) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), value);
+        return codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void roundtripTest() throws IOException {
+        assertEquals(-42, roundtrip(Codec.ofInteger(), -42));
+        assertEquals(Long.MAX_VALUE, roundtrip(Codec.ofLong(), Long.MAX_VALUE));
+        assertEquals(1.5, roundtrip(Codec.ofDouble(), 1.5));
+        assertEquals("hello", roundtrip(Codec.ofString(), "hello"));
+        assertEquals(Optional.of("hello"), roundtrip(Codec.ofOptional(Codec.ofString()), Optional.of("hello")));
+        assertEquals(Optional.empty(), roundtrip(Codec.ofOptional(Codec.ofString()), Optional.<String>empty()));
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class CursorsTest {
+
+    private static <P, T> List<DataPoint<P, T>> toList(final SeriesCursor<P, T> cursor) {
+        final var list = new ArrayList<DataPoint<P, T>>();
+        while (cursor.advance()) {
+            list.add(new DataPoint<>(cursor.point(), cursor.data()));
+        }
+        return list;
+    }
+
+    private static <P, L, R> List<DataPoint<P, UnionResult<L, R>>> toList(final UnionCursor<P, L, R> cursor) {
+        final var list = new ArrayList<DataPoint<P, UnionResult<L, R>>>();
+        while (cursor.advance()) {
+            final UnionResult<L, R> result = !cursor.hasLeft() ? UnionResult.rightOnly(cursor.right())
+                    : !cursor.hasRight() ? UnionResult.leftOnly(cursor.left())
+                            : UnionResult.both(cursor.left(), cursor.right());
+            list.add(new DataPoint<>(cursor.point(), result));
+        }
+        return list;
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Integer>> x = List.of();
+        assertFalse(Series.cursor(x).advance());
+        assertFalse(Series.cursor(Series.index(x)).advance());
+        assertFalse(Series.union(Series.cursor(x), Series.cursor(x)).advance());
+        assertFalse(Series.merge(Series.cursor(x)).advance());
+    }
+
+    @Test
+    public void cursorTest() {
+        final var x = List.of(Series.datapoint(1, 10), Series.datapoint(3, 30));
+        assertArrayEquals(x.toArray(), toList(Series.cursor(x)).toArray());
+        assertArrayEquals(x.toArray(), toList(Series.cursor(Series.index(x))).toArray());
+    }
+
+    @Test
+    public void sameAsUnionAndMergeTest() {
+        final var random = new Random(42);
+        for (var n = 0; n < 20; n++) {
+            final var left = new ArrayList<DataPoint<Integer, Integer>>();
+            final var right = new ArrayList<DataPoint<Integer, Integer>>();
+            for (var i = 0; i < 50; i++) {
+                if (random.nextBoolean())
+                    left.add(Series.datapoint(i, random.nextInt(3)));
+                if (random.nextBoolean())
+                    right.add(Series.datapoint(i, random.nextInt(3)));
+            }
+
+            assertArrayEquals(Series.union(left, right, x -> x).stream().toArray(),
+                    toList(Series.union(Series.cursor(left), Series.cursor(Series.index(right)))).toArray());
+            assertArrayEquals(Series.merge(left).stream().toArray(),
+                    toList(Series.merge(Series.cursor(left))).toArray());
+        }
+    }
+}
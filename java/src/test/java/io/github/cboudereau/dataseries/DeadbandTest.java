@@ -0,0 +1,118 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DeadbandTest {
+
+    private static final List<DataPoint<Integer, Double>> noisy(final Integer size) {
+        final var random = new Random(42);
+        final var series = new ArrayList<DataPoint<Integer, Double>>();
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(i, 10 * Math.sin(i / 100.0) + random.nextGaussian() * 0.1));
+        }
+        return series;
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        final var iterator = Series.deadband(x, 1.0).iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+        assertArrayEquals(new Object[] {}, Series.swingingDoor(x, p -> p, 1.0).stream().toArray());
+    }
+
+    @Test
+    public void deadbandTest() {
+        final var x = List.of(
+                Series.datapoint(1, 10.0),
+                Series.datapoint(2, 10.4),
+                Series.datapoint(3, 9.6),
+                Series.datapoint(4, 11.0),
+                Series.datapoint(5, 10.8),
+                Series.datapoint(6, 5.0));
+
+        final var expected = List.of(Series.datapoint(1, 10.0), Series.datapoint(4, 11.0), Series.datapoint(6, 5.0))
+                .toArray();
+        assertArrayEquals(expected, Series.deadband(x, 0.5).stream().toArray());
+        assertArrayEquals(expected, Series.relativeDeadband(x, 0.05).stream().toArray());
+    }
+
+    @Test
+    public void zeroToleranceIsMergeTest() {
+        final var x = List.of(Series.datapoint(1, 1.0), Series.datapoint(2, 1.0), Series.datapoint(3, 2.0));
+        assertArrayEquals(Series.merge(x).stream().toArray(), Series.deadband(x, 0.0).stream().toArray());
+    }
+
+    @Test
+    public void deadbandErrorBoundTest() {
+        final var x = noisy(10_000);
+        final var compressed = Series.index(Series.deadband(x, 1.0));
+        assertTrue(compressed.size() * 5 < x.size(), "compressed to " + compressed.size());
+        for (final var datapoint : x) {
+            final var value = compressed.valueAt(datapoint.point()).get();
+            assertTrue(Math.abs(value - datapoint.data()) <= 1.0);
+        }
+    }
+
+    @Test
+    public void swingingDoorTest() {
+        final var x = List.of(
+                Series.datapoint(0, 0.0),
+                Series.datapoint(1, 1.0),
+                Series.datapoint(2, 2.0),
+                Series.datapoint(3, 3.0),
+                Series.datapoint(4, 2.0),
+                Series.datapoint(5, 1.0));
+
+        final var expected = List.of(Series.datapoint(0, 0.0), Series.datapoint(3, 3.0), Series.datapoint(5, 1.0))
+                .toArray();
+        assertArrayEquals(expected, Series.swingingDoor(x, p -> p, 0.1).stream().toArray());
+    }
+
+    @Test
+    public void swingingDoorErrorBoundTest() {
+        final var x = noisy(10_000);
+        final var compressed = Series.swingingDoor(x, p -> p, 0.5).stream().toList();
+        assertTrue(compressed.size() * 5 < x.size(), "compressed to " + compressed.size());
+        assertEquals(x.get(0), compressed.get(0));
+        assertEquals(x.get(x.size() - 1), compressed.get(compressed.size() - 1));
+
+        var segment = 0;
+        for (final var datapoint : x) {
+            while (compressed.get(segment + 1).point() < datapoint.point()) {
+                segment++;
+            }
+            final var from = compressed.get(segment);
+            final var to = compressed.get(segment + 1);
+            final var interpolated = from.data()
+                    + (to.data() - from.data()) * (datapoint.point() - from.point()) / (to.point() - from.point());
+            assertTrue(Math.abs(interpolated - datapoint.data()) <= 0.5 + 1e-9, datapoint.toString());
+        }
+    }
+
+    @Test
+    public void invalidToleranceTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        assertThrows(IllegalArgumentException.class, () -> Series.deadband(x, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> Series.relativeDeadband(x, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Series.swingingDoor(x, p -> p, -1.0).iterator());
+    }
+
+    @Test
+    public void unsortedSwingingDoorTest() {
+        final var x = List.of(Series.datapoint(1, 1.0), Series.datapoint(1, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> Series.swingingDoor(x, p -> p, 1.0).stream().toList());
+    }
+}
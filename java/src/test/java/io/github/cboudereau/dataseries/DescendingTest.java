@@ -0,0 +1,113 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class DescendingTest {
+
+    private static final UnionResolver<Integer, Integer, String> resolver = UnionResolver.of(x -> x.toString());
+
+    private static final <P, T> Object[] reversed(final Iterable<DataPoint<P, T>> series) {
+        final var list = new ArrayList<DataPoint<P, T>>();
+        series.forEach(list::add);
+        Collections.reverse(list);
+        return list.toArray();
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Integer>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.descending(x).stream().toArray());
+        assertArrayEquals(new Object[] {}, Series.descending(Series.union(x, x, resolver)).stream().toArray());
+        assertArrayEquals(new Object[] {}, Series.descending(Series.merge(x)).stream().toArray());
+    }
+
+    @Test
+    public void sourcesTest() {
+        final var x = RandomSeries.of(new Random(42), 100);
+        final var expected = reversed(x);
+        final var live = Series.<Integer, Integer>live();
+        live.append(x);
+
+        assertArrayEquals(expected, Series.descending(x).stream().toArray());
+        assertArrayEquals(expected, Series.descending(Series.index(x)).stream().toArray());
+        assertArrayEquals(expected, Series.descending(Series.encode(x)).stream().toArray());
+        assertArrayEquals(expected, Series.descending(live).stream().toArray());
+        assertArrayEquals(expected, Series.descending(() -> x.iterator()).stream().toArray());
+    }
+
+    @Test
+    public void unionTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 100; i++) {
+            final var left = RandomSeries.of(random, random.nextInt(20));
+            final var right = RandomSeries.of(random, random.nextInt(20));
+
+            final var union = Series.union(Series.index(left), right, resolver);
+            assertArrayEquals(reversed(union), Series.descending(union).stream().toArray());
+
+            final var merge = Series.merge(union);
+            assertArrayEquals(reversed(merge), Series.descending(merge).stream().toArray());
+        }
+    }
+
+    @Test
+    public void nestedUnionTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 50; i++) {
+            final var a = Series.index(RandomSeries.of(random, 30));
+            final var b = Series.index(RandomSeries.of(random, 30));
+            final var c = Series.index(RandomSeries.of(random, 30));
+            final var union = Series.merge(Series.union(Series.merge(Series.union(a, b, resolver)), c,
+                    UnionResolver.<String, Integer, String>of(x -> x.toString())));
+            assertArrayEquals(reversed(union), Series.descending(union).stream().toArray());
+        }
+    }
+
+    @Test
+    public void latestTest() {
+        final var x = RandomSeries.of(new Random(42), 100_000);
+        final var read = new AtomicInteger();
+        final var left = Series.index(x);
+        final Iterable<DataPoint<Integer, Integer>> right = List.of(Series.datapoint(0, 1));
+
+        final Reversible<Integer, Integer> counted = new Reversible<>() {
+            @Override
+            public Iterator<DataPoint<Integer, Integer>> iterator() {
+                return left.iterator();
+            }
+
+            @Override
+            public Iterator<DataPoint<Integer, Integer>> descendingIterator() {
+                final var iterator = left.descendingIterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public DataPoint<Integer, Integer> next() {
+                        read.incrementAndGet();
+                        return iterator.next();
+                    }
+                };
+            }
+        };
+
+        final var latest = Series.descending(Series.merge(Series.union(counted, right, resolver))).stream().limit(10)
+                .toArray();
+        assertEquals(10, latest.length);
+        assertTrue(read.get() < 100, "read " + read.get());
+    }
+}
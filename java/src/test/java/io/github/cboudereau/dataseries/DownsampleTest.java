@@ -0,0 +1,112 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class DownsampleTest {
+
+    private static final List<DataPoint<Integer, Double>> random(final Integer size) {
+        final var random = new Random(42);
+        final var series = new ArrayList<DataPoint<Integer, Double>>();
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(i, random.nextGaussian()));
+        }
+        return series;
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.minMax(x, p -> p, 0, 10, 2).stream().toArray());
+        assertArrayEquals(new Object[] {}, Series.lttb(x, p -> p, 0, 10, 3).stream().toArray());
+    }
+
+    @Test
+    public void minMaxTest() {
+        final var x = List.of(
+                Series.datapoint(0, 1.0),
+                Series.datapoint(1, 5.0),
+                Series.datapoint(2, 0.0),
+                Series.datapoint(3, 2.0),
+                Series.datapoint(5, 3.0),
+                Series.datapoint(6, 3.0),
+                Series.datapoint(9, 1.0));
+
+        final var expected = List.of(
+                Series.datapoint(1, 5.0),
+                Series.datapoint(2, 0.0),
+                Series.datapoint(5, 3.0),
+                Series.datapoint(9, 1.0)).toArray();
+        assertArrayEquals(expected, Series.minMax(x, p -> p, 0, 10, 2).stream().toArray());
+    }
+
+    @Test
+    public void minMaxWindowTest() {
+        final var x = Series.index(List.of(
+                Series.datapoint(0, 1.0),
+                Series.datapoint(4, 7.0),
+                Series.datapoint(6, 2.0),
+                Series.datapoint(12, 9.0)));
+
+        final var expected = List.of(Series.datapoint(5, 7.0), Series.datapoint(6, 2.0)).toArray();
+        assertArrayEquals(expected, Series.minMax(x, p -> p, 5, 10, 1).stream().toArray());
+    }
+
+    @Test
+    public void minMaxBoundTest() {
+        final var x = random(100_000);
+        final var actual = Series.minMax(x, p -> p, 0, x.size(), 1_000).stream().toList();
+        assertEquals(2_000, actual.size());
+
+        final var min = x.stream().mapToDouble(DataPoint::data).min().getAsDouble();
+        final var max = x.stream().mapToDouble(DataPoint::data).max().getAsDouble();
+        assertTrue(actual.stream().anyMatch(d -> d.data() == min));
+        assertTrue(actual.stream().anyMatch(d -> d.data() == max));
+    }
+
+    @Test
+    public void lttbTest() {
+        final var x = List.of(
+                Series.datapoint(0, 0.0),
+                Series.datapoint(1, 0.1),
+                Series.datapoint(2, 0.0),
+                Series.datapoint(3, 10.0),
+                Series.datapoint(4, 0.0),
+                Series.datapoint(5, 0.1),
+                Series.datapoint(6, 0.0),
+                Series.datapoint(7, 0.0));
+
+        final var expected = List.of(Series.datapoint(0, 0.0), Series.datapoint(3, 10.0), Series.datapoint(7, 0.0))
+                .toArray();
+        assertArrayEquals(expected, Series.lttb(x, p -> p, 0, 8, 3).stream().toArray());
+    }
+
+    @Test
+    public void lttbBoundTest() {
+        final var x = random(100_000);
+        final var actual = Series.lttb(x, p -> p, 0, x.size(), 2_000).stream().toList();
+        assertEquals(2_000, actual.size());
+        assertEquals(x.get(0), actual.get(0));
+        assertEquals(x.get(x.size() - 1), actual.get(actual.size() - 1));
+        for (var i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i - 1).point() < actual.get(i).point());
+        }
+        assertTrue(x.containsAll(actual));
+    }
+
+    @Test
+    public void invalidTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        assertThrows(IllegalArgumentException.class, () -> Series.minMax(x, p -> p, 0, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> Series.minMax(x, p -> p, 10, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> Series.lttb(x, p -> p, 0, 10, 2));
+    }
+}
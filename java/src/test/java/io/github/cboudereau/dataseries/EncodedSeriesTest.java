@@ -0,0 +1,99 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class EncodedSeriesTest {
+
+    @Test
+    public void dictionaryTest() {
+        final var dictionary = new Dictionary<String>();
+        assertEquals(0, dictionary.encode("a"));
+        assertEquals(1, dictionary.encode("b"));
+        assertEquals(0, dictionary.encode(new String("a")));
+        assertEquals(2, dictionary.size());
+        assertEquals("b", dictionary.decode(1));
+        assertThrows(IllegalArgumentException.class, () -> dictionary.decode(2));
+    }
+
+    @Test
+    public void sharedDictionaryTest() {
+        final var dictionary = new Dictionary<Optional<Integer>>();
+        final var x = Series.encode(List.of(Series.datapoint(1, Optional.of(10)), Series.datapoint(5, Optional.empty())),
+                dictionary);
+        final var y = Series.encode(List.of(Series.datapoint(2, Optional.of(10)), Series.datapoint(3, Optional.empty())),
+                dictionary);
+
+        assertEquals(2, dictionary.size());
+        assertEquals(dictionary, x.dictionary());
+        assertEquals(dictionary, y.dictionary());
+        assertArrayEquals(List.of(Series.datapoint(2, Optional.of(10)), Series.datapoint(3, Optional.empty())).toArray(),
+                y.stream().toArray());
+    }
+
+    @Test
+    public void mergeTest() {
+        final List<DataPoint<Integer, Optional<Integer>>> x = List.of(
+                Series.datapoint(1, Optional.of(10)),
+                Series.datapoint(5, Optional.of(10)),
+                Series.datapoint(7, Optional.of(100)),
+                Series.datapoint(10, Optional.empty()));
+
+        final var expected = Series.merge(x).stream().toArray();
+        assertArrayEquals(expected, Series.encode(x).merge().stream().toArray());
+    }
+
+    @Test
+    public void unionTest() {
+        final var random = new Random(42);
+        for (var n = 0; n < 20; n++) {
+            final var left = new ArrayList<DataPoint<Integer, Integer>>();
+            final var right = new ArrayList<DataPoint<Integer, Integer>>();
+            for (var i = 0; i < 50; i++) {
+                if (random.nextBoolean())
+                    left.add(Series.datapoint(i, random.nextInt(3)));
+                if (random.nextBoolean())
+                    right.add(Series.datapoint(i, random.nextInt(3)));
+            }
+
+            final var expected = Series.union(left, right, x -> x).stream().toArray();
+            final var actual = Series.union(Series.encode(left), Series.encode(right), x -> x, new Dictionary<>())
+                    .stream().toArray();
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void memoizedResolverTest() {
+        final var calls = new AtomicInteger();
+        final var left = new ArrayList<DataPoint<Integer, Integer>>();
+        final var right = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 100; i++) {
+            left.add(Series.datapoint(i, i % 2));
+            right.add(Series.datapoint(i, 1));
+        }
+
+        final var actual = Series.union(Series.encode(left), Series.encode(right), x -> {
+            calls.incrementAndGet();
+            return x;
+        }, new Dictionary<>());
+
+        assertEquals(100, actual.size());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void unsortedTest() {
+        final var x = List.of(Series.datapoint(2, "b"), Series.datapoint(1, "a"));
+        assertThrows(IllegalArgumentException.class, () -> Series.encode(x));
+    }
+}
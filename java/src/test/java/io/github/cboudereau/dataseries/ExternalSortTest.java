@@ -0,0 +1,170 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ExternalSortTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        final var iterator = Series.sort(x, Codec.ofInteger(), Codec.ofString(), 2, (a, b) -> b, directory)
+                .iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+    }
+
+    @Test
+    public void invalidBudgetTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        final var series = Series.sort(x, Codec.ofInteger(), Codec.ofString(), 0, (a, b) -> b, directory);
+        assertThrows(IllegalArgumentException.class, () -> series.iterator());
+    }
+
+    @Test
+    public void duplicatesTest() {
+        final var x = List.of(
+                Series.datapoint(3, "c"),
+                Series.datapoint(1, "a1"),
+                Series.datapoint(2, "b"),
+                Series.datapoint(1, "a2"),
+                Series.datapoint(3, "c2"),
+                Series.datapoint(1, "a3"));
+
+        final var actual = Series.sort(x, Codec.ofInteger(), Codec.ofString(), 2, (a, b) -> a + "+" + b, directory)
+                .stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, "a1+a2+a3"),
+                Series.datapoint(2, "b"),
+                Series.datapoint(3, "c+c2")).toArray();
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void spillTest() throws IOException {
+        final var random = new Random(42);
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 1000; i++) {
+            x.add(Series.datapoint(random.nextInt(), i));
+        }
+
+        final var actual = Series.sort(x, Codec.ofInteger(), Codec.ofInteger(), 64, (a, b) -> b, directory)
+                .stream().toArray();
+
+        final var expected = x.stream().sorted(Comparator.comparing(DataPoint::point)).toArray();
+
+        assertArrayEquals(expected, actual);
+        try (final var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private final long files() throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static final List<DataPoint<Integer, Integer>> random(final Integer size) {
+        final var random = new Random(42);
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < size; i++) {
+            x.add(Series.datapoint(random.nextInt(500), i));
+        }
+        return x;
+    }
+
+    @Test
+    public void multiPassTest() throws IOException {
+        final var x = random(1000);
+        final var sort = new ExternalSort<>(x.iterator(), Codec.ofInteger(), Codec.ofInteger(), 10, 3,
+                (a, b) -> a + b, directory);
+        final var actual = new ArrayList<DataPoint<Integer, Integer>>();
+        sort.forEachRemaining(actual::add);
+
+        final var expected = Series.sort(x, Codec.ofInteger(), Codec.ofInteger(), 1000, (a, b) -> a + b, directory)
+                .stream().toArray();
+        assertArrayEquals(expected, actual.toArray());
+        assertEquals(0, files());
+    }
+
+    @Test
+    public void abandonTest() throws IOException {
+        final var x = random(1000);
+        try (final var sorted = Series.sort(x, Codec.ofInteger(), Codec.ofInteger(), 64, (a, b) -> b, directory)
+                .stream()) {
+            assertEquals(3, sorted.limit(3).count());
+            assertTrue(files() > 0);
+        }
+        assertEquals(0, files());
+
+        final var iterator = Series.sort(x, KeyCodec.ofInteger(), Codec.ofInteger(), 64, (a, b) -> b, directory)
+                .iterator();
+        iterator.next();
+        iterator.close();
+        iterator.close();
+        assertFalse(iterator.hasNext());
+        assertEquals(0, files());
+    }
+
+    @Test
+    public void failureTest() throws IOException {
+        final var x = random(1000);
+        final Iterable<DataPoint<Integer, Integer>> failing = () -> x.stream().map(y -> {
+            if (y.data() == 500)
+                throw new IllegalStateException("source failure");
+            return y;
+        }).iterator();
+        final var iterator = Series.sort(failing, Codec.ofInteger(), Codec.ofInteger(), 64, (a, b) -> b, directory)
+                .iterator();
+        assertThrows(IllegalStateException.class, () -> iterator.hasNext());
+        assertEquals(0, files());
+
+        final var codec = Codec.<Integer>of((output, value) -> {
+            if (value == 500)
+                throw new IOException("disk full");
+            output.writeInt(value);
+        }, input -> input.readInt());
+        final var sort = Series.sort(x, Codec.ofInteger(), codec, 64, (a, b) -> b, directory);
+        assertThrows(UncheckedIOException.class, () -> sort.iterator().hasNext());
+        assertEquals(0, files());
+    }
+
+    @Test
+    public void unionTest() {
+        final var left = List.of(Series.datapoint(3, 120), Series.datapoint(10, 95), Series.datapoint(1, 130));
+        final var right = List.of(Series.datapoint(2, 120), Series.datapoint(10, 95));
+
+        final var actual = Series.union(Series.sort(left, Codec.ofInteger(), Codec.ofInteger(), 1, (a, b) -> b,
+                directory), right, x -> x).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, UnionResult.leftOnly(130)),
+                Series.datapoint(2, UnionResult.both(130, 120)),
+                Series.datapoint(3, UnionResult.both(120, 120)),
+                Series.datapoint(10, UnionResult.both(95, 95))).toArray();
+
+        assertArrayEquals(expected, actual);
+    }
+}
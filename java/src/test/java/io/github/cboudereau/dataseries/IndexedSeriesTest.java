@@ -0,0 +1,94 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+public class IndexedSeriesTest {
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        final var actual = Series.index(x);
+        assertEquals(0, actual.size());
+        assertEquals(Optional.empty(), actual.valueAt(1));
+        assertArrayEquals(new Object[] {}, actual.stream().toArray());
+    }
+
+    @Test
+    public void unsortedTest() {
+        final var x = List.of(Series.datapoint(2, "b"), Series.datapoint(1, "a"));
+        assertThrows(IllegalArgumentException.class, () -> Series.index(x));
+    }
+
+    @Test
+    public void valueAtTest() {
+        final var x = List.of(Series.datapoint(1, "a"), Series.datapoint(3, "b"), Series.datapoint(10, "c"));
+        final var actual = Series.index(x);
+
+        assertEquals(Optional.empty(), actual.valueAt(0));
+        assertEquals(Optional.of("a"), actual.valueAt(1));
+        assertEquals(Optional.of("a"), actual.valueAt(2));
+        assertEquals(Optional.of("b"), actual.valueAt(3));
+        assertEquals(Optional.of("b"), actual.valueAt(9));
+        assertEquals(Optional.of("c"), actual.valueAt(10));
+        assertEquals(Optional.of("c"), actual.valueAt(100));
+        assertArrayEquals(x.toArray(), actual.stream().toArray());
+    }
+
+    @Test
+    public void valueAtAllSizesTest() {
+        for (var n = 0; n < 70; n++) {
+            final var x = new ArrayList<DataPoint<Integer, Integer>>();
+            for (var i = 0; i < n; i++) {
+                x.add(Series.datapoint(i * 2, i));
+            }
+            final var actual = Series.index(x);
+            for (var p = -1; p < 2 * n + 1; p++) {
+                final var expected = p < 0 ? Optional.empty() : Optional.of(Math.min(p / 2, n - 1));
+                assertEquals(n == 0 ? Optional.empty() : expected, actual.valueAt(p));
+            }
+        }
+    }
+
+    @Test
+    public void valuesAtTest() {
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 100; i++) {
+            x.add(Series.datapoint(i * 10, i));
+        }
+        final var actual = Series.index(x);
+        final var probes = List.of(-5, 0, 5, 15, 15, 16, 500, 505, 990, 2000);
+
+        final var expected = probes.stream().map(actual::valueAt).toList();
+
+        assertEquals(expected, actual.valuesAt(probes));
+    }
+
+    @Test
+    public void unsortedValuesAtTest() {
+        final var actual = Series.index(List.of(Series.datapoint(1, "a")));
+        assertThrows(IllegalArgumentException.class, () -> actual.valuesAt(List.of(2, 1)));
+    }
+
+    @Test
+    public void unionTest() {
+        final var left = Series.index(List.of(Series.datapoint(1, 130), Series.datapoint(3, 120)));
+        final var right = Series.index(List.of(Series.datapoint(2, 120)));
+
+        final var actual = Series.union(left, right, x -> x).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, UnionResult.leftOnly(130)),
+                Series.datapoint(2, UnionResult.both(130, 120)),
+                Series.datapoint(3, UnionResult.both(120, 120))).toArray();
+
+        assertArrayEquals(expected, actual);
+    }
+}
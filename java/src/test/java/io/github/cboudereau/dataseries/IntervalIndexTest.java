@@ -0,0 +1,192 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class IntervalIndexTest {
+
+    private static final List<DataPoint<Integer, Optional<Integer>>> random(final Random random) {
+        final var series = new ArrayList<DataPoint<Integer, Optional<Integer>>>();
+        final var size = random.nextInt(6);
+        var point = random.nextInt(1_000);
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(point, random.nextInt(3) == 0 ? Optional.empty()
+                    : Optional.of(random.nextInt(100))));
+            point += 1 + random.nextInt(100);
+        }
+        return series;
+    }
+
+    private static final Map<Integer, Optional<Integer>> stab(
+            final Map<Integer, List<DataPoint<Integer, Optional<Integer>>>> series, final Integer point) {
+        final var expected = new HashMap<Integer, Optional<Integer>>();
+        series.forEach((key, x) -> {
+            Optional<Integer> value = Optional.empty();
+            for (final var y : x) {
+                if (y.point() <= point)
+                    value = y.data();
+            }
+            value.ifPresent(v -> expected.put(key, Optional.of(v)));
+        });
+        return expected;
+    }
+
+    private static final Set<Integer> overlap(final Map<Integer, List<DataPoint<Integer, Optional<Integer>>>> series,
+            final Integer from, final Integer to) {
+        final var expected = new HashSet<Integer>();
+        series.forEach((key, x) -> {
+            for (var i = 0; i < x.size(); i++) {
+                final var end = i + 1 < x.size() ? x.get(i + 1).point() : Integer.MAX_VALUE;
+                if (x.get(i).data().isPresent() && x.get(i).point() < to && end > from
+                        && x.get(i).point() < end)
+                    expected.add(key);
+            }
+        });
+        return expected;
+    }
+
+    private static final void assertIndex(final Map<Integer, List<DataPoint<Integer, Optional<Integer>>>> series,
+            final IntervalIndex<Integer, Integer, Optional<Integer>> index, final Random random) {
+        for (var i = 0; i < 50; i++) {
+            final var point = random.nextInt(1_500);
+            assertEquals(stab(series, point), index.stab(point));
+
+            final var to = point + 1 + random.nextInt(100);
+            final var actual = index.overlap(point, to);
+            assertEquals(overlap(series, point, to), actual.keySet());
+            actual.forEach((key, x) -> assertArrayEquals(Series.window(series.get(key), point, to).stream().toArray(),
+                    x.stream().toArray()));
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        final var index = Series.<Integer, Integer, Optional<Integer>>intervals(Optional::isEmpty);
+        assertEquals(Map.of(), index.stab(42));
+        assertEquals(Map.of(), index.overlap(0, 100));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void queryTest() {
+        final var random = new Random(42);
+        final var series = new HashMap<Integer, List<DataPoint<Integer, Optional<Integer>>>>();
+        for (var key = 0; key < 2_000; key++) {
+            series.put(key, random(random));
+        }
+        assertIndex(series, Series.intervals(series, Optional::isEmpty), random);
+    }
+
+    @Test
+    public void updateTest() {
+        final var random = new Random(42);
+        final var series = new HashMap<Integer, List<DataPoint<Integer, Optional<Integer>>>>();
+        final var index = Series.<Integer, Integer, Optional<Integer>>intervals(Optional::isEmpty);
+        for (var i = 0; i < 5_000; i++) {
+            final var key = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                series.remove(key);
+                index.remove(key);
+            } else {
+                final var x = random(random);
+                series.put(key, x);
+                index.put(key, x);
+            }
+        }
+        assertIndex(series, index, random);
+    }
+
+    @Test
+    public void appendTest() {
+        final var random = new Random(42);
+        final var series = new HashMap<Integer, List<DataPoint<Integer, Optional<Integer>>>>();
+        final var index = Series.<Integer, Integer, Optional<Integer>>intervals(Optional::isEmpty);
+        for (var key = 0; key < 200; key++) {
+            final var x = random(random);
+            series.put(key, new ArrayList<>(x));
+            index.put(key, series.get(key));
+        }
+
+        for (var i = 0; i < 5_000; i++) {
+            final var key = random.nextInt(200);
+            final var x = series.get(key);
+            final var point = x.isEmpty() ? random.nextInt(1_000) : x.get(x.size() - 1).point() + random.nextInt(20);
+            final var data = random.nextInt(3) == 0 ? Optional.<Integer>empty() : Optional.of(random.nextInt(100));
+            x.add(Series.datapoint(point, data));
+            index.append(key, point, data);
+        }
+
+        final var rebuilt = Series.intervals(series, Optional::isEmpty);
+        assertEquals(rebuilt.size(), index.size());
+        assertIndex(series, index, random);
+    }
+
+    @Test
+    public void liveTest() {
+        final var live = Series.<Integer, Optional<Integer>>live();
+        final var index = Series.<String, Integer, Optional<Integer>>intervals(Optional::isEmpty);
+        index.put("a", live);
+        assertEquals(Map.of(), index.stab(1));
+
+        live.append(1, Optional.of(10));
+        index.append("a", 1, Optional.of(10));
+        live.append(5, Optional.empty());
+        index.append("a", 5, Optional.empty());
+        live.append(8, Optional.of(20));
+        index.append("a", 8, Optional.of(20));
+
+        assertEquals(2, index.size());
+        assertEquals(Map.of("a", Optional.of(10)), index.stab(4));
+        assertEquals(Map.of(), index.stab(6));
+        assertEquals(Map.of("a", Optional.of(20)), index.stab(100));
+        assertArrayEquals(new Object[] { Series.datapoint(3, Optional.of(10)), Series.datapoint(5, Optional.empty()) },
+                index.overlap(3, 6).get("a").stream().toArray());
+
+        assertThrows(IllegalArgumentException.class, () -> index.append("a", 7, Optional.of(1)));
+        assertThrows(IllegalArgumentException.class, () -> index.append("b", 7, Optional.of(1)));
+    }
+
+    @Test
+    public void unionTest() {
+        final var index = Series.intervals(Map.of(
+                "a", List.of(Series.datapoint(1, Optional.of(10)), Series.datapoint(5, Optional.<Integer>empty())),
+                "b", List.of(Series.datapoint(3, Optional.of(20))),
+                "c", List.of(Series.datapoint(8, Optional.of(30)))), Optional::isEmpty);
+
+        assertEquals(Map.of("a", Optional.of(10), "b", Optional.of(20)), index.stab(4));
+        assertEquals(Map.of("b", Optional.of(20)), index.stab(5));
+        assertEquals(Map.of(), index.overlap(4, 4));
+
+        final var overlap = index.overlap(2, 6);
+        assertEquals(Set.of("a", "b"), overlap.keySet());
+        final var union = Series.union(overlap.get("a"), overlap.get("b"),
+                UnionResolver.<Optional<Integer>, Optional<Integer>, Integer>of(x -> switch (x) {
+                    case final UnionResult.LeftOnly<Optional<Integer>, Optional<Integer>> l -> l.left().orElse(0);
+                    case final UnionResult.RightOnly<Optional<Integer>, Optional<Integer>> r -> r.right().orElse(0);
+                    case final UnionResult.Both<Optional<Integer>, Optional<Integer>> b -> b.left().orElse(0)
+                            + b.right().orElse(0);
+                }));
+        assertArrayEquals(new Object[] { Series.datapoint(2, 10), Series.datapoint(3, 30), Series.datapoint(5, 20) },
+                union.stream().toArray());
+    }
+
+    @Test
+    public void invalidTest() {
+        final var index = Series.<Integer, Integer, Optional<Integer>>intervals(Optional::isEmpty);
+        assertThrows(IllegalArgumentException.class,
+                () -> index.put(1, List.of(Series.datapoint(2, Optional.of(1)), Series.datapoint(1, Optional.of(1)))));
+        assertThrows(IllegalArgumentException.class, () -> index.overlap(2, 1));
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class KeyCodecTest {
+
+    private static record Date(Integer year, Integer month, Integer day) implements Comparable<Date> {
+        @Override
+        public int compareTo(final Date o) {
+            return Comparator.comparing(Date::year).thenComparing(Date::month).thenComparing(Date::day).compare(this,
+                    o);
+        }
+    }
+
+    private static record Event(Instant timestamp, Long sequence) implements Comparable<Event> {
+        @Override
+        public int compareTo(final Event o) {
+            return Comparator.comparing(Event::timestamp).thenComparing(Event::sequence).compare(this, o);
+        }
+    }
+
+    private static final KeyCodec<Date> DATE = KeyCodec.of(
+            x -> LocalDate.of(x.year(), x.month(), x.day()).toEpochDay(),
+            x -> {
+                final var date = LocalDate.ofEpochDay(x);
+                return new Date(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            });
+
+    private static final KeyCodec<Event> EVENT = KeyCodec.of(KeyCodec.ofLong(), KeyCodec.ofLong(), 20,
+            (final Event x) -> x.timestamp().toEpochMilli(), Event::sequence,
+            (timestamp, sequence) -> new Event(Instant.ofEpochMilli(timestamp), sequence));
+
+    private static final <P extends Comparable<? super P>> void assertOrdered(final KeyCodec<P> codec, final List<P> points) {
+        for (final var x : points) {
+            assertEquals(x, codec.decode(codec.encode(x)));
+            for (final var y : points) {
+                assertEquals(Integer.signum(x.compareTo(y)), Long.signum(Long.compare(codec.encode(x), codec.encode(y))),
+                        x + " " + y);
+            }
+        }
+    }
+
+    private static final <T> List<T> random(final Integer size, final Function<Random, T> f) {
+        final var random = new Random(42);
+        final var values = new ArrayList<T>();
+        for (var i = 0; i < size; i++) {
+            values.add(f.apply(random));
+        }
+        return values;
+    }
+
+    @Test
+    public void orderTest() {
+        assertOrdered(KeyCodec.ofInteger(), random(100, Random::nextInt));
+        assertOrdered(KeyCodec.ofLong(), random(100, Random::nextLong));
+        assertOrdered(KeyCodec.ofInstant(),
+                random(100, r -> Instant.ofEpochSecond(r.nextInt() * 2L, r.nextInt(1_000_000_000))));
+        assertOrdered(KeyCodec.ofLocalDate(),
+                random(100, r -> LocalDate.ofEpochDay(r.nextInt(1_000_000) - 500_000)));
+        assertOrdered(DATE, random(100, r -> new Date(1900 + r.nextInt(200), 1 + r.nextInt(12), 1 + r.nextInt(28))));
+        assertOrdered(EVENT, random(100,
+                r -> new Event(Instant.ofEpochMilli(r.nextInt(1_000) - 500), (long) r.nextInt(1 << 20))));
+    }
+
+    @Test
+    public void invalidTest() {
+        assertThrows(IllegalArgumentException.class, () -> KeyCodec.ofInstant().encode(Instant.MAX));
+        assertThrows(IllegalArgumentException.class, () -> EVENT.encode(new Event(Instant.EPOCH, -1L)));
+        assertThrows(IllegalArgumentException.class, () -> EVENT.encode(new Event(Instant.EPOCH, 1L << 20)));
+        assertThrows(IllegalArgumentException.class,
+                () -> EVENT.encode(new Event(Instant.ofEpochMilli(Long.MAX_VALUE), 0L)));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeyCodec.<Long, Long, Long>of(KeyCodec.ofLong(), KeyCodec.ofLong(), 63, x -> x, x -> x,
+                        (x, y) -> x));
+    }
+
+    @Test
+    public void codecTest() throws IOException {
+        final var codec = EVENT.codec();
+        final var event = new Event(Instant.ofEpochMilli(42), 7L);
+        final var bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), event);
+        assertEquals(8, bytes.size());
+        assertEquals(event, codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    @Test
+    public void unionTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 20; i++) {
+            final var points = new TreeMap<Date, Integer>();
+            for (var j = 0; j < 50; j++) {
+                points.put(new Date(2020 + random.nextInt(3), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                        random.nextInt(3));
+            }
+            final var left = points.entrySet().stream().map(x -> Series.datapoint(x.getKey(), x.getValue())).toList();
+            final var right = new ArrayList<DataPoint<Date, Integer>>();
+            var day = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(100));
+            for (var j = 0; j < 30; j++) {
+                right.add(Series.datapoint(new Date(day.getYear(), day.getMonthValue(), day.getDayOfMonth()),
+                        random.nextInt(3)));
+                day = day.plusDays(1 + random.nextInt(40));
+            }
+
+            final var resolver = UnionResolver.<Integer, Integer, String>of(x -> x.toString());
+            final var expected = Series.union(left, right, resolver).stream().toArray();
+            assertArrayEquals(expected, Series.union(left, right, resolver, DATE).stream().toArray());
+        }
+    }
+
+    @Test
+    public void sortTest(@TempDir final Path directory) {
+        final var x = random(1_000, r -> Series.datapoint(
+                new Event(Instant.ofEpochMilli(r.nextInt(100)), (long) r.nextInt(10)), r.nextInt(100)));
+
+        final var points = new TreeMap<Event, Integer>();
+        x.forEach(y -> points.merge(y.point(), y.data(), Integer::sum));
+        final var expected = points.entrySet().stream().map(y -> Series.datapoint(y.getKey(), y.getValue())).toArray();
+        final var actual = Series.sort(x, EVENT, Codec.ofInteger(), 100, Integer::sum, directory).stream().toArray();
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void offHeapTest() {
+        final List<DataPoint<LocalDate, Double>> x = List.of(new DataPoint<>(LocalDate.of(2024, 1, 1), 1.0),
+                new DataPoint<>(LocalDate.of(2024, 2, 1), 2.0));
+        final var key = KeyCodec.ofLocalDate();
+        try (final var series = Series.offHeap(x, key)) {
+            assertEquals(OptionalDouble.of(1.0), series.valueAt(key.encode(LocalDate.of(2024, 1, 15))));
+            assertEquals(OptionalDouble.empty(), series.valueAt(key.encode(LocalDate.of(2023, 12, 31))));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+public class LiveSeriesTest {
+
+    private static final List<DataPoint<Integer, Integer>> series(final Integer size) {
+        final var series = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(i * 2, i));
+        }
+        return series;
+    }
+
+    @Test
+    public void emptyTest() {
+        final var series = Series.<Integer, Integer>live();
+        assertArrayEquals(new Object[] {}, series.stream().toArray());
+        assertEquals(0, series.size());
+        assertEquals(Optional.empty(), series.valueAt(42));
+    }
+
+    @Test
+    public void appendTest() {
+        final var expected = series(5_000);
+        final var series = Series.<Integer, Integer>live();
+        series.append(expected);
+
+        assertEquals(expected.size(), series.size());
+        assertArrayEquals(expected.toArray(), series.stream().toArray());
+        assertEquals(Optional.empty(), series.valueAt(-1));
+        assertEquals(Optional.of(1_500), series.valueAt(3_001));
+        assertEquals(Optional.of(4_999), series.valueAt(100_000));
+    }
+
+    @Test
+    public void snapshotTest() {
+        final var series = Series.<Integer, Integer>live();
+        series.append(series(3));
+        final var iterator = series.iterator();
+        series.append(10, 10);
+
+        var count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(3, count);
+        assertEquals(4, series.stream().count());
+    }
+
+    @Test
+    public void windowTest() {
+        final var expected = series(3_000);
+        final var series = Series.<Integer, Integer>live();
+        series.append(expected);
+
+        assertArrayEquals(Series.window(expected, 1_001, 4_000).stream().toArray(),
+                Series.window(series, 1_001, 4_000).stream().toArray());
+    }
+
+    @Test
+    public void unionTest() {
+        final var left = series(2_000);
+        final var right = List.of(Series.datapoint(1, 1), Series.datapoint(3_001, 2));
+        final var series = Series.<Integer, Integer>live();
+        series.append(left);
+
+        final var f = UnionResolver.<Integer, Integer, String>of(x -> x.toString());
+        assertArrayEquals(Series.union(left, right, f).stream().toArray(),
+                Series.union(series, right, f).stream().toArray());
+    }
+
+    @Test
+    public void concurrentReadsTest() throws InterruptedException {
+        final var expected = series(200_000);
+        final var series = Series.<Integer, Integer>live();
+        final var isDone = new AtomicBoolean(false);
+        final var error = new AtomicReference<Throwable>();
+
+        final var readers = new ArrayList<Thread>();
+        for (var i = 0; i < 4; i++) {
+            final var reader = new Thread(() -> {
+                try {
+                    while (!isDone.get()) {
+                        final var size = series.size();
+                        var count = 0;
+                        for (final var x : series) {
+                            assertEquals(expected.get(count), x);
+                            count++;
+                        }
+                        assertTrue(count >= size);
+                    }
+                } catch (final Throwable e) {
+                    error.set(e);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+
+        series.append(expected);
+        isDone.set(true);
+        for (final var reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(null, error.get());
+        assertArrayEquals(expected.toArray(), series.stream().toArray());
+    }
+
+    @Test
+    public void unsortedTest() {
+        final var series = Series.<Integer, Integer>live();
+        series.append(2, 1);
+        series.append(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> series.append(1, 1));
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+public class LogStructuredSeriesTest {
+    /**
+     * The greatest version wins, 0 marks the end of an interval
+     */
+    private static final UnionResolver<Integer, Integer, Integer> resolver = new UnionResolver<>() {
+        @Override
+        public Integer leftOnly(final Integer left) {
+            return left;
+        }
+
+        @Override
+        public Integer rightOnly(final Integer right) {
+            return right;
+        }
+
+        @Override
+        public Integer both(final Integer left, final Integer right) {
+            return Math.max(left, right);
+        }
+    };
+
+    private static final List<List<DataPoint<Integer, Integer>>> updates(final Integer count) {
+        final var random = new Random(42);
+        final var updates = new ArrayList<List<DataPoint<Integer, Integer>>>();
+        for (var i = 1; i <= count; i++) {
+            final var start = random.nextInt(1000);
+            updates.add(List.of(Series.datapoint(start, i), Series.datapoint(start + 1 + random.nextInt(50), 0)));
+        }
+        return updates;
+    }
+
+    private static final Object[] expected(final List<List<DataPoint<Integer, Integer>>> updates) {
+        Iterable<DataPoint<Integer, Integer>> expected = List.of();
+        for (final var update : updates) {
+            expected = Series.index(Series.union(expected, update, resolver));
+        }
+        return Series.index(expected).stream().toArray();
+    }
+
+    @Test
+    public void emptyTest() {
+        final var series = Series.<Integer, Integer>logStructured(resolver, 4);
+        assertArrayEquals(new Object[] {}, series.stream().toArray());
+        assertEquals(0, series.runs());
+    }
+
+    @Test
+    public void intervalUpsertTest() {
+        final var series = Series.<Integer, Integer>logStructured(resolver, 4);
+        series.upsert(List.of(Series.datapoint(3, 1), Series.datapoint(10, 0)));
+        series.upsert(List.of(Series.datapoint(4, 2), Series.datapoint(5, 0)));
+        series.upsert(List.of(Series.datapoint(7, 3), Series.datapoint(9, 0)));
+
+        final var expected = List.of(
+                Series.datapoint(3, 1),
+                Series.datapoint(4, 2),
+                Series.datapoint(5, 1),
+                Series.datapoint(7, 3),
+                Series.datapoint(9, 1),
+                Series.datapoint(10, 0)).toArray();
+        assertArrayEquals(expected, Series.merge(series).stream().toArray());
+    }
+
+    @Test
+    public void sameAsUnionTest() throws InterruptedException {
+        final var updates = updates(500);
+        final var series = Series.<Integer, Integer>logStructured(resolver, 16);
+        for (final var update : updates) {
+            series.upsert(update);
+        }
+
+        final var expected = expected(updates);
+        assertArrayEquals(expected, series.stream().toArray());
+
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (series.runs() > 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(series.runs() <= 8, "runs are tiered by background compaction: " + series.runs());
+        assertArrayEquals(expected, series.stream().toArray());
+
+        series.compact();
+        assertEquals(1, series.runs());
+        assertArrayEquals(expected, series.stream().toArray());
+    }
+
+    @Test
+    public void windowTest() {
+        final var updates = updates(100);
+        final var series = Series.<Integer, Integer>logStructured(resolver, 8);
+        for (final var update : updates) {
+            series.upsert(update);
+        }
+
+        final var full = Series.index(series);
+        assertArrayEquals(Series.window(full, 200, 400).stream().toArray(),
+                Series.window(series, 200, 400).stream().toArray());
+    }
+
+    @Test
+    public void concurrentReadsTest() throws InterruptedException {
+        final var updates = updates(300);
+        final var series = Series.<Integer, Integer>logStructured(resolver, 8);
+        final var isDone = new AtomicBoolean(false);
+        final var error = new AtomicReference<Throwable>();
+
+        final var reader = new Thread(() -> {
+            try {
+                while (!isDone.get()) {
+                    Integer previous = null;
+                    for (final var x : series) {
+                        assertTrue(previous == null || previous < x.point());
+                        previous = x.point();
+                    }
+                }
+            } catch (final Throwable e) {
+                error.set(e);
+            }
+        });
+        reader.start();
+        for (final var update : updates) {
+            series.upsert(update);
+        }
+        isDone.set(true);
+        reader.join();
+
+        assertEquals(null, error.get());
+        assertArrayEquals(expected(updates), series.stream().toArray());
+    }
+
+    @Test
+    public void invalidCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> Series.<Integer, Integer>logStructured(resolver, 0));
+    }
+
+    @Test
+    public void unsortedUpdateTest() {
+        final var series = Series.<Integer, Integer>logStructured(resolver, 8);
+        assertThrows(IllegalArgumentException.class,
+                () -> series.upsert(List.of(Series.datapoint(2, 1), Series.datapoint(1, 1))));
+    }
+
+    @Test
+    public void overlappingUpdatesTest() {
+        final var sum = UnionResolver.<Integer, Integer, Integer>of(x -> switch (x) {
+            case final UnionResult.LeftOnly<Integer, Integer> l -> l.left();
+            case final UnionResult.RightOnly<Integer, Integer> r -> r.right();
+            case final UnionResult.Both<Integer, Integer> b -> b.left() + b.right();
+        });
+        final var random = new Random(42);
+        for (var i = 0; i < 200; i++) {
+            final var series = Series.<Integer, Integer>logStructured(sum, 1 + random.nextInt(32));
+            Iterable<DataPoint<Integer, Integer>> expected = List.of();
+            for (var j = 0; j < 20; j++) {
+                final var update = new ArrayList<DataPoint<Integer, Integer>>();
+                var point = random.nextInt(100);
+                for (var k = random.nextInt(6); k >= 0; k--) {
+                    update.add(Series.datapoint(point, random.nextInt(10)));
+                    point += random.nextInt(3);
+                }
+                series.upsert(update);
+                final var last = new TreeMap<Integer, Integer>();
+                update.forEach(x -> last.put(x.point(), x.data()));
+                final var distinct = last.entrySet().stream().map(x -> Series.datapoint(x.getKey(), x.getValue()))
+                        .toList();
+                expected = Series.index(Series.union(expected, distinct, sum));
+            }
+            assertArrayEquals(Series.index(expected).stream().toArray(), series.stream().toArray());
+        }
+    }
+
+    @Test
+    public void compactionFailureTest() throws InterruptedException {
+        final var failing = new UnionResolver<Integer, Integer, Integer>() {
+            @Override
+            public Integer leftOnly(final Integer left) {
+                return left;
+            }
+
+            @Override
+            public Integer rightOnly(final Integer right) {
+                return right;
+            }
+
+            @Override
+            public Integer both(final Integer left, final Integer right) {
+                if (Thread.currentThread().getName().equals("dataseries-compaction"))
+                    throw new IllegalArgumentException("compaction failure");
+                return Math.max(left, right);
+            }
+        };
+        final var series = Series.<Integer, Integer>logStructured(failing, 8);
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        IllegalStateException failure = null;
+        for (final var update : updates(10_000)) {
+            try {
+                series.upsert(update);
+            } catch (final IllegalStateException e) {
+                failure = e;
+                break;
+            }
+            if (System.nanoTime() > deadline)
+                break;
+        }
+
+        assertTrue(failure != null, "the compaction failure is thrown by a later flush");
+        assertEquals("compaction failure", failure.getCause().getMessage());
+        assertThrows(IllegalStateException.class, () -> series.flush());
+        assertThrows(IllegalStateException.class, () -> series.compact());
+        assertThrows(IllegalStateException.class, () -> series.iterator());
+    }
+}
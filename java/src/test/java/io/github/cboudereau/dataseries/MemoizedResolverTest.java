@@ -0,0 +1,141 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class MemoizedResolverTest {
+    private static final List<DataPoint<Integer, Integer>> left = List.of(
+            Series.datapoint(1, 1), Series.datapoint(2, 2), Series.datapoint(3, 1), Series.datapoint(4, 2),
+            Series.datapoint(5, 2), Series.datapoint(6, 1));
+    private static final List<DataPoint<Integer, Integer>> right = List.of(
+            Series.datapoint(2, 10), Series.datapoint(5, 10));
+
+    private static final UnionResolver<Integer, Integer, String> counting(final AtomicInteger calls) {
+        return UnionResolver.of(x -> {
+            calls.incrementAndGet();
+            return x.toString();
+        });
+    }
+
+    @Test
+    public void sameAsResolverTest() {
+        final var calls = new AtomicInteger();
+        final var memoized = Series.memoize(counting(calls), 16);
+
+        final var expected = Series.union(left, right, counting(new AtomicInteger())).stream().toArray();
+        assertArrayEquals(expected, Series.union(left, right, memoized).stream().toArray());
+
+        // leftOnly(1), both(2, 10) and both(1, 10)
+        assertEquals(3, calls.get());
+        assertEquals(new MemoizedResolver.Stats(1, 2, 3), memoized.stats());
+        assertEquals(0.5, memoized.stats().hitRate());
+    }
+
+    @Test
+    public void perIterationCacheTest() {
+        final var calls = new AtomicInteger();
+        final var memoized = Series.memoize(counting(calls), 16);
+        final var union = Series.union(left, right, memoized);
+
+        final var first = union.iterator();
+        final var second = union.iterator();
+        final var actual = new ArrayList<DataPoint<Integer, String>>();
+        while (first.hasNext() && second.hasNext()) {
+            actual.add(first.next());
+            assertEquals(actual.get(actual.size() - 1), second.next());
+        }
+
+        assertEquals(6, calls.get());
+        assertEquals(new MemoizedResolver.Stats(2, 4, 6), memoized.stats());
+    }
+
+    private static final void assertForked(final Iterator<DataPoint<Integer, String>> first,
+            final Iterator<DataPoint<Integer, String>> second, final AtomicInteger calls) {
+        final var expected = Series.union(left, right, counting(new AtomicInteger())).stream().toArray();
+        final var actual = new ArrayList<DataPoint<Integer, String>>();
+        while (first.hasNext() && second.hasNext()) {
+            actual.add(first.next());
+            assertEquals(actual.get(actual.size() - 1), second.next());
+        }
+        assertArrayEquals(expected, actual.toArray());
+        assertEquals(6, calls.get());
+    }
+
+    @Test
+    public void forkedEntryPointsTest() {
+        final var keyedCalls = new AtomicInteger();
+        final var keyed = Series.memoize(counting(keyedCalls), 16);
+        final var union = Series.union(left, right, keyed, KeyCodec.ofInteger());
+        assertForked(union.iterator(), union.iterator(), keyedCalls);
+
+        final var checkpointedCalls = new AtomicInteger();
+        final var checkpointed = Series.memoize(counting(checkpointedCalls), 16);
+        assertForked(Series.checkpointedUnion(left, right, checkpointed),
+                Series.checkpointedUnion(left, right, checkpointed), checkpointedCalls);
+
+        final var descendingCalls = new AtomicInteger();
+        final var descending = Series.memoize(counting(descendingCalls), 16);
+        final var descendingUnion = Series.union(left, right, descending);
+        final var first = Series.descending(descendingUnion).iterator();
+        final var second = Series.descending(descendingUnion).iterator();
+        while (first.hasNext() && second.hasNext()) {
+            assertEquals(first.next(), second.next());
+        }
+        assertEquals(6, descendingCalls.get());
+
+        final var stateless = counting(new AtomicInteger());
+        assertSame(stateless, stateless.fork());
+        final var memoized = Series.memoize(stateless, 16);
+        assertNotSame(memoized, memoized.fork());
+    }
+
+    @Test
+    public void evictionTest() {
+        final var calls = new AtomicInteger();
+        final var memoized = Series.memoize(counting(calls), 1);
+
+        final var expected = Series.union(left, right, counting(new AtomicInteger())).stream().toArray();
+        assertArrayEquals(expected, Series.union(left, right, memoized).stream().toArray());
+
+        assertEquals(5, calls.get());
+        assertEquals(new MemoizedResolver.Stats(1, 0, 5), memoized.stats());
+    }
+
+    @Test
+    public void cursorTest() {
+        final var calls = new AtomicInteger();
+        final var memoized = Series.<Integer, Integer, UnionResult<Integer, Integer>>memoize(x -> {
+            calls.incrementAndGet();
+            return x;
+        }, 16);
+
+        final var cursor = Series.union(Series.cursor(left), Series.cursor(right), memoized);
+        final var actual = new ArrayList<DataPoint<Integer, UnionResult<Integer, Integer>>>();
+        while (cursor.advance()) {
+            actual.add(Series.datapoint(cursor.point(), cursor.data()));
+        }
+
+        assertArrayEquals(Series.union(left, right, x -> x).stream().toArray(), actual.toArray());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void emptyStatsTest() {
+        assertEquals(0, Series.memoize(counting(new AtomicInteger()), 1).stats().hitRate());
+    }
+
+    @Test
+    public void invalidCapacityTest() {
+        assertThrows(IllegalArgumentException.class, () -> Series.memoize(counting(new AtomicInteger()), 0));
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+public class OffHeapSeriesTest {
+
+    @Test
+    public void emptyTest() {
+        try (final var series = Series.offHeap(List.of())) {
+            assertEquals(0, series.size());
+            assertEquals(OptionalDouble.empty(), series.valueAt(1));
+            assertArrayEquals(new Object[] {}, series.stream().toArray());
+        }
+    }
+
+    @Test
+    public void sameAsSourceTest() {
+        final var x = new ArrayList<DataPoint<Long, Double>>();
+        for (var i = 0; i < 1000; i++) {
+            x.add(Series.datapoint(2L * i, i / 2.0));
+        }
+
+        try (final var series = Series.offHeap(x)) {
+            assertEquals(x.size(), series.size());
+            assertArrayEquals(x.toArray(), series.stream().toArray());
+
+            final var cursor = series.cursor();
+            for (final var expected : x) {
+                cursor.advance();
+                assertEquals(expected.point(), cursor.point());
+                assertEquals(expected.data(), cursor.data());
+            }
+        }
+    }
+
+    @Test
+    public void valueAtTest() {
+        final var x = List.of(Series.datapoint(1L, 10.0), Series.datapoint(5L, 20.0), Series.datapoint(9L, 30.0));
+        try (final var series = Series.offHeap(x)) {
+            assertEquals(OptionalDouble.empty(), series.valueAt(0));
+            assertEquals(OptionalDouble.of(10.0), series.valueAt(1));
+            assertEquals(OptionalDouble.of(10.0), series.valueAt(4));
+            assertEquals(OptionalDouble.of(20.0), series.valueAt(5));
+            assertEquals(OptionalDouble.of(30.0), series.valueAt(100));
+        }
+    }
+
+    @Test
+    public void closedTest() {
+        final var series = Series.offHeap(List.of(Series.datapoint(1L, 10.0)));
+        series.close();
+        series.close();
+        assertThrows(IllegalStateException.class, () -> series.valueAt(1));
+    }
+
+    @Test
+    public void unsortedTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Series.offHeap(List.of(Series.datapoint(5L, 1.0), Series.datapoint(1L, 2.0))));
+
+        final Iterable<DataPoint<Long, Double>> failing = () -> LongStream.range(0, 100)
+                .mapToObj(x -> {
+                    if (x == 50)
+                        throw new IllegalStateException("source failure");
+                    return Series.datapoint(x, 1.0);
+                }).iterator();
+        assertThrows(IllegalStateException.class, () -> Series.offHeap(failing));
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class ParallelMergeTest {
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.parallelMerge(Series.index(x)).stream().toArray());
+    }
+
+    @Test
+    public void runAcrossChunksTest() {
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 3 * ParallelMerge.CHUNK; i++) {
+            x.add(Series.datapoint(i, i < ParallelMerge.CHUNK / 2 ? 1 : 2));
+        }
+
+        final var expected = List.of(Series.datapoint(0, 1), Series.datapoint(ParallelMerge.CHUNK / 2, 2)).toArray();
+        assertArrayEquals(expected, Series.parallelMerge(Series.index(x)).stream().toArray());
+    }
+
+    @Test
+    public void sameAsSequentialTest() {
+        final var random = new Random(42);
+        final var pool = new ForkJoinPool(4);
+        try {
+            for (final var size : List.of(1, 17, ParallelMerge.CHUNK, ParallelMerge.CHUNK + 1,
+                    5 * ParallelMerge.CHUNK + 17)) {
+                final var x = new ArrayList<DataPoint<Integer, Integer>>();
+                for (var i = 0; i < size; i++) {
+                    x.add(Series.datapoint(i, random.nextInt(3) == 0 ? random.nextInt(3) : 0));
+                }
+                final var expected = Series.merge(x).stream().toArray();
+                final var actual = Series.parallelMerge(Series.index(x), pool).stream().toArray();
+                assertArrayEquals(expected, actual);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+public class PrefetchTest {
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.prefetch(x, 1).stream().toArray());
+    }
+
+    @Test
+    public void sameAsSourceTest() {
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 5 * Prefetch.BATCH + 17; i++) {
+            x.add(Series.datapoint(i, i % 7));
+        }
+        assertArrayEquals(x.toArray(), Series.prefetch(x, 2).stream().toArray());
+    }
+
+    @Test
+    public void parallelUnionTest() {
+        final var left = List.of(Series.datapoint(1, 130), Series.datapoint(3, 120), Series.datapoint(10, 95));
+        final var right = List.of(Series.datapoint(2, 105), Series.datapoint(10, 110));
+
+        final var expected = Series.union(left, right, x -> x).stream().toArray();
+        assertArrayEquals(expected, Series.parallelUnion(left, right, x -> x, 1).stream().toArray());
+    }
+
+    @Test
+    public void errorTest() {
+        final Iterable<DataPoint<Integer, Integer>> x = () -> new Iterator<DataPoint<Integer, Integer>>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                if (this.i == 3)
+                    throw new IllegalStateException("source failure");
+                return Series.datapoint(this.i++, 0);
+            }
+        };
+
+        final var iterator = Series.prefetch(x, 1).iterator();
+        final var error = assertThrows(IllegalStateException.class, () -> {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        });
+        assertEquals("source failure", error.getMessage());
+    }
+
+    @Test
+    public void closeTest() throws InterruptedException {
+        final var producer = new ArrayBlockingQueue<Thread>(1);
+        final Iterable<DataPoint<Integer, Integer>> x = () -> new Iterator<DataPoint<Integer, Integer>>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                producer.offer(Thread.currentThread());
+                return true;
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                return Series.datapoint(this.i++, 0);
+            }
+        };
+
+        try (final var iterator = new Prefetch<>(x.iterator(), 1)) {
+            assertEquals(Series.datapoint(0, 0), iterator.next());
+        }
+        final var thread = producer.take();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(thread.isAlive());
+    }
+
+    private static final Iterable<DataPoint<Integer, Integer>> endless(final Consumer<Thread> producers) {
+        return () -> new Iterator<DataPoint<Integer, Integer>>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                producers.accept(Thread.currentThread());
+                return true;
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                return Series.datapoint(this.i++, 0);
+            }
+        };
+    }
+
+    private static final void abandon(final Iterable<DataPoint<Integer, Integer>> x) {
+        final var iterator = Series.prefetch(x, 1).iterator();
+        assertEquals(Series.datapoint(0, 0), iterator.next());
+    }
+
+    @Test
+    public void abandonTest() throws InterruptedException {
+        final var producers = new ArrayBlockingQueue<Thread>(1);
+        abandon(endless(producers::offer));
+        final var thread = producers.take();
+
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (thread.isAlive() && System.nanoTime() < deadline) {
+            System.gc();
+            thread.join(100);
+        }
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void closeParallelUnionTest() throws InterruptedException {
+        final var producers = ConcurrentHashMap.<Thread>newKeySet();
+        try (final var union = Series.parallelUnion(endless(producers::add), endless(producers::add), x -> x, 1)
+                .stream()) {
+            assertEquals(3, union.limit(3).count());
+        }
+        assertEquals(2, producers.size());
+        for (final var thread : producers) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    public void invalidCapacityTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Series.prefetch(List.of(Series.datapoint(1, 1)), 0).iterator());
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+public class QueryTest {
+
+    private static final Integer sum(final UnionResult<Integer, Integer> x) {
+        return switch (x) {
+            case final UnionResult.LeftOnly<Integer, Integer> l -> l.left();
+            case final UnionResult.RightOnly<Integer, Integer> r -> r.right();
+            case final UnionResult.Both<Integer, Integer> b -> b.left() + b.right();
+        };
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Integer>> x = List.of();
+        assertArrayEquals(new Object[] {}, Series.query(x).merge().map(y -> y + 1).stream().toArray());
+        assertArrayEquals(new Object[] {}, Series.query(x).window(1, 10).stream().toArray());
+    }
+
+    @Test
+    public void sameAsSeriesTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 20; i++) {
+            final var x = RandomSeries.of(random, 200);
+            final var y = Series.index(RandomSeries.of(random, 100));
+
+            final var expected = Series.window(
+                    Series.merge(Series.union(x, y, QueryTest::sum).stream().map(z -> Series.datapoint(z.point(),
+                            z.data() % 2)).toList()),
+                    50, 150).stream().toArray();
+
+            final var actual = Series.query(x).union(y, QueryTest::sum).map(z -> z % 2).merge().window(50, 150)
+                    .stream().toArray();
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void explainTest() {
+        final var x = List.of(Series.datapoint(1, 1), Series.datapoint(5, 2));
+        final var y = Series.index(List.of(Series.datapoint(2, 10), Series.datapoint(3, 20), Series.datapoint(8, 30)));
+
+        final var query = Series.query(x).union(y, QueryTest::sum).map(z -> z * 2).map(z -> z + 1).merge().merge()
+                .window(2, 6);
+
+        final var expected = """
+                merge
+                  union size=5 fused map
+                    source size=2 window [2, 6) scan
+                    source size=3 window [2, 6) seek
+                """;
+        assertEquals(expected, query.explain());
+
+        final var actual = List.of(
+                Series.datapoint(2, 23),
+                Series.datapoint(3, 43),
+                Series.datapoint(5, 45)).toArray();
+        assertArrayEquals(actual, query.stream().toArray());
+    }
+
+    @Test
+    public void combineTest() {
+        final BinaryOperator<Integer> add = Integer::sum;
+        final var large = RandomSeries.of(new Random(1), 100);
+        final var medium = Series.index(RandomSeries.of(new Random(2), 10));
+        final var small = List.of(Series.datapoint(5, 100));
+
+        final var query = Series.query(large).combine(medium, add).combine(small, add);
+        final var expected = """
+                combine size=111
+                  source size=1
+                  source size=10
+                  source size=100
+                """;
+        assertEquals(expected, query.explain());
+
+        final var sequential = Series.union(Series.union(large, medium, QueryTest::sum), small, QueryTest::sum);
+        assertArrayEquals(sequential.stream().toArray(), query.stream().toArray());
+    }
+
+    @Test
+    public void combineNotFlattenedTest() {
+        final var x = List.of(Series.datapoint(1, 1));
+        final var query = Series.query(x).combine(x, Integer::sum).combine(x, Math::max);
+        final var expected = """
+                combine size=3
+                  source size=1
+                  combine size=2
+                    source size=1
+                    source size=1
+                """;
+        assertEquals(expected, query.explain());
+    }
+
+    @Test
+    public void filterIsNotWindowedTest() {
+        final var x = List.of(Series.datapoint(1, 1), Series.datapoint(3, 2), Series.datapoint(5, 3));
+        final var query = Series.query(x).filter(y -> y != 2).window(4, 10);
+
+        final var expected = """
+                window [4, 10)
+                  filter
+                    source size=3
+                """;
+        assertEquals(expected, query.explain());
+        assertArrayEquals(List.of(Series.datapoint(4, 1), Series.datapoint(5, 3)).toArray(),
+                query.stream().toArray());
+    }
+
+    @Test
+    public void nestedQueryTest() {
+        final var x = List.of(Series.datapoint(1, 1), Series.datapoint(3, 2));
+        final var y = Series.query(List.of(Series.datapoint(2, 10))).map(z -> z + 1);
+
+        final var expected = List.of(Series.datapoint(1, 1), Series.datapoint(2, 12), Series.datapoint(3, 13))
+                .toArray();
+        assertArrayEquals(expected, Series.query(x).union(y, QueryTest::sum).stream().toArray());
+    }
+
+    @Test
+    public void memoizedResolverTest() {
+        final var x = List.of(Series.datapoint(1, 1), Series.datapoint(2, 1), Series.datapoint(3, 1));
+        final var resolver = Series.memoize(QueryTest::sum, 8);
+        final var query = Series.query(x).union(x, resolver).map(z -> z + 1);
+
+        assertArrayEquals(query.stream().toArray(), query.stream().toArray());
+        assertEquals(new MemoizedResolver.Stats(4, 0, 2), resolver.stats());
+    }
+
+    @Test
+    public void invalidWindowTest() {
+        final var x = List.of(Series.datapoint(1, 1));
+        assertThrows(IllegalArgumentException.class, () -> Series.query(x).window(2, 1));
+    }
+}
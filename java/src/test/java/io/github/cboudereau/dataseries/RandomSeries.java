@@ -0,0 +1,48 @@
+package io.github.cboudereau.dataseries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random step series shared by the tests
+ */
+final class RandomSeries {
+
+    private RandomSeries() {
+    }
+
+    /**
+     * A sorted series of the given size with distinct points
+     */
+    static List<DataPoint<Integer, Integer>> of(final Random random, final Integer size) {
+        return of(random, size, 5);
+    }
+
+    /**
+     * A sorted series of the given size with distinct points at most the step
+     * apart
+     */
+    static List<DataPoint<Integer, Integer>> of(final Random random, final Integer size, final Integer step) {
+        final var series = new ArrayList<DataPoint<Integer, Integer>>();
+        var point = random.nextInt(step);
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(point, random.nextInt(3)));
+            point += 1 + random.nextInt(step);
+        }
+        return series;
+    }
+
+    /**
+     * A sorted series of the given size which repeats points
+     */
+    static List<DataPoint<Integer, Integer>> repeated(final Random random, final Integer size) {
+        final var series = new ArrayList<DataPoint<Integer, Integer>>();
+        var point = random.nextInt(5);
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(point, random.nextInt(3)));
+            point += random.nextInt(3);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+public class ReorderTest {
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, String>> x = List.of();
+        final var iterator = Series.reorder(x, p -> p - 2, late -> {
+        }).iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+    }
+
+    @Test
+    public void jitterTest() {
+        final var x = List.of(
+                Series.datapoint(2, "b"),
+                Series.datapoint(1, "a"),
+                Series.datapoint(3, "c"),
+                Series.datapoint(5, "e"),
+                Series.datapoint(4, "d"),
+                Series.datapoint(6, "f"));
+        final var late = new ArrayList<DataPoint<Integer, String>>();
+
+        final var actual = Series.reorder(x, p -> p - 2, late::add).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, "a"),
+                Series.datapoint(2, "b"),
+                Series.datapoint(3, "c"),
+                Series.datapoint(4, "d"),
+                Series.datapoint(5, "e"),
+                Series.datapoint(6, "f")).toArray();
+
+        assertArrayEquals(expected, actual);
+        assertArrayEquals(new Object[] {}, late.toArray());
+    }
+
+    @Test
+    public void lateTest() {
+        final var x = List.of(
+                Series.datapoint(1, "a"),
+                Series.datapoint(5, "e"),
+                Series.datapoint(2, "b"),
+                Series.datapoint(4, "d"),
+                Series.datapoint(6, "f"));
+        final var late = new ArrayList<DataPoint<Integer, String>>();
+
+        final var actual = Series.reorder(x, p -> p - 2, late::add).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, "a"),
+                Series.datapoint(4, "d"),
+                Series.datapoint(5, "e"),
+                Series.datapoint(6, "f")).toArray();
+
+        assertArrayEquals(expected, actual);
+        assertArrayEquals(new Object[] { Series.datapoint(2, "b") }, late.toArray());
+    }
+
+    @Test
+    public void samePointIsStableTest() {
+        final var x = List.of(
+                Series.datapoint(2, "b1"),
+                Series.datapoint(1, "a"),
+                Series.datapoint(2, "b2"));
+
+        final var actual = Series.reorder(x, p -> p - 1, late -> {
+        }).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, "a"),
+                Series.datapoint(2, "b1"),
+                Series.datapoint(2, "b2")).toArray();
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void unionTest() {
+        final var left = List.of(Series.datapoint(3, 120), Series.datapoint(1, 130), Series.datapoint(10, 95));
+        final var right = List.of(Series.datapoint(2, 120), Series.datapoint(10, 95));
+
+        final var actual = Series.union(Series.reorder(left, p -> p - 5, late -> {
+        }), right, x -> x).stream().toArray();
+
+        final var expected = List.of(
+                Series.datapoint(1, UnionResult.leftOnly(130)),
+                Series.datapoint(2, UnionResult.both(130, 120)),
+                Series.datapoint(3, UnionResult.both(120, 120)),
+                Series.datapoint(10, UnionResult.both(95, 95))).toArray();
+
+        assertArrayEquals(expected, actual);
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.cboudereau.dataseries.Union.Value;
+
+public class SegmentStoreTest {
+    private static final List<DataPoint<Integer, String>> series = List.of(
+            Series.datapoint(1, "a"), Series.datapoint(5, "b"),
+            Series.datapoint(12, "c"), Series.datapoint(18, "d"),
+            Series.datapoint(35, "e"),
+            Series.datapoint(41, "f"), Series.datapoint(49, "g"));
+
+    private static final SegmentStore<Integer, String> store = Series.segment(series, x -> x / 10);
+
+    @Test
+    public void segmentsTest() {
+        final var segments = store.segments();
+        assertEquals(4, segments.size());
+        assertEquals(7, store.size());
+
+        assertEquals(1, segments.get(0).first());
+        assertEquals(5, segments.get(0).last());
+        assertEquals(2, segments.get(0).count());
+        assertEquals(Optional.empty(), segments.get(0).entry());
+
+        assertEquals(35, segments.get(2).first());
+        assertEquals(35, segments.get(2).last());
+        assertEquals(1, segments.get(2).count());
+        assertEquals(Optional.of("d"), segments.get(2).entry());
+
+        assertArrayEquals(series.toArray(), store.stream().toArray());
+    }
+
+    @Test
+    public void sameAsWindowTest() {
+        for (var from = 0; from < 55; from++) {
+            for (var to = from; to < 55; to++) {
+                final var expected = Series.window(series, from, to).stream().toArray();
+                assertArrayEquals(expected, Series.window(store, from, to).stream().toArray(), from + ".." + to);
+            }
+        }
+    }
+
+    @Test
+    public void carryInTest() {
+        final var expected = List.of(Series.datapoint(25, "d"), Series.datapoint(35, "e")).toArray();
+        assertArrayEquals(expected, Series.window(store, 25, 40).stream().toArray());
+        assertEquals(List.of(store.segments().get(2)), store.plan(Window.Range.of(25, Value.fixed(40))));
+    }
+
+    @Test
+    public void pruningTest() {
+        assertEquals(store.segments().subList(1, 2), store.plan(Window.Range.of(12, Value.fixed(19))));
+        assertEquals(store.segments().subList(1, 3), store.plan(Window.Range.of(15, Value.fixed(36))));
+        assertEquals(store.segments().subList(3, 4), store.plan(Window.Range.of(100, Value.fixed(200))));
+        assertEquals(List.of(), store.plan(Window.Range.of(12, Value.fixed(12))));
+    }
+
+    @Test
+    public void unionPushdownTest() {
+        final var right = List.of(Series.datapoint(20, 1), Series.datapoint(44, 2));
+        final var expected = Series.window(Series.union(series, right, x -> x), 15, 45).stream().toArray();
+        assertArrayEquals(expected, Series.window(Series.union(store, right, x -> x), 15, 45).stream().toArray());
+    }
+
+    @Test
+    public void appendTest() {
+        final var appended = Series.segment(series.subList(0, 3), x -> x / 10).append(series.subList(3, 7));
+        assertArrayEquals(series.toArray(), appended.stream().toArray());
+        assertEquals(Optional.of("c"), appended.segments().get(2).entry());
+        assertArrayEquals(Series.window(series, 13, 42).stream().toArray(),
+                Series.window(appended, 13, 42).stream().toArray());
+    }
+
+    @Test
+    public void unsortedTest() {
+        assertThrows(IllegalArgumentException.class, () -> store.append(List.of(Series.datapoint(49, "x"))));
+    }
+}
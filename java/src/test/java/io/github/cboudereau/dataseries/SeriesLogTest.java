@@ -0,0 +1,182 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SeriesLogTest {
+    private static final UnionResolver<Integer, Integer, Integer> resolver = new UnionResolver<>() {
+        @Override
+        public Integer leftOnly(final Integer left) {
+            return left;
+        }
+
+        @Override
+        public Integer rightOnly(final Integer right) {
+            return right;
+        }
+
+        @Override
+        public Integer both(final Integer left, final Integer right) {
+            return Math.max(left, right);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    private final SeriesLog<Integer, Integer> open(final Integer snapshotInterval) {
+        return Series.log(this.directory, Codec.ofInteger(), Codec.ofInteger(), resolver, 8, snapshotInterval);
+    }
+
+    private static final List<List<DataPoint<Integer, Integer>>> updates(final Integer count) {
+        final var random = new Random(42);
+        final var updates = new ArrayList<List<DataPoint<Integer, Integer>>>();
+        for (var i = 1; i <= count; i++) {
+            final var start = random.nextInt(500);
+            updates.add(List.of(Series.datapoint(start, i), Series.datapoint(start + 1 + random.nextInt(50), 0)));
+        }
+        return updates;
+    }
+
+    private static final Object[] expected(final List<List<DataPoint<Integer, Integer>>> updates) {
+        Iterable<DataPoint<Integer, Integer>> expected = List.of();
+        for (final var update : updates) {
+            expected = Series.index(Series.union(expected, update, resolver));
+        }
+        return Series.merge(expected).stream().toArray();
+    }
+
+    private final List<Path> segments() throws IOException {
+        try (final var files = Files.list(this.directory)) {
+            return files.filter(x -> x.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+    }
+
+    @Test
+    public void recoveryTest() {
+        final var updates = updates(100);
+        try (final var log = open(1000)) {
+            updates.forEach(log::upsert);
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+        }
+        try (final var log = open(1000)) {
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+        }
+    }
+
+    @Test
+    public void groupCommitTest() {
+        final var updates = updates(200);
+        try (final var log = open(1000)) {
+            final var appends = updates.stream().map(log::append).toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(appends).join();
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+        }
+        try (final var log = open(1000)) {
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+        }
+    }
+
+    @Test
+    public void snapshotTest() throws IOException {
+        final var updates = updates(100);
+        try (final var log = open(30)) {
+            updates.forEach(log::upsert);
+            log.snapshot().join();
+        }
+        assertTrue(Files.exists(this.directory.resolve("snapshot.bin")));
+        assertEquals(1, segments().size());
+        assertEquals(0, Files.size(segments().get(0)));
+
+        try (final var log = open(30)) {
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+            log.upsert(List.of(Series.datapoint(1000, 1000)));
+        }
+        try (final var log = open(30)) {
+            assertEquals(Series.datapoint(1000, 1000), Series.window(log, 1000, 1001).stream().findFirst().get());
+        }
+    }
+
+    @Test
+    public void tornTailTest() throws IOException {
+        final var updates = updates(20);
+        try (final var log = open(1000)) {
+            updates.forEach(log::upsert);
+        }
+
+        final var segment = segments().get(segments().size() - 1);
+        final var size = Files.size(segment);
+        Files.write(segment, new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+
+        try (final var log = open(1000)) {
+            assertArrayEquals(expected(updates), Series.merge(log).stream().toArray());
+            assertEquals(size, Files.size(segment));
+        }
+    }
+
+    @Test
+    public void corruptedRecordTest() throws IOException {
+        final var updates = updates(20);
+        try (final var log = open(1000)) {
+            updates.forEach(log::upsert);
+        }
+
+        final var segment = segments().get(segments().size() - 1);
+        final var bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 3] ^= 0x7F;
+        Files.write(segment, bytes);
+
+        try (final var log = open(1000)) {
+            assertArrayEquals(expected(updates.subList(0, 19)), Series.merge(log).stream().toArray());
+        }
+    }
+
+    @Test
+    public void closedTest() {
+        final var log = open(1000);
+        log.close();
+        log.close();
+        assertThrows(IllegalStateException.class, () -> log.append(List.of(Series.datapoint(1, 1))));
+    }
+
+    @Test
+    public void concurrentCloseTest() throws InterruptedException {
+        for (var attempt = 0; attempt < 20; attempt++) {
+            final var log = open(1000);
+            final var writers = new ArrayList<Thread>();
+            for (var i = 0; i < 4; i++) {
+                final var writer = new Thread(() -> {
+                    for (var j = 0; j < 200; j++) {
+                        try {
+                            log.upsert(List.of(Series.datapoint(j, j)));
+                        } catch (final IllegalStateException e) {
+                            return;
+                        }
+                    }
+                });
+                writer.start();
+                writers.add(writer);
+            }
+            log.close();
+            for (final var writer : writers) {
+                writer.join(10_000);
+                assertFalse(writer.isAlive());
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SketchTest {
+
+    private static final List<DataPoint<Integer, Double>> random(final Integer size) {
+        final var random = new Random(42);
+        final var series = new ArrayList<DataPoint<Integer, Double>>();
+        for (var i = 0; i < size; i++) {
+            series.add(Series.datapoint(i, random.nextDouble()));
+        }
+        return series;
+    }
+
+    private static final double exact(final List<DataPoint<Integer, Double>> series, final double q) {
+        final var values = series.stream().mapToDouble(DataPoint::data).sorted().toArray();
+        return values[(int) Math.min(values.length - 1, Math.floor(q * values.length))];
+    }
+
+    private static final <T> T roundtrip(final Codec<T> codec, final T value) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(bytes), value);
+        return codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void emptyTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        assertTrue(Double.isNaN(Series.quantiles(x, 100.0).quantile(0.5)));
+        assertEquals(0, Series.quantiles(x, 100.0).count());
+        assertEquals(0, Series.distinct(x, 10).count());
+    }
+
+    @Test
+    public void quantileTest() {
+        final var x = random(100_000);
+        final var sketch = Series.quantiles(x, 100.0);
+        assertEquals(x.size(), sketch.count());
+        assertTrue(sketch.centroids() < 200, "centroids " + sketch.centroids());
+        for (final var q : List.of(0.01, 0.1, 0.5, 0.9, 0.99, 0.999)) {
+            assertEquals(exact(x, q), sketch.quantile(q), 0.005, "q" + q);
+        }
+        assertEquals(0, sketch.quantile(0), 0.001);
+        assertEquals(1, sketch.quantile(1), 0.001);
+    }
+
+    @Test
+    public void weightedQuantileTest() {
+        final var random = new Random(42);
+        final var x = new ArrayList<DataPoint<Integer, Double>>();
+        final var expanded = new ArrayList<DataPoint<Integer, Double>>();
+        var point = 0;
+        for (var i = 0; i < 10_000; i++) {
+            final var value = random.nextDouble();
+            final var duration = 1 + random.nextInt(10);
+            x.add(Series.datapoint(point, value));
+            for (var j = 0; j < duration; j++) {
+                expanded.add(Series.datapoint(point + j, value));
+            }
+            point += duration;
+        }
+        x.add(Series.datapoint(point, 42.0));
+
+        final var sketch = Series.quantiles(x, p -> p, 100.0);
+        assertEquals(expanded.size(), sketch.count());
+        for (final var q : List.of(0.01, 0.5, 0.99)) {
+            assertEquals(exact(expanded, q), sketch.quantile(q), 0.01, "q" + q);
+        }
+        assertTrue(sketch.quantile(1) < 1);
+    }
+
+    @Test
+    public void mergeQuantileTest() throws IOException {
+        final var x = random(50_000);
+        final var store = Series.segment(x, p -> p / 10_000);
+        var merged = Series.quantiles(List.of(), 100.0);
+        for (final var segment : store.segments()) {
+            merged = merged.merge(roundtrip(QuantileSketch.codec(), Series.quantiles(segment.series(), 100.0)));
+        }
+
+        assertEquals(x.size(), merged.count());
+        for (final var q : List.of(0.01, 0.5, 0.99)) {
+            assertEquals(exact(x, q), merged.quantile(q), 0.01, "q" + q);
+        }
+    }
+
+    @Test
+    public void distinctTest() {
+        final var random = new Random(42);
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 200_000; i++) {
+            x.add(Series.datapoint(i, random.nextInt(100_000)));
+        }
+        final var exact = x.stream().map(DataPoint::data).distinct().count();
+
+        final var sketch = Series.distinct(x, 14);
+        assertEquals(exact, sketch.count(), exact * 0.03);
+
+        final var small = Series.distinct(List.of(Series.datapoint(1, "a"), Series.datapoint(2, "b"),
+                Series.datapoint(3, "a")), 14);
+        assertEquals(2, small.count());
+    }
+
+    @Test
+    public void hashCollisionTest() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        final var strings = Series.distinct(List.of(Series.datapoint(1, "Aa"), Series.datapoint(2, "BB")), 14);
+        assertEquals(2, strings.count());
+
+        final List<DataPoint<Integer, Object>> numbers = List.of(Series.datapoint(1, 1L), Series.datapoint(2, 1),
+                Series.datapoint(3, Double.doubleToLongBits(1.0)), Series.datapoint(4, 1.0));
+        assertEquals(4, Series.distinct(numbers, 14).count());
+
+        final List<DataPoint<Integer, List<Integer>>> lists = List.of(Series.datapoint(1, List.of(0, 31)),
+                Series.datapoint(2, List.of(1, 0)));
+        assertEquals(List.of(0, 31).hashCode(), List.of(1, 0).hashCode());
+        assertEquals(1, Series.distinct(lists, 14).count());
+        assertEquals(2, Series.distinct(lists, x -> DistinctSketch.hash(x.toString()), 14).count());
+    }
+
+    @Test
+    public void mergeDistinctTest() throws IOException {
+        final var x = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 30_000; i++) {
+            x.add(Series.datapoint(i, i % 20_000));
+        }
+        final var store = Series.segment(x, p -> p / 7_000);
+        var merged = Series.distinct(List.of(), 12);
+        for (final var segment : store.segments()) {
+            merged = merged.merge(roundtrip(DistinctSketch.codec(), Series.distinct(segment.series(), 12)));
+        }
+        assertEquals(Series.distinct(x, 12).count(), merged.count());
+    }
+
+    @Test
+    public void invalidTest() {
+        final List<DataPoint<Integer, Double>> x = List.of();
+        assertThrows(IllegalArgumentException.class, () -> Series.quantiles(x, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> Series.distinct(x, 3));
+        assertThrows(IllegalArgumentException.class, () -> Series.quantiles(x, 100.0).quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> Series.quantiles(x, 100.0).add(1, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> Series.distinct(x, 10).merge(Series.distinct(x, 12)));
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+public class TeeTest {
+
+    private static final UnionResolver<Integer, Integer, String> resolver = UnionResolver.of(x -> x.toString());
+
+    private static final Iterable<DataPoint<Integer, Integer>> counted(final List<DataPoint<Integer, Integer>> series,
+            final AtomicInteger reads) {
+        return () -> {
+            final var iterator = series.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public DataPoint<Integer, Integer> next() {
+                    reads.incrementAndGet();
+                    return iterator.next();
+                }
+            };
+        };
+    }
+
+    @Test
+    public void threadsTest() throws InterruptedException {
+        final var random = new Random(42);
+        final var base = RandomSeries.of(random, 10_000, 10);
+        final var overrides = List.of(RandomSeries.of(random, 100, 1_000), RandomSeries.of(random, 10_000, 10),
+                RandomSeries.of(random, 50_000, 2));
+        final var reads = new AtomicInteger();
+        final var branches = Series.tee(counted(base, reads), overrides.size(), 16);
+
+        final var actual = new ArrayList<AtomicReference<Object[]>>();
+        final var threads = new ArrayList<Thread>();
+        for (var i = 0; i < overrides.size(); i++) {
+            final var branch = branches.get(i);
+            final var override = overrides.get(i);
+            final var result = new AtomicReference<Object[]>();
+            actual.add(result);
+            final var thread = new Thread(() -> result.set(Series.union(branch, override, resolver).stream().toArray()));
+            thread.start();
+            threads.add(thread);
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(base.size(), reads.get());
+        for (var i = 0; i < overrides.size(); i++) {
+            assertArrayEquals(Series.union(base, overrides.get(i), resolver).stream().toArray(), actual.get(i).get());
+        }
+    }
+
+    @Test
+    public void driveTest() {
+        final var random = new Random(42);
+        final var base = RandomSeries.of(random, 10_000, 10);
+        final var overrides = List.of(RandomSeries.of(random, 100, 1_000), RandomSeries.of(random, 10_000, 10),
+                RandomSeries.of(random, 50_000, 2));
+        final var reads = new AtomicInteger();
+
+        final List<Function<IterableSeries<Integer, Integer>, ? extends Iterable<DataPoint<Integer, String>>>> consumers;
+        consumers = new ArrayList<>();
+        final var actual = new ArrayList<List<DataPoint<Integer, String>>>();
+        for (final var override : overrides) {
+            consumers.add(x -> Series.union(x, override, resolver));
+            actual.add(new ArrayList<>());
+        }
+        Series.drive(counted(base, reads), 4, consumers, (i, x) -> actual.get(i).add(x));
+
+        assertEquals(base.size(), reads.get());
+        for (var i = 0; i < overrides.size(); i++) {
+            assertArrayEquals(Series.union(base, overrides.get(i), resolver).stream().toArray(),
+                    actual.get(i).toArray());
+        }
+    }
+
+    @Test
+    public void capacityTest() {
+        final var base = RandomSeries.of(new Random(42), 1_000, 10);
+        final List<Function<IterableSeries<Integer, Integer>, ? extends Iterable<DataPoint<Integer, Integer>>>> consumers;
+        consumers = List.of(x -> x, x -> () -> x.stream().filter(y -> y.data() > 5).iterator());
+        assertThrows(IllegalStateException.class, () -> Series.drive(base, 4, consumers, (i, x) -> {
+        }));
+    }
+
+    @Test
+    public void closeTest() throws InterruptedException {
+        final var base = RandomSeries.of(new Random(42), 10_000, 10);
+        final var branches = Series.tee(base, 2, 4);
+        final var result = new AtomicReference<Object[]>();
+        final var thread = new Thread(() -> result.set(branches.get(0).stream().toArray()));
+        thread.start();
+        try (final var iterator = branches.get(1).iterator()) {
+            iterator.next();
+        }
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        assertArrayEquals(base.toArray(), result.get());
+    }
+
+    @Test
+    public void sourceFailureTest() throws InterruptedException {
+        final Iterable<DataPoint<Integer, Integer>> failing = () -> new Iterator<>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                if (this.count == 100)
+                    throw new IllegalArgumentException("source failure");
+                return Series.datapoint(this.count++, 0);
+            }
+        };
+        final var branches = Series.tee(failing, 2, 4);
+        final var error = new AtomicReference<Throwable>();
+        final var thread = new Thread(() -> {
+            try {
+                branches.get(0).stream().toArray();
+            } catch (final RuntimeException e) {
+                error.set(e);
+            }
+        });
+        thread.start();
+        assertThrows(RuntimeException.class, () -> branches.get(1).stream().toArray());
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        assertTrue(error.get() != null);
+    }
+
+    @Test
+    public void fetchOutsideLockTest() throws InterruptedException {
+        final var base = RandomSeries.of(new Random(42), 10, 10);
+        final var latch = new CountDownLatch(1);
+        final Iterable<DataPoint<Integer, Integer>> slow = () -> new Iterator<>() {
+            private final Iterator<DataPoint<Integer, Integer>> iterator = base.iterator();
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.iterator.hasNext();
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                if (this.count++ == 2) {
+                    try {
+                        latch.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return this.iterator.next();
+            }
+        };
+        final var branches = Series.tee(slow, 2, 4);
+        final var fast = branches.get(0).iterator();
+        fast.next();
+        fast.next();
+        final var thread = new Thread(() -> fast.next());
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING)
+            Thread.sleep(1);
+
+        final var behind = branches.get(1).iterator();
+        assertEquals(base.get(0), behind.next());
+        assertEquals(base.get(1), behind.next());
+        latch.countDown();
+        thread.join();
+        fast.close();
+        final var rest = new ArrayList<DataPoint<Integer, Integer>>();
+        behind.forEachRemaining(rest::add);
+        assertEquals(base.subList(2, base.size()), rest);
+    }
+
+    @Test
+    public void invalidTest() {
+        final var base = RandomSeries.of(new Random(42), 10, 10);
+        assertThrows(IllegalArgumentException.class, () -> Series.tee(base, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> Series.tee(base, 2, 0));
+
+        final var branch = Series.tee(base, 1, 4).get(0);
+        assertArrayEquals(base.toArray(), branch.stream().toArray());
+        assertThrows(IllegalStateException.class, () -> branch.iterator());
+    }
+}
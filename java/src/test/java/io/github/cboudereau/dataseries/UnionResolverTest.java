@@ -0,0 +1,112 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class UnionResolverTest {
+    private static final List<DataPoint<Integer, Integer>> left = List.of(
+            Series.datapoint(1, 130), Series.datapoint(3, 120), Series.datapoint(10, 95), Series.datapoint(20, 160));
+    private static final List<DataPoint<Integer, Integer>> right = List.of(
+            Series.datapoint(3, 105), Series.datapoint(12, 110));
+
+    private static final UnionResolver<Integer, Integer, String> resolver = new UnionResolver<>() {
+        @Override
+        public String leftOnly(final Integer left) {
+            return left + ",";
+        }
+
+        @Override
+        public String rightOnly(final Integer right) {
+            return "," + right;
+        }
+
+        @Override
+        public String both(final Integer left, final Integer right) {
+            return left + "," + right;
+        }
+    };
+
+    @Test
+    public void resolverTest() {
+        final var expected = List.of(
+                Series.datapoint(1, "130,"),
+                Series.datapoint(3, "120,105"),
+                Series.datapoint(10, "95,105"),
+                Series.datapoint(12, "95,110"),
+                Series.datapoint(20, "160,110")).toArray();
+
+        assertArrayEquals(expected, Series.union(left, right, resolver).stream().toArray());
+        assertArrayEquals(expected, Series.union(right, left, UnionResolver.<Integer, Integer, String>of(x -> switch (x) {
+            case final UnionResult.LeftOnly<Integer, Integer> l -> "," + l.left();
+            case final UnionResult.RightOnly<Integer, Integer> r -> r.right() + ",";
+            case final UnionResult.Both<Integer, Integer> b -> b.right() + "," + b.left();
+        })).stream().toArray());
+    }
+
+    @Test
+    public void cursorTest() {
+        final var cursor = Series.union(Series.cursor(left), Series.cursor(right), resolver);
+        final var actual = new ArrayList<DataPoint<Integer, String>>();
+        while (cursor.advance()) {
+            actual.add(Series.datapoint(cursor.point(), cursor.data()));
+        }
+        assertArrayEquals(Series.union(left, right, resolver).stream().toArray(), actual.toArray());
+    }
+
+    @Test
+    public void primitiveCursorTest() {
+        final var sum = Series.union(Series.cursor(left), Series.cursor(right), new UnionResolver.ToDouble<Integer, Integer>() {
+            @Override
+            public double leftOnly(final Integer left) {
+                return left;
+            }
+
+            @Override
+            public double rightOnly(final Integer right) {
+                return right;
+            }
+
+            @Override
+            public double both(final Integer left, final Integer right) {
+                return left + right;
+            }
+        });
+
+        var total = 0.0;
+        while (sum.advance()) {
+            total += sum.data();
+        }
+        assertEquals(130 + 225 + 200 + 205 + 270, total);
+
+        final var max = Series.union(Series.cursor(left), Series.cursor(right), new UnionResolver.ToLong<Integer, Integer>() {
+            @Override
+            public long leftOnly(final Integer left) {
+                return left;
+            }
+
+            @Override
+            public long rightOnly(final Integer right) {
+                return right;
+            }
+
+            @Override
+            public long both(final Integer left, final Integer right) {
+                return Math.max(left, right);
+            }
+        });
+
+        final var points = new ArrayList<Integer>();
+        final var values = new ArrayList<Long>();
+        while (max.advance()) {
+            points.add(max.point());
+            values.add(max.data());
+        }
+        assertEquals(List.of(1, 3, 10, 12, 20), points);
+        assertEquals(List.of(130L, 120L, 105L, 110L, 160L), values);
+    }
+}
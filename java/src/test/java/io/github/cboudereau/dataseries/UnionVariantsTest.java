@@ -0,0 +1,68 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class UnionVariantsTest {
+
+    private static final UnionResolver<Integer, Integer, String> resolver = UnionResolver.of(x -> x.toString());
+
+    private static final Object[] reversed(final Iterable<DataPoint<Integer, String>> series) {
+        final var reversed = new ArrayList<DataPoint<Integer, String>>();
+        series.forEach(reversed::add);
+        Collections.reverse(reversed);
+        return reversed.toArray();
+    }
+
+    @Test
+    public void randomTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 2_000; i++) {
+            final var left = RandomSeries.repeated(random, random.nextInt(20));
+            final var right = RandomSeries.repeated(random, random.nextInt(20));
+            final var expected = Series.union(left, right, resolver).stream().toArray();
+
+            assertArrayEquals(expected, Series.union(left, right, resolver, KeyCodec.ofInteger()).stream().toArray());
+
+            final var checkpointed = new ArrayList<DataPoint<Integer, String>>();
+            Series.checkpointedUnion(left, right, resolver).forEachRemaining(checkpointed::add);
+            assertArrayEquals(expected, checkpointed.toArray());
+
+            final var merged = new ArrayList<DataPoint<Integer, String>>();
+            Series.checkpointedMergedUnion(left, right, resolver).forEachRemaining(merged::add);
+            assertArrayEquals(Series.merge(Series.union(left, right, resolver)).stream().toArray(), merged.toArray());
+
+            final var indexed = Series.union(Series.index(left), Series.index(right), resolver);
+            assertArrayEquals(reversed(() -> Series.union(left, right, resolver).iterator()),
+                    Series.descending(indexed).stream().toArray());
+
+            final var cursor = Series.union(Series.cursor(left), Series.cursor(right), resolver);
+            final var cursored = new ArrayList<DataPoint<Integer, String>>();
+            while (cursor.advance()) {
+                cursored.add(Series.datapoint(cursor.point(), cursor.data()));
+            }
+            assertArrayEquals(expected, cursored.toArray());
+
+            assertArrayEquals(expected, Series.union(Series.encode(left), Series.encode(right),
+                    x -> x.toString(), new Dictionary<>()).stream().toArray());
+        }
+    }
+
+    @Test
+    public void duplicatePointTest() {
+        final var left = List.of(Series.datapoint(1, 0), Series.datapoint(1, 1), Series.datapoint(3, 2));
+        final var right = List.of(Series.datapoint(0, 5), Series.datapoint(3, 6), Series.datapoint(3, 7));
+        final var expected = new Object[] { Series.datapoint(0, "RightOnly[right=5]"),
+                Series.datapoint(0, "RightOnly[right=5]"), Series.datapoint(1, "Both[left=1, right=5]"),
+                Series.datapoint(3, "Both[left=2, right=6]"), Series.datapoint(3, "Both[left=2, right=7]") };
+
+        assertArrayEquals(expected, Series.union(left, right, resolver).stream().toArray());
+        assertArrayEquals(expected, Series.union(left, right, resolver, KeyCodec.ofInteger()).stream().toArray());
+    }
+}
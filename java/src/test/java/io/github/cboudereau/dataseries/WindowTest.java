@@ -0,0 +1,124 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class WindowTest {
+
+    private static final List<DataPoint<Integer, Integer>> series = List.of(
+            Series.datapoint(1, 130),
+            Series.datapoint(3, 120),
+            Series.datapoint(10, 95),
+            Series.datapoint(20, 160));
+
+    @Test
+    public void invalidRangeTest() {
+        assertThrows(IllegalArgumentException.class, () -> Series.window(series, 5, 4));
+    }
+
+    @Test
+    public void emptyRangeTest() {
+        assertArrayEquals(new Object[] {}, Series.window(series, 5, 5).stream().toArray());
+    }
+
+    @Test
+    public void beforeFirstTest() {
+        final var expected = List.of(Series.datapoint(1, 130), Series.datapoint(3, 120)).toArray();
+        assertArrayEquals(expected, Series.window(series, 0, 10).stream().toArray());
+        assertArrayEquals(expected, Series.window(Series.index(series), 0, 10).stream().toArray());
+    }
+
+    @Test
+    public void clampTest() {
+        final var expected = List.of(Series.datapoint(5, 120), Series.datapoint(10, 95)).toArray();
+        assertArrayEquals(expected, Series.window(series, 5, 20).stream().toArray());
+        assertArrayEquals(expected, Series.window(Series.index(series), 5, 20).stream().toArray());
+    }
+
+    @Test
+    public void exactBoundsTest() {
+        final var expected = List.of(Series.datapoint(3, 120), Series.datapoint(10, 95)).toArray();
+        assertArrayEquals(expected, Series.window(series, 3, 20).stream().toArray());
+        assertArrayEquals(expected, Series.window(Series.index(series), 3, 20).stream().toArray());
+    }
+
+    @Test
+    public void afterLastTest() {
+        final var expected = List.of(Series.datapoint(30, 160)).toArray();
+        assertArrayEquals(expected, Series.window(series, 30, 40).stream().toArray());
+        assertArrayEquals(expected, Series.window(Series.index(series), 30, 40).stream().toArray());
+    }
+
+    @Test
+    public void windowOfWindowTest() {
+        final var expected = List.of(Series.datapoint(5, 120)).toArray();
+        assertArrayEquals(expected, Series.window(Series.window(series, 2, 10), 5, 20).stream().toArray());
+        assertArrayEquals(new Object[] {},
+                Series.window(Series.window(series, 2, 4), 5, 20).stream().toArray());
+    }
+
+    @Test
+    public void earlyTerminationTest() {
+        final Iterable<DataPoint<Integer, Integer>> infinite = () -> new Iterator<DataPoint<Integer, Integer>>() {
+            private int point = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public DataPoint<Integer, Integer> next() {
+                this.point++;
+                return Series.datapoint(this.point, this.point);
+            }
+        };
+
+        final var expected = List.of(Series.datapoint(3, 3), Series.datapoint(4, 4)).toArray();
+        assertArrayEquals(expected, Series.window(infinite, 3, 5).stream().toArray());
+    }
+
+    @Test
+    public void unionPushdownTest() {
+        final var left = new ArrayList<DataPoint<Integer, Integer>>();
+        final var right = new ArrayList<DataPoint<Integer, Integer>>();
+        for (var i = 0; i < 100; i++) {
+            left.add(Series.datapoint(i * 3, i));
+            right.add(Series.datapoint(i * 5 + 1, i));
+        }
+
+        final var union = Series.union(Series.index(left), Series.index(right), x -> x);
+        final var full = union.stream().toList();
+
+        for (final var from : List.of(-10, 0, 1, 2, 7, 50, 299, 400)) {
+            final var expected = Series.window(full, from, from + 37).stream().toArray();
+            final var actual = Series.window(union, from, from + 37).stream().toArray();
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void mergePushdownTest() {
+        final var x = List.of(
+                Series.datapoint(1, 10),
+                Series.datapoint(3, 10),
+                Series.datapoint(5, 20),
+                Series.datapoint(7, 20),
+                Series.datapoint(9, 10));
+
+        final var merge = Series.merge(Series.index(x));
+        final var full = merge.stream().toList();
+
+        for (final var from : List.of(0, 1, 2, 3, 4, 6, 8, 9, 10)) {
+            final var expected = Series.window(full, from, from + 4).stream().toArray();
+            final var actual = Series.window(merge, from, from + 4).stream().toArray();
+            assertArrayEquals(expected, actual);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.cboudereau.dataseries;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SeriesGatherersTest {
+
+    private static final UnionResolver<Integer, Integer, String> resolver = UnionResolver.of(x -> x.toString());
+
+    @Test
+    public void unionTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 2_000; i++) {
+            final var left = RandomSeries.repeated(random, random.nextInt(20));
+            final var right = RandomSeries.repeated(random, random.nextInt(20));
+
+            assertArrayEquals(Series.union(left, right, resolver).stream().toArray(),
+                    left.stream().gather(SeriesGatherers.union(right, resolver)).toArray());
+        }
+    }
+
+    @Test
+    public void shortCircuitTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 200; i++) {
+            final var left = RandomSeries.repeated(random, random.nextInt(20));
+            final var right = RandomSeries.repeated(random, random.nextInt(20));
+            final var limit = random.nextInt(10);
+
+            assertArrayEquals(Series.union(left, right, resolver).stream().limit(limit).toArray(),
+                    left.stream().gather(SeriesGatherers.union(right, resolver)).limit(limit).toArray());
+        }
+    }
+
+    @Test
+    public void mergeTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 2_000; i++) {
+            final var series = RandomSeries.of(random, random.nextInt(20));
+
+            assertArrayEquals(Series.merge(series).stream().toArray(),
+                    series.stream().gather(SeriesGatherers.<Integer, Integer>merge()).toArray());
+        }
+    }
+
+    @Test
+    public void mergedUnionTest() {
+        final var random = new Random(42);
+        for (var i = 0; i < 2_000; i++) {
+            final var left = RandomSeries.repeated(random, random.nextInt(20));
+            final var right = RandomSeries.repeated(random, random.nextInt(20));
+
+            assertArrayEquals(Series.merge(Series.union(left, right, resolver)).stream().toArray(),
+                    left.stream().gather(SeriesGatherers.union(right, resolver).andThen(SeriesGatherers.<Integer, String>merge()))
+                            .toArray());
+        }
+    }
+}